@@ -0,0 +1,74 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.propagation.ConjunctionScreener;
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// All-vs-all screening of a synthetic catalog over one hour at the service defaults (5 km, 30 s steps) on a
+// pool with one worker per core. Scale to a full day by multiplying by 24
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConjunctionBenchmark {
+
+    private static final double WINDOW_MILLIS = 3_600_000.0;
+
+    @Param({"1000", "10000", "30000"})
+    private int objects;
+
+    private Sgp4Propagator[] catalog;
+    private ForkJoinPool pool;
+    private double start;
+
+    @Setup
+    public void setUp() {
+        catalog = new Sgp4Propagator[objects];
+        for (int i = 0; i < objects; i++) {
+            String[] tle = GpPayloads.catalogTle(i);
+            catalog[i] = new Sgp4Propagator(TleElements.parse(tle[0], tle[1]));
+        }
+        start = catalog[0].epochUnixMillis();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long screenOneHour() {
+        LongAdder approaches = new LongAdder();
+        new ConjunctionScreener(catalog, null, 5.0, 25.0, 30.0).screen(start, start + WINDOW_MILLIS, pool,
+                pool.getParallelism(), new ConjunctionScreener.Listener() {
+                    @Override
+                    public void onApproach(ConjunctionScreener.Approach approach) {
+                        approaches.increment();
+                    }
+
+                    @Override
+                    public void onStepCompleted() {
+                    }
+                }, () -> false);
+        return approaches.sum();
+    }
+}
@@ -0,0 +1,273 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.SatelliteApplication;
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end load run: boots the application on the embedded H2 profile against SpaceTrackStub, seeds a
+// catalog and replays an open-loop request mix over real HTTP. Hot lookups follow a Zipf skew over the
+// catalog, cold lookups are ids that were never stored (each one goes upstream), and a small share are full
+// /all exports. Latency is measured from each request's scheduled arrival so queueing is included, and
+// only requests scheduled after the warmup are recorded; the warmup has to cover JIT compilation of the
+// request path, which competes with the load on small machines.
+//
+// The report is written as JSON; passing a previous report as baseline fails the run (exit 1) when a
+// class's p99 or the overall throughput regresses by more than the tolerance.
+//
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.main=backend.satellite.benchmark.EndToEndLoad \
+//       -Djmh.args="seconds=30 rate=100 catalog=5000 baseline=target/load/baseline.json"
+public class EndToEndLoad {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    enum RequestClass {
+        HOT, COLD, ALL
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Arrays.stream(args).map(arg -> arg.split("=", 2)).forEach(kv -> options.put(kv[0], kv[1]));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "45"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        int catalog = Integer.parseInt(options.getOrDefault("catalog", "5000"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "1.1"));
+        double coldRatio = Double.parseDouble(options.getOrDefault("coldRatio", "0.02"));
+        double allRatio = Double.parseDouble(options.getOrDefault("allRatio", "0.002"));
+        int upstreamDelayMs = Integer.parseInt(options.getOrDefault("upstreamDelayMs", "200"));
+        Path report = Path.of(options.getOrDefault("report", "target/load/e2e.json"));
+        String baseline = options.get("baseline");
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.25"));
+        if (catalog < 1 || catalog > 80000) {
+            throw new IllegalArgumentException("catalog must be between 1 and 80000 so cold ids stay below 99999");
+        }
+
+        int exitCode = 0;
+        try (SpaceTrackStub stub = SpaceTrackStub.start(upstreamDelayMs)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SatelliteApplication.class)
+                    .profiles("h2")
+                    // As arguments rather than default properties so they win over the h2 profile
+                    .run("--server.port=0",
+                            "--spacetrack.base-url=" + stub.baseUrl(),
+                            "--celestrak.base-url=" + stub.baseUrl(),
+                            "--spacetrack.rate-limit.per-minute=1000000",
+                            "--spacetrack.rate-limit.per-hour=1000000",
+                            "--management.tracing.sampling.probability=0",
+                            "--logging.level.root=WARN",
+                            "--logging.level.backend.satellite=WARN");
+            try {
+                seed(context.getBean(TleRepository.class), catalog);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                System.out.printf(Locale.ROOT, "%ds (+%ds warmup) at %d req/s, catalog %d, skew %.2f, cold %.1f%%, "
+                                + "/all %.2f%%, upstream delay %d ms%n", seconds, warmupSeconds, rate, catalog, skew,
+                        coldRatio * 100, allRatio * 100, upstreamDelayMs);
+                ObjectNode result = run("http://127.0.0.1:" + port, seconds, warmupSeconds, rate, catalog, skew,
+                        coldRatio, allRatio);
+                result.put("upstreamQueries", stub.queries());
+                Files.createDirectories(report.toAbsolutePath().getParent());
+                Files.writeString(report, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+                System.out.println("Report written to " + report);
+                if (baseline != null && !compare(MAPPER.readTree(Path.of(baseline).toFile()), result, tolerance)) {
+                    exitCode = 1;
+                }
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static void seed(TleRepository repository, int catalog) {
+        List<TleData> rows = new ArrayList<>(catalog);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < catalog; i++) {
+            String[] lines = GpPayloads.catalogTle(i);
+            TleData tleData = new TleData();
+            tleData.setSatNumber(String.valueOf(10000 + i));
+            tleData.setTleString("OBJECT " + (10000 + i) + "\r\n" + lines[0] + "\r\n" + lines[1] + "\r\n");
+            tleData.setLastUpdated(now);
+            rows.add(tleData);
+        }
+        repository.upsertAll(rows);
+    }
+
+    private static ObjectNode run(String baseUrl, int seconds, int warmupSeconds, int rate, int catalog, double skew,
+                                  double coldRatio, double allRatio) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        double[] zipf = zipfCdf(catalog, skew);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<RequestClass, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(RequestClass.class);
+        Map<RequestClass, AtomicInteger> errors = new EnumMap<>(RequestClass.class);
+        Map<RequestClass, AtomicInteger> sent = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            latencies.put(requestClass, new ConcurrentLinkedQueue<>());
+            errors.put(requestClass, new AtomicInteger());
+            sent.put(requestClass, new AtomicInteger());
+        }
+        AtomicInteger outstanding = new AtomicInteger();
+        int nextCold = 10000 + catalog;
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            double roll = random.nextDouble();
+            RequestClass requestClass;
+            String path;
+            if (roll < allRatio) {
+                requestClass = RequestClass.ALL;
+                path = "/all?format=ndjson&fields=satNumber,tleString";
+            } else if (roll < allRatio + coldRatio && nextCold <= 99999) {
+                requestClass = RequestClass.COLD;
+                path = "/" + nextCold++;
+            } else {
+                requestClass = RequestClass.HOT;
+                path = "/" + (10000 + sample(zipf, random.nextDouble()));
+            }
+            boolean measured = scheduled >= measureFrom;
+            if (measured) {
+                sent.get(requestClass).incrementAndGet();
+            }
+            long scheduledAt = scheduled;
+            outstanding.incrementAndGet();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                if (measured) {
+                    if (e != null || response.statusCode() != 200) {
+                        errors.get(requestClass).incrementAndGet();
+                    } else {
+                        latencies.get(requestClass).add(System.nanoTime() - scheduledAt);
+                    }
+                }
+                outstanding.decrementAndGet();
+            });
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        double elapsedSeconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        ObjectNode result = MAPPER.createObjectNode();
+        int completed = 0;
+        ObjectNode classes = result.putObject("classes");
+        for (RequestClass requestClass : RequestClass.values()) {
+            long[] sorted = latencies.get(requestClass).stream().mapToLong(Long::longValue).sorted().toArray();
+            completed += sorted.length;
+            ObjectNode node = classes.putObject(requestClass.name().toLowerCase(Locale.ROOT));
+            node.put("sent", sent.get(requestClass).get());
+            node.put("ok", sorted.length);
+            node.put("errors", errors.get(requestClass).get());
+            node.put("p50Ms", percentileMs(sorted, 0.50));
+            node.put("p90Ms", percentileMs(sorted, 0.90));
+            node.put("p99Ms", percentileMs(sorted, 0.99));
+            node.put("p999Ms", percentileMs(sorted, 0.999));
+            node.put("maxMs", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+            System.out.printf(Locale.ROOT, "%-5s %7d/%-7d errors %5d  p50 %8.2f  p90 %8.2f  p99 %8.2f  "
+                            + "p99.9 %8.2f  max %8.2f ms%n", requestClass, sorted.length, node.get("sent").asInt(),
+                    node.get("errors").asInt(), node.get("p50Ms").asDouble(), node.get("p90Ms").asDouble(),
+                    node.get("p99Ms").asDouble(), node.get("p999Ms").asDouble(), node.get("maxMs").asDouble());
+        }
+        result.put("offeredRate", rate);
+        result.put("throughput", completed / elapsedSeconds);
+        System.out.printf(Locale.ROOT, "throughput %.1f req/s (offered %d)%n", completed / elapsedSeconds, rate);
+        return result;
+    }
+
+    // A class regresses when its p99 grows, and the run when throughput drops, by more than the tolerance
+    private static boolean compare(JsonNode baseline, ObjectNode current, double tolerance) {
+        boolean ok = true;
+        for (RequestClass requestClass : RequestClass.values()) {
+            String name = requestClass.name().toLowerCase(Locale.ROOT);
+            JsonNode before = baseline.path("classes").path(name);
+            JsonNode after = current.path("classes").path(name);
+            if (before.path("ok").asInt() == 0 || after.path("ok").asInt() == 0) {
+                continue;
+            }
+            double p99Before = before.path("p99Ms").asDouble();
+            double p99After = after.path("p99Ms").asDouble();
+            if (p99After > p99Before * (1 + tolerance)) {
+                System.out.printf(Locale.ROOT, "REGRESSION %s p99 %.2f ms -> %.2f ms%n", name, p99Before, p99After);
+                ok = false;
+            }
+            if (after.path("errors").asInt() > before.path("errors").asInt()) {
+                System.out.printf(Locale.ROOT, "REGRESSION %s errors %d -> %d%n", name,
+                        before.path("errors").asInt(), after.path("errors").asInt());
+                ok = false;
+            }
+        }
+        double throughputBefore = baseline.path("throughput").asDouble();
+        double throughputAfter = current.path("throughput").asDouble();
+        if (throughputAfter < throughputBefore * (1 - tolerance)) {
+            System.out.printf(Locale.ROOT, "REGRESSION throughput %.1f -> %.1f req/s%n", throughputBefore, throughputAfter);
+            ok = false;
+        }
+        if (ok) {
+            System.out.printf(Locale.ROOT, "No regression against baseline (tolerance %.0f%%)%n", tolerance * 100);
+        }
+        return ok;
+    }
+
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private static double percentileMs(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+}
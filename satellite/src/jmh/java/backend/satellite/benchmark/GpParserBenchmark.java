@@ -0,0 +1,58 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.service.GpJsonParser;
+import backend.satellite.service.GpRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GpParserBenchmark {
+
+    @Param({"1", "30000"})
+    private int records;
+
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        json = GpPayloads.gpJson(records);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String legacyIndexOf() {
+        return LegacySpaceTrackParser.parseSpaceTrackJson(json);
+    }
+
+    @Benchmark
+    public List<GpRecord> streamingFromString() throws IOException {
+        return GpJsonParser.parse(json);
+    }
+
+    @Benchmark
+    public void streamingFromBytes(Blackhole blackhole) throws IOException {
+        GpJsonParser.parse(new ByteArrayInputStream(jsonBytes), blackhole::consume);
+    }
+}
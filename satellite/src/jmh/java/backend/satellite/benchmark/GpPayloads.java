@@ -0,0 +1,116 @@
+package backend.satellite.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+
+// Synthetic Space-Track GP payloads with the full field set of a real gp/format/json response
+final class GpPayloads {
+
+    private GpPayloads() {
+    }
+
+    static String gpJson(int records) {
+        StringBuilder json = new StringBuilder(records * 1400 + 2);
+        json.append('[');
+        for (int i = 0; i < records; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendRecord(json, 10000 + i);
+        }
+        return json.append(']').toString();
+    }
+
+    // One record per requested id, as a gp query for a list of NORAD ids returns them
+    static String gpJson(List<Integer> satNumbers) {
+        StringBuilder json = new StringBuilder(satNumbers.size() * 1400 + 2);
+        json.append('[');
+        for (int i = 0; i < satNumbers.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendRecord(json, satNumbers.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    static String tleLine1(int satNumber) {
+        return withChecksum(String.format(Locale.ROOT,
+                "1 %05dU 98067A   24015.52330648  .00016717  00000-0  30183-3 0  999", satNumber));
+    }
+
+    static String tleLine2(int satNumber) {
+        double raan = (satNumber * 7.31) % 360.0;
+        double meanAnomaly = (satNumber * 13.17) % 360.0;
+        return withChecksum(String.format(Locale.ROOT,
+                "2 %05d  51.6416 %8.4f 0004767  47.9553 %8.4f 15.49594014435531", satNumber, raan, meanAnomaly));
+    }
+
+    // Catalog-like mix of orbits: mostly LEO, with MEO navigation, geosynchronous and Molniya-type objects
+    static String[] catalogTle(int index) {
+        int satNumber = 10000 + index % 90000;
+        double inclination;
+        double eccentricity;
+        double meanMotion;
+        switch (index % 20) {
+            case 0 -> {
+                inclination = 55.0;
+                eccentricity = 0.005;
+                meanMotion = 2.0056;
+            }
+            case 1 -> {
+                inclination = (index % 7) * 0.5;
+                eccentricity = 0.0003;
+                meanMotion = 1.0027;
+            }
+            case 2 -> {
+                inclination = 63.4;
+                eccentricity = 0.70;
+                meanMotion = 2.0060;
+            }
+            default -> {
+                inclination = 40.0 + (index * 3.7) % 60.0;
+                eccentricity = 0.0001 + (index % 50) * 0.0004;
+                meanMotion = 13.0 + (index * 0.037) % 3.0;
+            }
+        }
+        String line2 = withChecksum(String.format(Locale.ROOT, "2 %05d %8.4f %8.4f %07d %8.4f %8.4f %11.8f%05d",
+                satNumber, inclination, (index * 7.31) % 360.0, Math.round(eccentricity * 1e7),
+                (index * 11.3) % 360.0, (index * 13.17) % 360.0, meanMotion, 1000));
+        return new String[]{tleLine1(satNumber), line2};
+    }
+
+    private static void appendRecord(StringBuilder json, int satNumber) {
+        json.append("{\"CCSDS_OMM_VERS\":\"2.0\",\"COMMENT\":\"GENERATED VIA SPACE-TRACK.ORG API\",")
+                .append("\"CREATION_DATE\":\"2024-01-15T18:36:12\",\"ORIGINATOR\":\"18 SPCS\",")
+                .append("\"OBJECT_NAME\":\"OBJECT ").append(satNumber).append("\",")
+                .append("\"OBJECT_ID\":\"1998-067A\",\"CENTER_NAME\":\"EARTH\",\"REF_FRAME\":\"TEME\",")
+                .append("\"TIME_SYSTEM\":\"UTC\",\"MEAN_ELEMENT_THEORY\":\"SGP4\",")
+                .append("\"EPOCH\":\"2024-01-15T12:33:33.679872\",\"MEAN_MOTION\":\"15.49594014\",")
+                .append("\"ECCENTRICITY\":\"0.00047670\",\"INCLINATION\":\"51.6416\",\"RA_OF_ASC_NODE\":\"247.4627\",")
+                .append("\"ARG_OF_PERICENTER\":\"47.9553\",\"MEAN_ANOMALY\":\"312.1878\",\"EPHEMERIS_TYPE\":\"0\",")
+                .append("\"CLASSIFICATION_TYPE\":\"U\",\"NORAD_CAT_ID\":\"").append(satNumber).append("\",")
+                .append("\"ELEMENT_SET_NO\":\"999\",\"REV_AT_EPOCH\":\"43553\",\"BSTAR\":\"0.00030183000000\",")
+                .append("\"MEAN_MOTION_DOT\":\"0.00016717\",\"MEAN_MOTION_DDOT\":\"0.0000000000000\",")
+                .append("\"SEMIMAJOR_AXIS\":\"6796.851\",\"PERIOD\":\"92.928\",\"APOAPSIS\":\"421.956\",")
+                .append("\"PERIAPSIS\":\"415.476\",\"OBJECT_TYPE\":\"PAYLOAD\",\"RCS_SIZE\":\"LARGE\",")
+                .append("\"COUNTRY_CODE\":\"ISS\",\"LAUNCH_DATE\":\"1998-11-20\",\"SITE\":\"TTMTR\",")
+                .append("\"DECAY_DATE\":null,\"FILE\":\"4183215\",\"GP_ID\":\"250447421\",")
+                .append("\"TLE_LINE0\":\"0 OBJECT ").append(satNumber).append("\",")
+                .append("\"TLE_LINE1\":\"").append(tleLine1(satNumber)).append("\",")
+                .append("\"TLE_LINE2\":\"").append(tleLine2(satNumber)).append("\"}");
+    }
+
+    private static String withChecksum(String line) {
+        int sum = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isDigit(c)) {
+                sum += c - '0';
+            } else if (c == '-') {
+                sum += 1;
+            }
+        }
+        return line + (sum % 10);
+    }
+}
@@ -0,0 +1,42 @@
+package backend.satellite.benchmark;
+
+// Verbatim copy of the indexOf-based parsing TleService used before GpJsonParser, kept as a benchmark baseline.
+// It only ever reads the first object of the array, so its multi-record numbers measure the copying overhead alone.
+final class LegacySpaceTrackParser {
+
+    private LegacySpaceTrackParser() {
+    }
+
+    static String parseSpaceTrackJson(String jsonResponse) {
+        String jsonObject = jsonResponse.trim();
+        if (jsonObject.startsWith("[")) {
+            jsonObject = jsonObject.substring(1, jsonObject.length() - 1);
+        }
+
+        String objectName = extractJsonField(jsonObject, "OBJECT_NAME");
+        String tleLine1 = extractJsonField(jsonObject, "TLE_LINE1");
+        String tleLine2 = extractJsonField(jsonObject, "TLE_LINE2");
+
+        if (objectName == null || tleLine1 == null || tleLine2 == null) {
+            throw new IllegalStateException("Failed to parse Space-Track JSON response");
+        }
+
+        return objectName + "\r\n" + tleLine1 + "\r\n" + tleLine2 + "\r\n";
+    }
+
+    static String extractJsonField(String json, String fieldName) {
+        try {
+            String searchKey = "\"" + fieldName + "\":\"";
+            int startIndex = json.indexOf(searchKey);
+            if (startIndex == -1) return null;
+
+            startIndex += searchKey.length();
+            int endIndex = json.indexOf("\"", startIndex);
+            if (endIndex == -1) return null;
+
+            return json.substring(startIndex, endIndex);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
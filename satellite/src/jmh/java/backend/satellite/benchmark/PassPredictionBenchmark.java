@@ -0,0 +1,92 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.propagation.GroundStation;
+import backend.satellite.propagation.PassPredictor;
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Each operation predicts 24 hours of passes for the next satellite of a 30,000-object synthetic catalog, so
+// ops/s is satellites per second and the "passes" counter is passes found per second. The full catalog takes
+// 30,000 / score seconds per core. bruteForceOneSecond is the fine-stepping baseline this search replaces
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassPredictionBenchmark {
+
+    private static final int CATALOG_SIZE = 30_000;
+    private static final double DAY_MILLIS = 86_400_000.0;
+    private static final GroundStation STATION = new GroundStation(40.0, -75.0, 0.1);
+
+    private Sgp4Propagator[] catalog;
+    private double start;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long passes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            passes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        catalog = new Sgp4Propagator[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String[] tle = GpPayloads.catalogTle(i);
+            catalog[i] = new Sgp4Propagator(TleElements.parse(tle[0], tle[1]));
+        }
+        start = catalog[0].epochUnixMillis();
+    }
+
+    @Benchmark
+    public List<PassPredictor.Pass> coarseToFine(Counters counters) {
+        List<PassPredictor.Pass> passes = new PassPredictor(nextSatellite(), STATION, 10.0).findPasses(start, start + DAY_MILLIS);
+        counters.passes += passes.size();
+        return passes;
+    }
+
+    @Benchmark
+    public int bruteForceOneSecond(Counters counters) {
+        PassPredictor predictor = new PassPredictor(nextSatellite(), STATION, 10.0);
+        double mask = Math.toRadians(10.0);
+        int passes = 0;
+        boolean visible = false;
+        for (double t = start; t <= start + DAY_MILLIS; t += 1_000.0) {
+            boolean above = predictor.elevation(t) >= mask;
+            if (above && !visible) {
+                passes++;
+            }
+            visible = above;
+        }
+        counters.passes += passes;
+        return passes;
+    }
+
+    private Sgp4Propagator nextSatellite() {
+        Sgp4Propagator propagator = catalog[next];
+        next = (next + 1) % CATALOG_SIZE;
+        return propagator;
+    }
+}
@@ -0,0 +1,81 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.propagation.Frames;
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Run with -prof gc to confirm the propagate path allocates nothing per call
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sgp4Benchmark {
+
+    private static final String[] NEAR_EARTH = {
+            "1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753",
+            "2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667"};
+    private static final String[] GEOSYNCHRONOUS = {
+            "1 14128U 83058A   06176.02844893 -.00000158  00000-0  10000-3 0  9627",
+            "2 14128  11.4384  35.2134 0011562  26.4582 333.5652  0.98870114 46093"};
+    private static final String[] MOLNIYA = {
+            "1 08195U 75081A   06176.33215444  .00000099  00000-0  11873-3 0   813",
+            "2 08195  64.1586 279.0717 6877146 264.7651  20.2257  2.00491383225656"};
+
+    @Param({"nearEarth", "geosynchronous", "molniya"})
+    private String orbit;
+
+    private TleElements elements;
+    private Sgp4Propagator propagator;
+    private final double[] teme = new double[6];
+    private final double[] ecef = new double[6];
+    private final double[] lla = new double[3];
+    private double tsince;
+
+    @Setup
+    public void setUp() {
+        String[] lines = switch (orbit) {
+            case "geosynchronous" -> GEOSYNCHRONOUS;
+            case "molniya" -> MOLNIYA;
+            default -> NEAR_EARTH;
+        };
+        elements = TleElements.parse(lines[0], lines[1]);
+        propagator = new Sgp4Propagator(elements);
+    }
+
+    @Benchmark
+    public Sgp4Propagator initialize() {
+        return new Sgp4Propagator(elements);
+    }
+
+    // Steps one minute per call, wrapping after a day so deep-space integration cost stays representative
+    @Benchmark
+    public double[] propagate() {
+        tsince = tsince >= 1440.0 ? 0.0 : tsince + 1.0;
+        propagator.propagate(tsince, teme);
+        return teme;
+    }
+
+    @Benchmark
+    public double[] propagateToGeodetic() {
+        tsince = tsince >= 1440.0 ? 0.0 : tsince + 1.0;
+        propagator.propagate(tsince, teme);
+        Frames.temeToEcef(teme, Frames.gmst(Frames.julianDate(propagator.epochUnixMillis() + tsince * 60_000.0)), ecef);
+        Frames.ecefToGeodetic(ecef, lla);
+        return lla;
+    }
+}
@@ -0,0 +1,98 @@
+package backend.satellite.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Local stand-in for Space-Track: accepts any login and answers gp queries for any NORAD ids with full GP
+// records after a fixed delay, so load runs exercise the real session, parsing and storage code. Celestrak's
+// gp.php is served from the same port, as three-line TLEs after the same delay
+public final class SpaceTrackStub implements AutoCloseable {
+
+    private static final Pattern NORAD_IDS = Pattern.compile("NORAD_CAT_ID/([0-9,]+)");
+    private static final Pattern CATNR = Pattern.compile("CATNR=([0-9]+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private SpaceTrackStub(int delayMs) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/ajaxauth/login", exchange -> {
+            exchange.getResponseHeaders().add("Set-Cookie", "chocolatechip=stub; path=/");
+            respond(exchange, "\"\"");
+        });
+        server.createContext("/basicspacedata", exchange -> {
+            queries.incrementAndGet();
+            List<Integer> satNumbers = new ArrayList<>();
+            Matcher matcher = NORAD_IDS.matcher(exchange.getRequestURI().getPath());
+            if (matcher.find()) {
+                for (String id : matcher.group(1).split(",")) {
+                    satNumbers.add(Integer.parseInt(id));
+                }
+            }
+            sleep(delayMs);
+            respond(exchange, GpPayloads.gpJson(satNumbers));
+        });
+        server.createContext("/NORAD/elements/gp.php", exchange -> {
+            queries.incrementAndGet();
+            Matcher matcher = CATNR.matcher(String.valueOf(exchange.getRequestURI().getQuery()));
+            String body = "No GP data found";
+            if (matcher.find()) {
+                int satNumber = Integer.parseInt(matcher.group(1));
+                body = "STUB " + satNumber + "\r\n" + GpPayloads.tleLine1(satNumber) + "\r\n"
+                        + GpPayloads.tleLine2(satNumber) + "\r\n";
+            }
+            sleep(delayMs);
+            respond(exchange, body);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static SpaceTrackStub start(int delayMs) throws IOException {
+        return new SpaceTrackStub(delayMs);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int queries() {
+        return queries.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void sleep(int delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package backend.satellite.benchmark;
+
+import backend.satellite.propagation.TleElements;
+import backend.satellite.service.GpJsonParser;
+import backend.satellite.service.GpRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-record costs on the miss path: pulling one field out of a single GP record, parsing the whole record,
+// and turning the stored TLE text into elements
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TleParsingBenchmark {
+
+    private String record;
+    private String tleString;
+
+    @Setup
+    public void setUp() {
+        record = GpPayloads.gpJson(1);
+        tleString = "OBJECT 10000\r\n" + GpPayloads.tleLine1(10000) + "\r\n" + GpPayloads.tleLine2(10000) + "\r\n";
+    }
+
+    @Benchmark
+    public String legacyExtractJsonField() {
+        return LegacySpaceTrackParser.extractJsonField(record, "TLE_LINE2");
+    }
+
+    @Benchmark
+    public List<GpRecord> streamingSingleRecord() throws IOException {
+        return GpJsonParser.parse(record);
+    }
+
+    @Benchmark
+    public TleElements parseElements() {
+        return TleElements.parse(tleString);
+    }
+}
@@ -0,0 +1,69 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.TleData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Work done on every GET /{satNumber} outside the cache lookup: id validation, the ETag and body serialization.
+// Lives in the controller package because the helpers are package-private
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    private String validId = "25544";
+    private String invalidId = "ISS";
+    private TleData tleData;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        tleData = new TleData();
+        tleData.setId(42L);
+        tleData.setSatNumber("25544");
+        tleData.setTleString("ISS (ZARYA)\r\n"
+                + "1 25544U 98067A   24015.52330648  .00016717  00000-0  30183-3 0  9993\r\n"
+                + "2 25544  51.6416 247.4627 0004767  47.9553 312.1878 15.49594014435531\r\n");
+        tleData.setLastUpdated(LocalDateTime.now());
+        tleData.setFetchCount(1234);
+        // Same modules and features as the ObjectMapper Spring Boot configures
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public boolean validSatelliteNumber() {
+        return SatelliteNumbers.isValid(validId);
+    }
+
+    @Benchmark
+    public boolean invalidSatelliteNumber() {
+        return SatelliteNumbers.isValid(invalidId);
+    }
+
+    @Benchmark
+    public String eTag() {
+        return TleCaching.eTag(tleData);
+    }
+
+    @Benchmark
+    public byte[] serializeEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tleData);
+    }
+}
@@ -0,0 +1,82 @@
+package backend.satellite.service;
+
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// One day at 1 s resolution (86,400 state vectors) for a single satellite, written to a discarding stream.
+// Lives in the service package because EphemerisStream's constructor is package-private
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EphemerisBenchmark {
+
+    private static final int STEPS = 86_400;
+
+    @Param({"1", "0"})
+    private int parallelism;
+
+    @Param({"NDJSON", "BINARY"})
+    private EphemerisFormat format;
+
+    private ForkJoinPool pool;
+    private EphemerisStream stream;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        Sgp4Propagator propagator = new Sgp4Propagator(TleElements.parse(
+                "1 25544U 98067A   24015.52330648  .00016717  00000-0  30183-3 0  9994",
+                "2 25544  51.6416 247.4627 0004767  47.9553 312.1878 15.49594014435531"));
+        stream = new EphemerisStream(List.of("25544"), Collections.singletonList(propagator),
+                (long) propagator.epochUnixMillis(), 1_000, STEPS, format, 1024, 2 * pool.getParallelism(), pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long writeOneDay() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        stream.writeTo(out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package backend.satellite.service;
+
+import backend.satellite.benchmark.SpaceTrackStub;
+import backend.satellite.config.AsyncConfig;
+import backend.satellite.config.RestTemplateConfig;
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Load harness for cache misses against a slow upstream. SpaceTrackStub plays Space-Track with a fixed delay,
+// while an open-loop generator sends hot-key hits and cold misses to a fixed pool of request threads that
+// stands in for Tomcat's workers. In blocking mode a worker waits for its miss (the old getTleData path);
+// in async mode it hands the future off and is free again, as the servlet does with the controller's
+// CompletableFuture. Latency is measured from each request's scheduled arrival, so queueing behind
+// stalled workers is included.
+//
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.main=backend.satellite.service.UpstreamStallLoad \
+//       -Djmh.args="seconds=20 workers=16 hotRate=400 coldRate=10 upstreamDelayMs=2000 upstreamPool=64"
+public class UpstreamStallLoad {
+
+    private static final int HOT_KEYS = 100;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Arrays.stream(args).map(arg -> arg.split("=", 2)).forEach(kv -> options.put(kv[0], kv[1]));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int workers = Integer.parseInt(options.getOrDefault("workers", "16"));
+        int hotRate = Integer.parseInt(options.getOrDefault("hotRate", "400"));
+        int coldRate = Integer.parseInt(options.getOrDefault("coldRate", "10"));
+        int upstreamDelayMs = Integer.parseInt(options.getOrDefault("upstreamDelayMs", "2000"));
+        int upstreamPool = Integer.parseInt(options.getOrDefault("upstreamPool", "64"));
+
+        try (SpaceTrackStub stub = SpaceTrackStub.start(upstreamDelayMs)) {
+            System.out.printf(Locale.ROOT, "%ds, %d request threads, %d hot req/s over %d keys, %d cold req/s, "
+                            + "upstream delay %d ms, upstream pool %d%n",
+                    seconds, workers, hotRate, HOT_KEYS, coldRate, upstreamDelayMs, upstreamPool);
+            for (boolean async : new boolean[]{false, true}) {
+                run(async, stub.baseUrl(), seconds, workers, hotRate, coldRate, upstreamPool);
+            }
+        } finally {
+            System.exit(0);
+        }
+    }
+
+    private static void run(boolean async, String stubUrl, int seconds, int workers, int hotRate, int coldRate,
+                            int upstreamPool) throws Exception {
+        RestTemplateConfig restConfig = new RestTemplateConfig();
+        CloseableHttpClient httpClient = restConfig.upstreamHttpClient(upstreamPool, 5_000, 60_000, 30);
+        SpaceTrackSession session = new SpaceTrackSession();
+        ReflectionTestUtils.setField(session, "baseUrl", stubUrl);
+        ReflectionTestUtils.setField(session, "spacetrackUsername", "load");
+        ReflectionTestUtils.setField(session, "spacetrackPassword", "load");
+        ReflectionTestUtils.setField(session, "sessionTtlMinutes", 90L);
+        ReflectionTestUtils.setField(session, "requestsPerMinute", 1_000_000);
+        ReflectionTestUtils.setField(session, "requestsPerHour", 1_000_000);
+        ReflectionTestUtils.setField(session, "maxWaitSeconds", 30L);
+        ReflectionTestUtils.setField(session, "restTemplate", restConfig.restTemplate(new RestTemplateBuilder(), httpClient));
+        ReflectionTestUtils.setField(session, "observationRegistry", ObservationRegistry.NOOP);
+        session.init();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncTaskExecutor upstreamExecutor = new AsyncConfig().upstreamExecutor(upstreamPool, 100_000, false);
+        ((ThreadPoolTaskExecutor) upstreamExecutor).initialize();
+        TleCache cache = new TleCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "minTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "upstreamExecutor", upstreamExecutor);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        cache.init();
+
+        TleRepository repository = mock(TleRepository.class);
+        when(repository.findBySatNumber(anyString())).thenReturn(null);
+        when(repository.save(any(TleData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TleService service = new TleService();
+        ReflectionTestUtils.setField(service, "tleRepository", repository);
+        SpaceTrackClient client = new SpaceTrackClient();
+        ReflectionTestUtils.setField(client, "failureThreshold", 5);
+        ReflectionTestUtils.setField(client, "openSeconds", 30L);
+        ReflectionTestUtils.setField(client, "spaceTrackSession", session);
+        ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(client, "observationRegistry", ObservationRegistry.NOOP);
+        client.init();
+        TleSources sources = new TleSources();
+        ReflectionTestUtils.setField(sources, "order", List.of("spacetrack"));
+        ReflectionTestUtils.setField(sources, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(sources, "latencyWindow", 200);
+        ReflectionTestUtils.setField(sources, "sources", List.<TleSource>of(client));
+        ReflectionTestUtils.setField(sources, "sourceExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(sources, "meterRegistry", meterRegistry);
+        sources.init();
+        ReflectionTestUtils.setField(service, "tleSources", sources);
+        ReflectionTestUtils.setField(service, "upstreamExecutor", upstreamExecutor);
+        ReflectionTestUtils.setField(service, "tleCache", cache);
+        ReflectionTestUtils.setField(service, "fetchCountAggregator", new FetchCountAggregator());
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "tleHistoryService", mock(TleHistoryService.class));
+
+        for (int i = 0; i < HOT_KEYS; i++) {
+            TleData hot = new TleData();
+            hot.setSatNumber(String.valueOf(20000 + i));
+            hot.setTleString("hot");
+            hot.setLastUpdated(LocalDateTime.now());
+            cache.put(hot);
+        }
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(workers);
+        ConcurrentLinkedQueue<Long> hotLatencies = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> coldLatencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger failures = new AtomicInteger();
+        int coldSeq = 0;
+
+        // Open loop: arrivals follow the schedule no matter how far behind the workers are
+        long hotIntervalNanos = TimeUnit.SECONDS.toNanos(1) / hotRate;
+        long coldIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, coldRate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long nextHot = start;
+        long nextCold = coldRate > 0 ? start : Long.MAX_VALUE;
+        int hotSeq = 0;
+        while (true) {
+            long scheduled = Math.min(nextHot, nextCold);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean cold = scheduled == nextCold;
+            String satNumber;
+            ConcurrentLinkedQueue<Long> latencies;
+            if (cold) {
+                satNumber = String.valueOf(60000 + coldSeq++);
+                latencies = coldLatencies;
+                nextCold += coldIntervalNanos;
+            } else {
+                satNumber = String.valueOf(20000 + hotSeq++ % HOT_KEYS);
+                latencies = hotLatencies;
+                nextHot += hotIntervalNanos;
+            }
+            requestThreads.execute(() -> {
+                if (async) {
+                    service.getTleDataAsync(satNumber).whenComplete((data, e) -> record(scheduled, e, latencies, failures));
+                } else {
+                    Throwable error = null;
+                    try {
+                        service.getTleData(satNumber);
+                    } catch (RuntimeException e) {
+                        error = e;
+                    }
+                    record(scheduled, error, latencies, failures);
+                }
+            });
+        }
+
+        int expectedHot = hotSeq;
+        int expectedCold = coldSeq;
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds + 60);
+        while (hotLatencies.size() + coldLatencies.size() + failures.get() < expectedHot + expectedCold
+                && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        requestThreads.shutdownNow();
+        ((ThreadPoolTaskExecutor) upstreamExecutor).shutdown();
+        httpClient.close();
+
+        System.out.printf(Locale.ROOT, "%-8s hot  %6d/%-6d %s%n", async ? "async" : "blocking",
+                hotLatencies.size(), expectedHot, percentiles(hotLatencies));
+        System.out.printf(Locale.ROOT, "%-8s cold %6d/%-6d %s  failures %d%n", async ? "async" : "blocking",
+                coldLatencies.size(), expectedCold, percentiles(coldLatencies), failures.get());
+    }
+
+    private static void record(long scheduled, Throwable error, ConcurrentLinkedQueue<Long> latencies,
+                               AtomicInteger failures) {
+        if (error != null) {
+            failures.incrementAndGet();
+        } else {
+            latencies.add(System.nanoTime() - scheduled);
+        }
+    }
+
+    private static String percentiles(ConcurrentLinkedQueue<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return "no completions";
+        }
+        return String.format(Locale.ROOT, "p50 %8.1f ms  p99 %8.1f ms  max %8.1f ms",
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,137 @@
+package backend.satellite.config;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    // Dedicated pool for cache loads so slow Space-Track calls never run on the common ForkJoinPool.
+    // On Java 21 each load can instead get its own virtual thread; concurrency is then bounded by the
+    // upstream connection pool rather than by pool-size
+    @Bean(name = "upstreamExecutor")
+    public AsyncTaskExecutor upstreamExecutor(
+            @Value("${tle.upstream.pool-size:8}") int poolSize,
+            @Value("${tle.upstream.queue-capacity:1000}") int queueCapacity,
+            @Value("${tle.upstream.virtual-threads:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tle-upstream-");
+                executor.setVirtualThreads(true);
+                executor.setTaskDecorator(AsyncConfig::propagateContext);
+                executor.setTaskTerminationTimeout(30_000);
+                return executor;
+            }
+            logger.warn("tle.upstream.virtual-threads requires Java 21, using a platform thread pool on Java {}",
+                    Runtime.version().feature());
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tle-upstream-");
+        executor.setTaskDecorator(AsyncConfig::propagateContext);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Carries the submitting request's trace context onto the worker, so upstream spans nest under the request
+    private static Runnable propagateContext(Runnable task) {
+        return ContextSnapshotFactory.builder().build().captureAll().wrap(task);
+    }
+
+    // Calls to upstream TLE sources, so a fetch can wait on two sources at once when it hedges. Without a spare
+    // thread the caller queries the source itself
+    @Bean(name = "sourceExecutor")
+    public ThreadPoolTaskExecutor sourceExecutor(@Value("${tle.sources.pool-size:32}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("tle-source-");
+        executor.setTaskDecorator(AsyncConfig::propagateContext);
+        return executor;
+    }
+
+    // CPU-bound propagation work; defaults to one worker per core
+    @Bean(name = "propagationPool", destroyMethod = "shutdown")
+    public ForkJoinPool propagationPool(@Value("${tle.propagation.parallelism:0}") int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("tle-propagation-" + thread.getPoolIndex());
+            return thread;
+        };
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(size, threadFactory, null, false);
+    }
+
+    // Screening jobs and their step workers, kept off the propagation pool so a long screen never queues
+    // interactive position and ephemeris requests behind it. Defaults to one thread per core
+    @Bean(name = "conjunctionExecutor")
+    public ThreadPoolTaskExecutor conjunctionExecutor(@Value("${tle.conjunctions.pool-size:0}") int poolSize) {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setThreadNamePrefix("tle-conjunction-");
+        return executor;
+    }
+
+    // Threads that write streamed responses; the pool size caps how many streams run at once
+    @Bean(name = "streamingExecutor")
+    public ThreadPoolTaskExecutor streamingExecutor(
+            @Value("${tle.streaming.pool-size:16}") int poolSize,
+            @Value("${tle.streaming.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tle-streaming-");
+        return executor;
+    }
+
+    // Writes events to live position streams. Writes are non-blocking, so a client that stops reading never holds
+    // a thread and a small pool serves many connections; the bounded queue is the backpressure
+    @Bean(name = "streamSendExecutor")
+    public ThreadPoolTaskExecutor streamSendExecutor(
+            @Value("${tle.stream.sender-threads:8}") int senderThreads,
+            @Value("${tle.stream.sender-queue:50000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(senderThreads);
+        executor.setMaxPoolSize(senderThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tle-stream-send-");
+        return executor;
+    }
+
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(
+            @Qualifier("streamingExecutor") AsyncTaskExecutor streamingExecutor,
+            @Value("${tle.streaming.timeout-ms:600000}") long timeoutMs) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(streamingExecutor);
+                configurer.setDefaultTimeout(timeoutMs);
+            }
+        };
+    }
+}
@@ -1,22 +1,88 @@
 package backend.satellite.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
 
 @Configuration
-@EnableRetry
+@EnableRetry(proxyTargetClass = true)
 public class RestTemplateConfig {
 
+    // Pooled keep-alive connections so concurrent upstream fetches reuse TLS sessions instead of
+    // handshaking per request; the pool size also bounds how many fetches can be in flight at once
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient(
+            @Value("${tle.upstream.http.max-connections:64}") int maxConnections,
+            @Value("${tle.upstream.http.connect-timeout-ms:30000}") long connectTimeoutMs,
+            @Value("${tle.upstream.http.read-timeout-ms:60000}") long readTimeoutMs,
+            @Value("${tle.upstream.http.idle-eviction-seconds:30}") long idleEvictionSeconds) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .build())
+                // SpaceTrackSession owns the session cookie and sends it explicitly
+                .disableCookieManagement()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+    }
+
+    // Applies to every @Retryable; attempts are tagged with the retried method so upstream retries can be told apart
+    @Bean
+    public RetryListener retryMetricsListener(MeterRegistry meterRegistry) {
+        return new RetryListener() {
+            @Override
+            public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                meterRegistry.counter("retry.attempt.failures", "method", retryName(context),
+                        "exception", throwable.getClass().getSimpleName()).increment();
+            }
+
+            @Override
+            public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                if (throwable != null && context.getRetryCount() > 0) {
+                    meterRegistry.counter("retry.exhausted", "method", retryName(context)).increment();
+                }
+            }
+
+            private String retryName(RetryContext context) {
+                Object name = context.getAttribute(RetryContext.NAME);
+                return name != null ? name.toString() : "unknown";
+            }
+        };
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient upstreamHttpClient) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(30))
-                .setReadTimeout(Duration.ofSeconds(60))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(upstreamHttpClient))
                 .build();
     }
 }
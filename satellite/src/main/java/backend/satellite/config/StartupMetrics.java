@@ -0,0 +1,75 @@
+package backend.satellite.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+// Startup milestones in seconds since the JVM started, next to Boot's application.started/ready.time:
+// tle.startup.first-request when the first HTTP request has been served, and tle.startup.warm when the warm
+// snapshot has been loaded into the TLE cache. Both stay NaN until reached (warm on a cold start, too)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupMetrics extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetrics.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile double firstRequestSeconds = Double.NaN;
+    private volatile double warmSeconds = Double.NaN;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("tle.startup.first-request", this, metrics -> metrics.firstRequestSeconds)
+                .description("Time from JVM start until the first HTTP request was served")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("tle.startup.warm", this, metrics -> metrics.warmSeconds)
+                .description("Time from JVM start until the TLE cache was warmed from the snapshot")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void markWarm(int entries) {
+        warmSeconds = uptimeSeconds();
+        logger.info("TLE cache warmed with {} satellites {}s after JVM start", entries, warmSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (Double.isNaN(firstRequestSeconds)) {
+                markFirstRequest(request.getRequestURI());
+            }
+        }
+    }
+
+    private synchronized void markFirstRequest(String uri) {
+        if (Double.isNaN(firstRequestSeconds)) {
+            firstRequestSeconds = uptimeSeconds();
+            logger.info("First request ({}) served {}s after JVM start", uri, firstRequestSeconds);
+        }
+    }
+
+    private static double uptimeSeconds() {
+        return ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+    }
+}
@@ -0,0 +1,78 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.ConjunctionJobStatus;
+import backend.satellite.model.ConjunctionScreeningRequest;
+import backend.satellite.service.ConjunctionJob;
+import backend.satellite.service.ConjunctionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/conjunctions")
+public class ConjunctionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConjunctionController.class);
+
+    @Autowired
+    private ConjunctionService conjunctionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<ConjunctionJobStatus> submitScreening(@RequestBody ConjunctionScreeningRequest request) {
+        logger.info("Received conjunction screening request");
+        validateIds(request.primaries());
+        validateIds(request.ids());
+
+        ConjunctionJob job = conjunctionService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/conjunctions/" + job.id()))
+                .body(job.status());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ConjunctionJobStatus> getStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(conjunctionService.getJob(jobId).status());
+    }
+
+    // NDJSON in the order approaches are found; the stream stays open until the job finishes
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<StreamingResponseBody> getResults(@PathVariable String jobId) {
+        ConjunctionJob job = conjunctionService.getJob(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> job.writeResults(out, objectMapper));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ConjunctionJobStatus> cancel(@PathVariable String jobId) {
+        logger.info("Received cancellation for conjunction screening job {}", jobId);
+        return ResponseEntity.ok(conjunctionService.cancel(jobId).status());
+    }
+
+    private static void validateIds(List<String> ids) {
+        if (ids == null) {
+            return;
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Satellite lists must not be empty when given.");
+        }
+        ids.forEach(SatelliteNumbers::requireValid);
+    }
+}
@@ -0,0 +1,82 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.SatellitePass;
+import backend.satellite.propagation.GroundStation;
+import backend.satellite.service.PassPredictionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/")
+public class PassController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassController.class);
+
+    @Autowired
+    private PassPredictionService passPredictionService;
+
+    @GetMapping("/{satNumber}/passes")
+    public ResponseEntity<List<SatellitePass>> getPasses(
+            @PathVariable String satNumber,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "0") double alt,
+            @RequestParam(defaultValue = "0") double minElevation,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end) {
+        logger.info("Received pass request for satellite {} over ({}, {})", satNumber, lat, lon);
+        return ResponseEntity.ok(predict(List.of(satNumber), lat, lon, alt, minElevation, start, end));
+    }
+
+    @GetMapping("/passes")
+    public ResponseEntity<List<SatellitePass>> getPassesBatch(
+            @RequestParam List<String> ids,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "0") double alt,
+            @RequestParam(defaultValue = "0") double minElevation,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end) {
+        logger.info("Received pass request for {} satellites over ({}, {})", ids.size(), lat, lon);
+        return ResponseEntity.ok(predict(ids, lat, lon, alt, minElevation, start, end));
+    }
+
+    @PostMapping("/passes")
+    public ResponseEntity<List<SatellitePass>> postPassesBatch(
+            @RequestBody List<String> ids,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "0") double alt,
+            @RequestParam(defaultValue = "0") double minElevation,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end) {
+        logger.info("Received pass request for {} satellites over ({}, {})", ids.size(), lat, lon);
+        return ResponseEntity.ok(predict(ids, lat, lon, alt, minElevation, start, end));
+    }
+
+    // The window defaults to the next 24 hours
+    private List<SatellitePass> predict(List<String> ids, double lat, double lon, double alt, double minElevation,
+                                        String start, String end) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one satellite number is required.");
+        }
+        ids.forEach(SatelliteNumbers::requireValid);
+
+        Instant from = TimeParams.parseInstant(start);
+        Instant to = end == null || end.isBlank() ? from.plus(Duration.ofDays(1)) : TimeParams.parseInstant(end);
+        return passPredictionService.predictPasses(ids, new GroundStation(lat, lon, alt), minElevation, from, to);
+    }
+}
@@ -0,0 +1,120 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.SatellitePosition;
+import backend.satellite.service.EphemerisFormat;
+import backend.satellite.service.EphemerisService;
+import backend.satellite.service.EphemerisStream;
+import backend.satellite.service.PositionStreamService;
+import backend.satellite.service.PropagationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/")
+public class PropagationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropagationController.class);
+
+    @Autowired
+    private PropagationService propagationService;
+
+    @Autowired
+    private EphemerisService ephemerisService;
+
+    @Autowired
+    private PositionStreamService positionStreamService;
+
+    @GetMapping("/{satNumber}/position")
+    public ResponseEntity<SatellitePosition> getPosition(
+            @PathVariable String satNumber,
+            @RequestParam(required = false) String t) {
+        logger.info("Received position request for satellite {} at {}", satNumber, t);
+        SatelliteNumbers.requireValid(satNumber);
+
+        return ResponseEntity.ok(propagationService.getPosition(satNumber, TimeParams.parseInstant(t)));
+    }
+
+    @GetMapping("/{satNumber}/ephemeris")
+    public ResponseEntity<StreamingResponseBody> getEphemeris(
+            @PathVariable String satNumber,
+            @RequestParam(required = false) String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "60") double step,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("Received ephemeris request for satellite {} from {} to {} every {}s", satNumber, start, end, step);
+        return streamEphemeris(List.of(satNumber), start, end, step, format);
+    }
+
+    @GetMapping("/ephemeris")
+    public ResponseEntity<StreamingResponseBody> getEphemerisBatch(
+            @RequestParam List<String> ids,
+            @RequestParam(required = false) String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "60") double step,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("Received ephemeris request for {} satellites from {} to {} every {}s", ids.size(), start, end, step);
+        return streamEphemeris(ids, start, end, step, format);
+    }
+
+    @PostMapping("/ephemeris")
+    public ResponseEntity<StreamingResponseBody> postEphemerisBatch(
+            @RequestBody List<String> ids,
+            @RequestParam(required = false) String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "60") double step,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        logger.info("Received ephemeris request for {} satellites from {} to {} every {}s", ids.size(), start, end, step);
+        return streamEphemeris(ids, start, end, step, format);
+    }
+
+    // Server-sent "positions" events, each a JSON array of the current positions, every interval seconds
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamPositions(
+            @RequestParam List<String> ids,
+            @RequestParam(defaultValue = "1") int interval,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        logger.info("Received position stream request for {} satellites every {}s", ids.size(), interval);
+        ids.forEach(SatelliteNumbers::requireValid);
+
+        positionStreamService.subscribe(ids, interval, request, response);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamEphemeris(
+            List<String> ids, String start, String end, double stepSeconds, String format) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one satellite number is required.");
+        }
+        ids.forEach(SatelliteNumbers::requireValid);
+        if (!(stepSeconds > 0)) {
+            throw new IllegalArgumentException("Invalid step: " + stepSeconds + ". Must be a positive number of seconds.");
+        }
+
+        EphemerisStream ephemeris = ephemerisService.prepare(
+                ids,
+                TimeParams.parseInstant(start),
+                TimeParams.parseInstant(end),
+                Duration.ofMillis(Math.round(stepSeconds * 1000)),
+                EphemerisFormat.parse(format));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ephemeris.format().contentType()))
+                .body(ephemeris::writeTo);
+    }
+}
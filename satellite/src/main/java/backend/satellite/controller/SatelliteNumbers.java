@@ -0,0 +1,36 @@
+package backend.satellite.controller;
+
+final class SatelliteNumbers {
+
+    private SatelliteNumbers() {
+    }
+
+    // Positive int in ASCII digits (optional leading +), checked without the cost of a NumberFormatException
+    static boolean isValid(String satNumber) {
+        if (satNumber == null || satNumber.isEmpty()) {
+            return false;
+        }
+        int start = satNumber.charAt(0) == '+' ? 1 : 0;
+        if (start == satNumber.length()) {
+            return false;
+        }
+        long number = 0;
+        for (int i = start; i < satNumber.length(); i++) {
+            char c = satNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            number = number * 10 + (c - '0');
+            if (number > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return number > 0;
+    }
+
+    static void requireValid(String satNumber) {
+        if (!isValid(satNumber)) {
+            throw new IllegalArgumentException("Invalid satellite number: " + satNumber + ". Must be a positive integer.");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package backend.satellite.controller;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+final class TimeParams {
+
+    private TimeParams() {
+    }
+
+    // ISO-8601 instant such as 2024-01-15T12:00:00Z; defaults to now
+    static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return Instant.now();
+        }
+        return parse(value);
+    }
+
+    static Instant parseOptionalInstant(String value) {
+        return value == null || value.isBlank() ? null : parse(value);
+    }
+
+    private static Instant parse(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time: " + value + ". Must be an ISO-8601 instant.");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.TleData;
+import backend.satellite.service.TleService;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+// HTTP validators for TLE responses. A record only changes when it is re-fetched, which moves lastUpdated
+// and usually the element epoch, so the pair identifies the representation without hashing the body
+final class TleCaching {
+
+    // Set when the record is past its staleness window, e.g. served while a refresh runs or Space-Track is down
+    static final String STALE_HEADER = "X-Tle-Stale";
+
+    private TleCaching() {
+    }
+
+    // Weak because fetchCount in the body can drift between reloads without the TLE itself changing
+    static String eTag(TleData tleData) {
+        return "W/\"" + tleData.getSatNumber() + "-" + epochField(tleData.getTleString()) + "-"
+                + Long.toHexString(lastModified(tleData)) + "\"";
+    }
+
+    static long lastModified(TleData tleData) {
+        return tleData.getLastUpdated().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Browsers and shared caches may answer repeat reads until the record would be considered stale and re-fetched,
+    // then revalidate with the ETag. Reads they absorb never reach the app, so fetchCount is a lower bound
+    static CacheControl cacheControl(TleData tleData) {
+        long seconds = Math.max(0, Duration.between(LocalDateTime.now(), TleService.staleAt(tleData)).getSeconds());
+        return CacheControl.maxAge(seconds, TimeUnit.SECONDS).sMaxAge(seconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    static boolean isStale(TleData tleData) {
+        return LocalDateTime.now().isAfter(TleService.staleAt(tleData));
+    }
+
+    // Raw YYDDD.DDDDDDDD epoch from line 1, falling back to a content hash for records without element lines
+    private static String epochField(String tleString) {
+        if (tleString != null) {
+            int newline = tleString.indexOf("\n1 ");
+            int line1 = tleString.startsWith("1 ") ? 0 : newline < 0 ? -1 : newline + 1;
+            if (line1 >= 0) {
+                int end = tleString.indexOf('\n', line1);
+                if ((end < 0 ? tleString.length() : end) - line1 >= 32) {
+                    return tleString.substring(line1 + 18, line1 + 32).trim();
+                }
+            }
+        }
+        return Integer.toHexString(tleString != null ? tleString.hashCode() : 0);
+    }
+}
@@ -1,17 +1,31 @@
 package backend.satellite.controller;
 
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.HistoricalTle;
+import backend.satellite.model.TleBatchResponse;
 import backend.satellite.model.TleData;
+import backend.satellite.model.TleField;
+import backend.satellite.model.TleSearchResponse;
+import backend.satellite.service.TleExportService;
+import backend.satellite.service.TleHistoryService;
 import backend.satellite.service.TleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/")
@@ -22,6 +36,12 @@ public class TleController {
     @Autowired
     private TleService tleService;
 
+    @Autowired
+    private TleExportService tleExportService;
+
+    @Autowired
+    private TleHistoryService tleHistoryService;
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -30,7 +50,7 @@ public class TleController {
         return ResponseEntity.ok(Map.of(
             "message", "Welcome to the Satellite TLE Data API",
             "version", "2.0",
-            "endpoints", "/api/{satNumber}, /api/most-fetched, /api/all"
+            "endpoints", "/api/{satNumber}, /api/{satNumber}/position, /api/most-fetched, /api/all"
         ));
     }
 
@@ -65,15 +85,40 @@ public class TleController {
     }
 
     @GetMapping("/{satNumber}")
-    public ResponseEntity<TleData> getTleData(@PathVariable String satNumber) {
+    public CompletableFuture<ResponseEntity<TleData>> getTleData(@PathVariable String satNumber) {
         logger.info("Received request for satellite number: {}", satNumber);
         
-        if (!isValidSatelliteNumber(satNumber)) {
-            throw new IllegalArgumentException("Invalid satellite number: " + satNumber + ". Must be a positive integer.");
-        }
+        SatelliteNumbers.requireValid(satNumber);
         
-        TleData data = tleService.getTleData(satNumber);
-        return ResponseEntity.ok(data);
+        // Returned as a future so a cache miss does not pin a Tomcat worker for the upstream round trip.
+        // A cache hit answers without touching the database; when the ETag or Last-Modified matches the
+        // request's validators Spring turns this into a 304 without serializing the body
+        return tleService.getTleDataAsync(satNumber).thenApply(data -> ResponseEntity.ok()
+                .eTag(TleCaching.eTag(data))
+                .lastModified(TleCaching.lastModified(data))
+                .cacheControl(TleCaching.cacheControl(data))
+                .header(TleCaching.STALE_HEADER, String.valueOf(TleCaching.isStale(data)))
+                .body(data));
+    }
+
+    // The recorded element set whose epoch is nearest to `at` (default now), from the append-only history
+    @GetMapping("/{satNumber}/tle")
+    public ResponseEntity<HistoricalTle> getHistoricalTle(@PathVariable String satNumber,
+                                                          @RequestParam(required = false) String at) {
+        SatelliteNumbers.requireValid(satNumber);
+        return ResponseEntity.ok(tleHistoryService.findNearest(satNumber, TimeParams.parseInstant(at)));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<TleBatchResponse> getTleDataBatch(@RequestParam List<String> ids) {
+        logger.info("Received batch request for {} satellites", ids.size());
+        return ResponseEntity.ok(fetchBatch(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<TleBatchResponse> postTleDataBatch(@RequestBody List<String> ids) {
+        logger.info("Received batch request for {} satellites", ids.size());
+        return ResponseEntity.ok(fetchBatch(ids));
     }
 
     @GetMapping("/most-fetched")
@@ -84,10 +129,52 @@ public class TleController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<TleData>> getAllTleData() {
-        logger.info("Received request for all satellite data");
-        List<TleData> data = tleService.getAllTleData();
-        return ResponseEntity.ok(data);
+    public ResponseEntity<StreamingResponseBody> getAllTleData(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Received request for all satellite data (after={}, limit={})", after, limit);
+        TleExportService.Format exportFormat = TleExportService.Format.parse(format);
+        Set<TleField> selected = TleField.parse(fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()));
+
+        if (limit == null) {
+            return response.body(tleExportService.exportAll(selected, after, exportFormat));
+        }
+        TleExportService.Page page = tleExportService.exportPage(selected, after, limit, exportFormat);
+        if (page.nextAfter() != null) {
+            response.header("X-Next-After", page.nextAfter().toString());
+        }
+        return response.body(page.body());
+    }
+
+    // e.g. /search?maxApogeeKm=2000&minInclination=97 for sun-synchronous LEO, /search?olderThanDays=3 for old element sets
+    @GetMapping("/search")
+    public ResponseEntity<TleSearchResponse> searchTleData(
+            @RequestParam(required = false) Double minInclination,
+            @RequestParam(required = false) Double maxInclination,
+            @RequestParam(required = false) Double minMeanMotion,
+            @RequestParam(required = false) Double maxMeanMotion,
+            @RequestParam(required = false) Double maxEccentricity,
+            @RequestParam(required = false) Double minPerigeeKm,
+            @RequestParam(required = false) Double maxApogeeKm,
+            @RequestParam(required = false) String epochAfter,
+            @RequestParam(required = false) String epochBefore,
+            @RequestParam(required = false) Double olderThanDays,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        Instant before = TimeParams.parseOptionalInstant(epochBefore);
+        if (olderThanDays != null) {
+            Instant cutoff = Instant.now().minusMillis(Math.round(olderThanDays * 86_400_000));
+            before = before == null || cutoff.isBefore(before) ? cutoff : before;
+        }
+        ElementsFilter filter = new ElementsFilter(minInclination, maxInclination, minMeanMotion, maxMeanMotion,
+                maxEccentricity, minPerigeeKm, maxApogeeKm, toUtc(TimeParams.parseOptionalInstant(epochAfter)),
+                toUtc(before));
+        logger.info("Received element search (after={}, limit={})", after, limit);
+        return ResponseEntity.ok(tleService.searchByElements(filter, after, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -97,12 +184,15 @@ public class TleController {
         return ResponseEntity.ok(Map.of("message", "TLE data deleted successfully", "id", id.toString()));
     }
 
-    private boolean isValidSatelliteNumber(String satNumber) {
-        try {
-            int number = Integer.parseInt(satNumber);
-            return number > 0;
-        } catch (NumberFormatException e) {
-            return false;
+    private static LocalDateTime toUtc(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+
+    private TleBatchResponse fetchBatch(List<String> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one satellite number is required.");
         }
+        ids.forEach(SatelliteNumbers::requireValid);
+        return tleService.getTleDataBatch(ids);
     }
 }
\ No newline at end of file
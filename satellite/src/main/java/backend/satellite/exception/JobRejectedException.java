@@ -0,0 +1,8 @@
+package backend.satellite.exception;
+
+public class JobRejectedException extends RuntimeException {
+
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package backend.satellite.exception;
+
+public class PropagationException extends RuntimeException {
+
+    public PropagationException(String message) {
+        super(message);
+    }
+
+    public PropagationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package backend.satellite.model;
+
+import java.time.Instant;
+
+public record Conjunction(
+        String primary,
+        String secondary,
+        Instant tca,
+        double missDistanceKm,
+        double relativeSpeedKmS) {
+}
@@ -0,0 +1,19 @@
+package backend.satellite.model;
+
+import java.time.Instant;
+
+public record ConjunctionJobStatus(
+        String id,
+        String state,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        int objects,
+        int candidates,
+        long stepsCompleted,
+        long totalSteps,
+        double progress,
+        int conjunctions,
+        boolean truncated,
+        String error) {
+}
@@ -0,0 +1,15 @@
+package backend.satellite.model;
+
+import java.time.Instant;
+import java.util.List;
+
+// ids limits the screened population (default: every stored TLE); primaries switches to one-vs-all screening.
+// Omitted values fall back to the service defaults
+public record ConjunctionScreeningRequest(
+        List<String> primaries,
+        List<String> ids,
+        Instant start,
+        Instant end,
+        Double thresholdKm,
+        Double stepSeconds) {
+}
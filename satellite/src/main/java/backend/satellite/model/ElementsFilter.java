@@ -0,0 +1,16 @@
+package backend.satellite.model;
+
+import java.time.LocalDateTime;
+
+// Bounds on the stored orbital elements; null bounds are ignored. Epoch bounds are UTC
+public record ElementsFilter(
+        Double minInclination,
+        Double maxInclination,
+        Double minMeanMotion,
+        Double maxMeanMotion,
+        Double maxEccentricity,
+        Double minPerigeeKm,
+        Double maxApogeeKm,
+        LocalDateTime epochAfter,
+        LocalDateTime epochBefore) {
+}
@@ -0,0 +1,8 @@
+package backend.satellite.model;
+
+import java.time.LocalDateTime;
+
+// An element set from the history, with the elements parsed from its text. Epochs are UTC
+public record HistoricalTle(String satNumber, LocalDateTime epoch, String tleString, OrbitalElements elements,
+                            LocalDateTime recordedAt) {
+}
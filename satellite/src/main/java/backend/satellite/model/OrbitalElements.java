@@ -0,0 +1,202 @@
+package backend.satellite.model;
+
+import backend.satellite.propagation.TleElements;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Mean elements parsed once when a TLE is stored, so catalog queries and propagation work on typed columns
+// instead of the text. Angles in degrees, mean motion in rev/day, epoch in UTC. The columns are nullable
+// because rows stored before they existed are filled in by ElementsBackfill
+@Embeddable
+public class OrbitalElements {
+
+    private static final double MU_KM3_S2 = 398600.8;
+    private static final double EARTH_RADIUS_KM = 6378.135;
+
+    @Column(name = "epoch")
+    private LocalDateTime epoch;
+
+    @Column(name = "mean_motion_dot")
+    private Double meanMotionDot;
+
+    @Column(name = "mean_motion_ddot")
+    private Double meanMotionDdot;
+
+    @Column(name = "bstar")
+    private Double bstar;
+
+    @Column(name = "inclination")
+    private Double inclination;
+
+    @Column(name = "raan")
+    private Double raan;
+
+    @Column(name = "eccentricity")
+    private Double eccentricity;
+
+    @Column(name = "arg_perigee")
+    private Double argPerigee;
+
+    @Column(name = "mean_anomaly")
+    private Double meanAnomaly;
+
+    @Column(name = "mean_motion")
+    private Double meanMotion;
+
+    @Column(name = "rev_number")
+    private Integer revNumber;
+
+    // Altitudes above the equatorial radius from the mean motion, for orbit-regime filters such as LEO
+    @Column(name = "perigee_km")
+    private Double perigeeKm;
+
+    @Column(name = "apogee_km")
+    private Double apogeeKm;
+
+    public static OrbitalElements of(TleElements elements) {
+        OrbitalElements orbital = new OrbitalElements();
+        long epochMicros = Math.round(elements.epochUnixMillis() * 1000);
+        orbital.epoch = LocalDateTime.ofInstant(Instant.EPOCH.plusNanos(epochMicros * 1000), ZoneOffset.UTC);
+        orbital.meanMotionDot = elements.meanMotionDot();
+        orbital.meanMotionDdot = elements.meanMotionDdot();
+        orbital.bstar = elements.bstar();
+        orbital.inclination = elements.inclination();
+        orbital.raan = elements.raan();
+        orbital.eccentricity = elements.eccentricity();
+        orbital.argPerigee = elements.argPerigee();
+        orbital.meanAnomaly = elements.meanAnomaly();
+        orbital.meanMotion = elements.meanMotion();
+        orbital.revNumber = elements.revNumber();
+        double radiansPerSecond = elements.meanMotion() * 2 * Math.PI / 86400;
+        double semiMajorAxis = Math.cbrt(MU_KM3_S2 / (radiansPerSecond * radiansPerSecond));
+        orbital.perigeeKm = semiMajorAxis * (1 - elements.eccentricity()) - EARTH_RADIUS_KM;
+        orbital.apogeeKm = semiMajorAxis * (1 + elements.eccentricity()) - EARTH_RADIUS_KM;
+        return orbital;
+    }
+
+    // Elements of a stored TLE text, or null when the text does not hold two parsable element lines
+    public static OrbitalElements fromTle(String tleString) {
+        if (tleString == null) {
+            return null;
+        }
+        try {
+            return of(TleElements.parse(tleString));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public TleElements toTleElements(String satNumber) {
+        double epochDay = epoch.getDayOfYear() + epoch.toLocalTime().toNanoOfDay() / 86_400e9;
+        return new TleElements(satNumber, epoch.getYear(), epochDay, meanMotionDot, meanMotionDdot, bstar,
+                inclination, raan, eccentricity, argPerigee, meanAnomaly, meanMotion, revNumber);
+    }
+
+    public LocalDateTime getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(LocalDateTime epoch) {
+        this.epoch = epoch;
+    }
+
+    public Double getMeanMotionDot() {
+        return meanMotionDot;
+    }
+
+    public void setMeanMotionDot(Double meanMotionDot) {
+        this.meanMotionDot = meanMotionDot;
+    }
+
+    public Double getMeanMotionDdot() {
+        return meanMotionDdot;
+    }
+
+    public void setMeanMotionDdot(Double meanMotionDdot) {
+        this.meanMotionDdot = meanMotionDdot;
+    }
+
+    public Double getBstar() {
+        return bstar;
+    }
+
+    public void setBstar(Double bstar) {
+        this.bstar = bstar;
+    }
+
+    public Double getInclination() {
+        return inclination;
+    }
+
+    public void setInclination(Double inclination) {
+        this.inclination = inclination;
+    }
+
+    public Double getRaan() {
+        return raan;
+    }
+
+    public void setRaan(Double raan) {
+        this.raan = raan;
+    }
+
+    public Double getEccentricity() {
+        return eccentricity;
+    }
+
+    public void setEccentricity(Double eccentricity) {
+        this.eccentricity = eccentricity;
+    }
+
+    public Double getArgPerigee() {
+        return argPerigee;
+    }
+
+    public void setArgPerigee(Double argPerigee) {
+        this.argPerigee = argPerigee;
+    }
+
+    public Double getMeanAnomaly() {
+        return meanAnomaly;
+    }
+
+    public void setMeanAnomaly(Double meanAnomaly) {
+        this.meanAnomaly = meanAnomaly;
+    }
+
+    public Double getMeanMotion() {
+        return meanMotion;
+    }
+
+    public void setMeanMotion(Double meanMotion) {
+        this.meanMotion = meanMotion;
+    }
+
+    public Integer getRevNumber() {
+        return revNumber;
+    }
+
+    public void setRevNumber(Integer revNumber) {
+        this.revNumber = revNumber;
+    }
+
+    public Double getPerigeeKm() {
+        return perigeeKm;
+    }
+
+    public void setPerigeeKm(Double perigeeKm) {
+        this.perigeeKm = perigeeKm;
+    }
+
+    public Double getApogeeKm() {
+        return apogeeKm;
+    }
+
+    public void setApogeeKm(Double apogeeKm) {
+        this.apogeeKm = apogeeKm;
+    }
+}
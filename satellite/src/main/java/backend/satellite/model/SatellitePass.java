@@ -0,0 +1,14 @@
+package backend.satellite.model;
+
+import java.time.Instant;
+
+// Elevation and azimuths in degrees; azimuth is measured clockwise from north
+public record SatellitePass(
+        String satNumber,
+        Instant aos,
+        Instant tca,
+        Instant los,
+        double maxElevation,
+        double aosAzimuth,
+        double losAzimuth) {
+}
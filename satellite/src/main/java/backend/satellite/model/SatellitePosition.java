@@ -0,0 +1,15 @@
+package backend.satellite.model;
+
+import java.time.Instant;
+
+// eci is the TEME frame SGP4 produces; latitude/longitude are geodetic degrees and altitude is km above WGS-84
+public record SatellitePosition(
+        String satNumber,
+        Instant time,
+        Instant tleEpoch,
+        StateVector eci,
+        StateVector ecef,
+        double latitude,
+        double longitude,
+        double altitude) {
+}
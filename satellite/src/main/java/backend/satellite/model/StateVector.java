@@ -0,0 +1,9 @@
+package backend.satellite.model;
+
+// Position in km and velocity in km/s
+public record StateVector(double x, double y, double z, double vx, double vy, double vz) {
+
+    public static StateVector of(double[] state) {
+        return new StateVector(state[0], state[1], state[2], state[3], state[4], state[5]);
+    }
+}
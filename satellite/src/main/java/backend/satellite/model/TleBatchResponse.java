@@ -0,0 +1,6 @@
+package backend.satellite.model;
+
+import java.util.List;
+
+public record TleBatchResponse(List<TleData> data, List<String> notFound) {
+}
@@ -1,15 +1,23 @@
 package backend.satellite.model;
 
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tle_data")
+@Table(name = "tle_data", indexes = {
+        @Index(name = "idx_tle_epoch", columnList = "epoch"),
+        @Index(name = "idx_tle_inclination", columnList = "inclination"),
+        @Index(name = "idx_tle_mean_motion", columnList = "mean_motion"),
+        @Index(name = "idx_tle_perigee", columnList = "perigee_km"),
+        @Index(name = "idx_tle_apogee", columnList = "apogee_km")
+})
 public class TleData {
 
     @Id
@@ -28,6 +36,9 @@ public class TleData {
     @Column(nullable = false)
     private int fetchCount = 0;
 
+    @Embedded
+    private OrbitalElements elements;
+
     public Long getId() {
         return id;
     }
@@ -67,4 +78,12 @@ public class TleData {
     public void setFetchCount(int fetchCount) {
         this.fetchCount = fetchCount;
     }
+
+    public OrbitalElements getElements() {
+        return elements;
+    }
+
+    public void setElements(OrbitalElements elements) {
+        this.elements = elements;
+    }
 }
\ No newline at end of file
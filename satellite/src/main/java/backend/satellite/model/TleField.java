@@ -0,0 +1,58 @@
+package backend.satellite.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Columns of tle_data that can be selected by name in projection queries
+public enum TleField {
+
+    ID("id", "id"),
+    SAT_NUMBER("satNumber", "sat_number"),
+    TLE_STRING("tleString", "tle_string"),
+    LAST_UPDATED("lastUpdated", "last_updated"),
+    FETCH_COUNT("fetchCount", "fetch_count"),
+    ELEMENTS("elements", "epoch", "mean_motion_dot", "mean_motion_ddot", "bstar", "inclination", "raan",
+            "eccentricity", "arg_perigee", "mean_anomaly", "mean_motion", "rev_number", "perigee_km", "apogee_km");
+
+    private final String jsonName;
+    private final String[] columns;
+
+    TleField(String jsonName, String... columns) {
+        this.jsonName = jsonName;
+        this.columns = columns;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String column() {
+        return columns[0];
+    }
+
+    public String[] columns() {
+        return columns;
+    }
+
+    // Parses a comma-separated list of JSON field names; null or blank selects every field
+    public static Set<TleField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(TleField.class);
+        }
+        Set<TleField> selected = EnumSet.noneOf(TleField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromJsonName(name.trim()));
+        }
+        return selected;
+    }
+
+    private static TleField fromJsonName(String name) {
+        for (TleField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name
+                + ". Must be one of id, satNumber, tleString, lastUpdated, fetchCount, elements.");
+    }
+}
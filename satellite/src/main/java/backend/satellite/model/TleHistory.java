@@ -0,0 +1,99 @@
+package backend.satellite.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Every element set ever stored, append-only. The primary key (sat_number, epoch) clusters each satellite's
+// history in epoch order, so per-satellite reads are range scans; the epoch index serves retention and compaction
+@Entity
+@IdClass(TleHistory.Key.class)
+@Table(name = "tle_history", indexes = @Index(name = "idx_tle_history_epoch", columnList = "epoch"))
+public class TleHistory {
+
+    @Id
+    @Column(name = "sat_number", length = 16)
+    private String satNumber;
+
+    // UTC element epoch
+    @Id
+    @Column(name = "epoch")
+    private LocalDateTime epoch;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String tleString;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    public String getSatNumber() {
+        return satNumber;
+    }
+
+    public void setSatNumber(String satNumber) {
+        this.satNumber = satNumber;
+    }
+
+    public LocalDateTime getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(LocalDateTime epoch) {
+        this.epoch = epoch;
+    }
+
+    public String getTleString() {
+        return tleString;
+    }
+
+    public void setTleString(String tleString) {
+        this.tleString = tleString;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private String satNumber;
+        private LocalDateTime epoch;
+
+        public Key() {
+        }
+
+        public Key(String satNumber, LocalDateTime epoch) {
+            this.satNumber = satNumber;
+            this.epoch = epoch;
+        }
+
+        public String getSatNumber() {
+            return satNumber;
+        }
+
+        public LocalDateTime getEpoch() {
+            return epoch;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(satNumber, key.satNumber) && Objects.equals(epoch, key.epoch);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(satNumber, epoch);
+        }
+    }
+}
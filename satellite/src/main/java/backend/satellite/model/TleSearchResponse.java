@@ -0,0 +1,6 @@
+package backend.satellite.model;
+
+import java.util.List;
+
+public record TleSearchResponse(List<TleData> data, Long nextAfter) {
+}
@@ -0,0 +1,352 @@
+package backend.satellite.propagation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Close-approach screening over a time window. Three filters keep the work far below O(N^2):
+ * <ol>
+ *   <li>perigee/apogee shells: objects whose radial ranges never come within the threshold are never paired;</li>
+ *   <li>a spatial hash grid per time step, so each object is only compared with its neighbouring cells;</li>
+ *   <li>a linear closest-approach test on the relative state before any extra propagation.</li>
+ * </ol>
+ * Surviving pairs are refined by golden-section search on the propagated distance.
+ *
+ * <p>Each time step owns the half-open interval of width {@code step} centred on it, and an approach is only
+ * reported by the step whose interval contains its TCA. Steps therefore run in parallel without a shared
+ * de-duplication pass.
+ */
+public final class ConjunctionScreener {
+
+    // Bound on the relative acceleration of two objects (twice surface gravity), used to pad the linear test
+    private static final double MAX_RELATIVE_ACCELERATION_KM_S2 = 0.02;
+    private static final double INVERSE_GOLDEN_RATIO = (Math.sqrt(5.0) - 1.0) / 2.0;
+    private static final double TCA_TOLERANCE_MILLIS = 1.0;
+
+    // first is the primary in one-vs-all mode and the lower index otherwise
+    public record Approach(int first, int second, double tcaMillis, double missDistanceKm, double relativeSpeedKmS) {
+    }
+
+    public interface Listener {
+
+        void onApproach(Approach approach);
+
+        void onStepCompleted();
+    }
+
+    private final Sgp4Propagator[] objects;
+    private final boolean[] primary;
+    private final boolean allVsAll;
+    private final double thresholdKm;
+    private final double shellPaddingKm;
+    private final double stepMillis;
+    private final double[] perigee;
+    private final double[] apogee;
+    private final int[] candidates;
+
+    /**
+     * @param primary        objects to screen against everything else, or {@code null} for all-vs-all
+     * @param shellPaddingKm slack added to the perigee/apogee test to absorb periodic terms and drag
+     */
+    public ConjunctionScreener(Sgp4Propagator[] objects, boolean[] primary, double thresholdKm,
+                               double shellPaddingKm, double stepSeconds) {
+        this.objects = objects;
+        this.primary = primary;
+        this.allVsAll = primary == null;
+        this.thresholdKm = thresholdKm;
+        this.shellPaddingKm = shellPaddingKm;
+        this.stepMillis = stepSeconds * 1000.0;
+        this.perigee = new double[objects.length];
+        this.apogee = new double[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            perigee[i] = objects[i].perigeeRadiusKm();
+            apogee[i] = objects[i].apogeeRadiusKm();
+        }
+        this.candidates = selectCandidates();
+    }
+
+    // Objects that take part at all: in one-vs-all mode only those whose shell meets some primary's shell
+    private int[] selectCandidates() {
+        if (allVsAll) {
+            int[] all = new int[objects.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        List<Integer> primaries = new ArrayList<>();
+        for (int i = 0; i < objects.length; i++) {
+            if (primary[i]) {
+                primaries.add(i);
+            }
+        }
+        int count = 0;
+        int[] selected = new int[objects.length];
+        for (int j = 0; j < objects.length; j++) {
+            for (int i : primaries) {
+                if (i == j || shellsOverlap(i, j)) {
+                    selected[count++] = j;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    public int candidateCount() {
+        return candidates.length;
+    }
+
+    // Enough steps for the owned intervals to cover the whole window
+    public int stepCount(double startMillis, double endMillis) {
+        return (int) Math.ceil((endMillis - startMillis) / stepMillis - 0.5) + 1;
+    }
+
+    /**
+     * Screens [startMillis, endMillis] on the calling thread and up to {@code parallelism - 1} helpers on
+     * {@code executor}, blocking until every step is done or {@code cancelled} returns true. Helpers take chunks of
+     * steps from a shared counter and the caller waits only for chunks already taken, so a helper that never gets a
+     * thread costs nothing and {@code executor} may be the pool the caller itself runs on. Listener callbacks
+     * arrive from any of these threads.
+     */
+    public void screen(double startMillis, double endMillis, Executor executor, int parallelism,
+                       Listener listener, BooleanSupplier cancelled) {
+        int steps = stepCount(startMillis, endMillis);
+        int stepsPerChunk = Math.max(1, steps / (parallelism * 8));
+        int chunks = (steps + stepsPerChunk - 1) / stepsPerChunk;
+        AtomicInteger nextChunk = new AtomicInteger();
+        CountDownLatch remaining = new CountDownLatch(chunks);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Runnable helper = () -> {
+            StepWorker worker = null;
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                try {
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    if (worker == null) {
+                        worker = new StepWorker(startMillis, endMillis);
+                    }
+                    int last = Math.min((chunk + 1) * stepsPerChunk, steps);
+                    for (int step = chunk * stepsPerChunk; step < last && !cancelled.getAsBoolean(); step++) {
+                        worker.screenStep(step, listener);
+                        listener.onStepCompleted();
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    remaining.countDown();
+                }
+            }
+        };
+        for (int i = 1; i < Math.min(parallelism, chunks); i++) {
+            try {
+                executor.execute(helper);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        helper.run();
+
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Screening interrupted", e));
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private boolean shellsOverlap(int i, int j) {
+        double gap = Math.max(perigee[i], perigee[j]) - Math.min(apogee[i], apogee[j]);
+        return gap <= thresholdKm + shellPaddingKm;
+    }
+
+    // Per-task buffers, reused for every step the task screens
+    private final class StepWorker {
+
+        private final double windowStart;
+        private final double windowEnd;
+        private final double[] states = new double[candidates.length * 6];
+        private final boolean[] valid = new boolean[candidates.length];
+        private final int[] cellX = new int[candidates.length];
+        private final int[] cellY = new int[candidates.length];
+        private final int[] cellZ = new int[candidates.length];
+        private final int[] next = new int[candidates.length];
+        private final int[] head;
+        private final int mask;
+        private final double[] first = new double[6];
+        private final double[] second = new double[6];
+
+        StepWorker(double windowStart, double windowEnd) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            int tableSize = Integer.highestOneBit(Math.max(16, candidates.length * 2) - 1) << 1;
+            this.head = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        void screenStep(int step, Listener listener) {
+            double time = windowStart + step * stepMillis;
+            double ownedFrom = Math.max(windowStart, time - stepMillis / 2.0);
+            double ownedTo = Math.min(windowEnd, time + stepMillis / 2.0);
+            double halfSpan = Math.max(time - ownedFrom, ownedTo - time) / 1000.0;
+
+            double maxSpeed = 0.0;
+            for (int k = 0; k < candidates.length; k++) {
+                int offset = k * 6;
+                valid[k] = objects[candidates[k]].propagateTo(time, first) == Sgp4Propagator.OK;
+                if (valid[k]) {
+                    System.arraycopy(first, 0, states, offset, 6);
+                    double speed = Math.sqrt(first[3] * first[3] + first[4] * first[4] + first[5] * first[5]);
+                    maxSpeed = Math.max(maxSpeed, speed);
+                }
+            }
+
+            // Any pair that gets within the threshold during this step's interval is at most this far apart now
+            double reach = thresholdKm + 2.0 * maxSpeed * halfSpan
+                    + 0.5 * MAX_RELATIVE_ACCELERATION_KM_S2 * halfSpan * halfSpan;
+            buildGrid(reach);
+
+            for (int k = 0; k < candidates.length; k++) {
+                if (!valid[k] || (!allVsAll && !primary[candidates[k]])) {
+                    continue;
+                }
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            int cx = cellX[k] + dx;
+                            int cy = cellY[k] + dy;
+                            int cz = cellZ[k] + dz;
+                            for (int m = head[hash(cx, cy, cz)]; m >= 0; m = next[m]) {
+                                if (cellX[m] == cx && cellY[m] == cy && cellZ[m] == cz && isNewPair(k, m)) {
+                                    testPair(k, m, halfSpan, ownedFrom, ownedTo, listener);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private void buildGrid(double cellSize) {
+            Arrays.fill(head, -1);
+            for (int k = 0; k < candidates.length; k++) {
+                if (!valid[k]) {
+                    continue;
+                }
+                int offset = k * 6;
+                cellX[k] = (int) Math.floor(states[offset] / cellSize);
+                cellY[k] = (int) Math.floor(states[offset + 1] / cellSize);
+                cellZ[k] = (int) Math.floor(states[offset + 2] / cellSize);
+                int bucket = hash(cellX[k], cellY[k], cellZ[k]);
+                next[k] = head[bucket];
+                head[bucket] = k;
+            }
+        }
+
+        private int hash(int x, int y, int z) {
+            return (x * 73856093 ^ y * 19349663 ^ z * 83492791) & mask;
+        }
+
+        // Each unordered pair is tested once; in one-vs-all mode two primaries meet only from the lower index
+        private boolean isNewPair(int k, int m) {
+            if (k == m) {
+                return false;
+            }
+            if (allVsAll || primary[candidates[m]]) {
+                return m > k;
+            }
+            return true;
+        }
+
+        private void testPair(int k, int m, double halfSpan, double ownedFrom, double ownedTo, Listener listener) {
+            int i = candidates[k];
+            int j = candidates[m];
+            if (!shellsOverlap(i, j)) {
+                return;
+            }
+            int a = k * 6;
+            int b = m * 6;
+            double rx = states[b] - states[a];
+            double ry = states[b + 1] - states[a + 1];
+            double rz = states[b + 2] - states[a + 2];
+            double vx = states[b + 3] - states[a + 3];
+            double vy = states[b + 4] - states[a + 4];
+            double vz = states[b + 5] - states[a + 5];
+
+            // Closest approach of the straight-line relative motion within this step's interval
+            double vv = vx * vx + vy * vy + vz * vz;
+            double t = vv > 0.0 ? -(rx * vx + ry * vy + rz * vz) / vv : 0.0;
+            t = Math.max(-halfSpan, Math.min(halfSpan, t));
+            double dx = rx + vx * t;
+            double dy = ry + vy * t;
+            double dz = rz + vz * t;
+            double margin = 0.5 * MAX_RELATIVE_ACCELERATION_KM_S2 * halfSpan * halfSpan;
+            double limit = thresholdKm + margin;
+            if (dx * dx + dy * dy + dz * dz > limit * limit) {
+                return;
+            }
+
+            refine(i, j, ownedFrom, ownedTo, listener);
+        }
+
+        // Golden-section search over this interval widened by half a step each side, so an approach near an
+        // interval edge is still interior to the search and exactly one step claims it
+        private void refine(int i, int j, double ownedFrom, double ownedTo, Listener listener) {
+            double lo = Math.max(windowStart, ownedFrom - stepMillis / 2.0);
+            double hi = Math.min(windowEnd, ownedTo + stepMillis / 2.0);
+            double c = hi - INVERSE_GOLDEN_RATIO * (hi - lo);
+            double d = lo + INVERSE_GOLDEN_RATIO * (hi - lo);
+            double fc = distanceSquared(i, j, c);
+            double fd = distanceSquared(i, j, d);
+            while (hi - lo > TCA_TOLERANCE_MILLIS) {
+                if (fc < fd) {
+                    hi = d;
+                    d = c;
+                    fd = fc;
+                    c = hi - INVERSE_GOLDEN_RATIO * (hi - lo);
+                    fc = distanceSquared(i, j, c);
+                } else {
+                    lo = c;
+                    c = d;
+                    fc = fd;
+                    d = lo + INVERSE_GOLDEN_RATIO * (hi - lo);
+                    fd = distanceSquared(i, j, d);
+                }
+            }
+            double tca = 0.5 * (lo + hi);
+            boolean owned = tca >= ownedFrom && (tca < ownedTo || ownedTo == windowEnd);
+            double missDistance = Math.sqrt(distanceSquared(i, j, tca));
+            if (!owned || !(missDistance <= thresholdKm)) {
+                return;
+            }
+            double vx = second[3] - first[3];
+            double vy = second[4] - first[4];
+            double vz = second[5] - first[5];
+            listener.onApproach(new Approach(i, j, tca, missDistance,
+                    Math.sqrt(vx * vx + vy * vy + vz * vz)));
+        }
+
+        private double distanceSquared(int i, int j, double time) {
+            if (objects[i].propagateTo(time, first) != Sgp4Propagator.OK
+                    || objects[j].propagateTo(time, second) != Sgp4Propagator.OK) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double dx = second[0] - first[0];
+            double dy = second[1] - first[1];
+            double dz = second[2] - first[2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
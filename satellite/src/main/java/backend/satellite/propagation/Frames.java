@@ -0,0 +1,84 @@
+package backend.satellite.propagation;
+
+// Earth orientation and geodetic conversions for TEME state vectors. Polar motion and UT1-UTC are ignored,
+// which is well below the accuracy of SGP4 itself.
+public final class Frames {
+
+    public static final double EARTH_ROTATION_RAD_PER_SEC = 7.292115146706979e-5;
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double DEG2RAD = Math.PI / 180.0;
+    private static final double UNIX_EPOCH_JD = 2440587.5;
+
+    // WGS-84 ellipsoid for geodetic output
+    private static final double WGS84_A = 6378.137;
+    private static final double WGS84_F = 1.0 / 298.257223563;
+    private static final double WGS84_E2 = WGS84_F * (2.0 - WGS84_F);
+
+    private Frames() {
+    }
+
+    public static double julianDate(double unixMillis) {
+        return unixMillis / 86_400_000.0 + UNIX_EPOCH_JD;
+    }
+
+    // Greenwich mean sidereal time (IAU-82), radians in [0, 2pi)
+    public static double gmst(double jdUt1) {
+        double tut1 = (jdUt1 - 2451545.0) / 36525.0;
+        double temp = -6.2e-6 * tut1 * tut1 * tut1 + 0.093104 * tut1 * tut1
+                + (876600.0 * 3600.0 + 8640184.812866) * tut1 + 67310.54841;
+        temp = (temp * DEG2RAD / 240.0) % TWO_PI;
+        return temp < 0.0 ? temp + TWO_PI : temp;
+    }
+
+    // Rotates a TEME state (km, km/s) into the Earth-fixed frame, writing into ecef[0..5]
+    public static void temeToEcef(double[] teme, double gmst, double[] ecef) {
+        double cosG = Math.cos(gmst);
+        double sinG = Math.sin(gmst);
+        double x = cosG * teme[0] + sinG * teme[1];
+        double y = -sinG * teme[0] + cosG * teme[1];
+        ecef[0] = x;
+        ecef[1] = y;
+        ecef[2] = teme[2];
+        ecef[3] = cosG * teme[3] + sinG * teme[4] + EARTH_ROTATION_RAD_PER_SEC * y;
+        ecef[4] = -sinG * teme[3] + cosG * teme[4] - EARTH_ROTATION_RAD_PER_SEC * x;
+        ecef[5] = teme[5];
+    }
+
+    // Writes the Earth-fixed position (km) of a point at geodetic latitude/longitude (deg) and height (km) into ecef[0..2]
+    public static void geodeticToEcef(double latitude, double longitude, double height, double[] ecef) {
+        double lat = latitude * DEG2RAD;
+        double lon = longitude * DEG2RAD;
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double n = WGS84_A / Math.sqrt(1.0 - WGS84_E2 * sinLat * sinLat);
+        ecef[0] = (n + height) * cosLat * Math.cos(lon);
+        ecef[1] = (n + height) * cosLat * Math.sin(lon);
+        ecef[2] = (n * (1.0 - WGS84_E2) + height) * sinLat;
+    }
+
+    // Writes geodetic latitude (deg), longitude (deg, -180..180] and height above the ellipsoid (km) into lla[0..2]
+    public static void ecefToGeodetic(double[] ecef, double[] lla) {
+        double x = ecef[0];
+        double y = ecef[1];
+        double z = ecef[2];
+        double p = Math.sqrt(x * x + y * y);
+        double longitude = Math.atan2(y, x);
+        double latitude = Math.atan2(z, p * (1.0 - WGS84_E2));
+        double n = WGS84_A;
+
+        for (int i = 0; i < 5; i++) {
+            double sinLat = Math.sin(latitude);
+            n = WGS84_A / Math.sqrt(1.0 - WGS84_E2 * sinLat * sinLat);
+            latitude = Math.atan2(z + n * WGS84_E2 * sinLat, p);
+        }
+        // Near the poles cos(latitude) vanishes, so take the height from the z component instead
+        double height = Math.abs(latitude) < 45.0 * DEG2RAD
+                ? p / Math.cos(latitude) - n
+                : z / Math.sin(latitude) - n * (1.0 - WGS84_E2);
+
+        lla[0] = Math.toDegrees(latitude);
+        lla[1] = Math.toDegrees(longitude);
+        lla[2] = height;
+    }
+}
@@ -0,0 +1,17 @@
+package backend.satellite.propagation;
+
+// Observer location: geodetic latitude and longitude in degrees, altitude in km above the WGS-84 ellipsoid
+public record GroundStation(double latitude, double longitude, double altitude) {
+
+    public GroundStation {
+        if (!(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new IllegalArgumentException("Invalid latitude: " + latitude + ". Must be between -90 and 90.");
+        }
+        if (!(longitude >= -180.0 && longitude <= 360.0)) {
+            throw new IllegalArgumentException("Invalid longitude: " + longitude + ". Must be between -180 and 360.");
+        }
+        if (!(altitude >= -1.0 && altitude <= 100.0)) {
+            throw new IllegalArgumentException("Invalid altitude: " + altitude + ". Must be between -1 and 100 km.");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package backend.satellite.propagation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds passes of one satellite over a ground station. Elevation is sampled on a coarse grid scaled to the
+ * orbital period; horizon crossings are then refined by bisection and the culmination by golden-section
+ * search. A local maximum between samples that stay below the mask is also refined, so short grazing passes
+ * are not lost between coarse samples.
+ *
+ * <p>Instances keep scratch buffers and are not thread-safe; create one per task.
+ */
+public final class PassPredictor {
+
+    private static final double DEG2RAD = Math.PI / 180.0;
+    private static final double INVERSE_GOLDEN_RATIO = (Math.sqrt(5.0) - 1.0) / 2.0;
+    private static final double MIN_COARSE_STEP_MILLIS = 30_000.0;
+    private static final double MAX_COARSE_STEP_MILLIS = 600_000.0;
+    private static final double CROSSING_TOLERANCE_MILLIS = 10.0;
+    private static final double CULMINATION_TOLERANCE_MILLIS = 50.0;
+
+    public record Pass(double aosMillis, double tcaMillis, double losMillis,
+                       double maxElevation, double aosAzimuth, double losAzimuth) {
+    }
+
+    private final Sgp4Propagator propagator;
+    private final double minElevation;
+    private final double coarseStepMillis;
+
+    private final double sinLat;
+    private final double cosLat;
+    private final double sinLon;
+    private final double cosLon;
+    private final double[] stationEcef = new double[3];
+    private final double[] teme = new double[6];
+    private final double[] ecef = new double[6];
+    private double azimuth;
+
+    public PassPredictor(Sgp4Propagator propagator, GroundStation station, double minElevationDegrees) {
+        this.propagator = propagator;
+        this.minElevation = minElevationDegrees * DEG2RAD;
+        // About 90 samples per revolution: one minute for the ISS, ten minutes for geosynchronous orbits
+        this.coarseStepMillis = Math.max(MIN_COARSE_STEP_MILLIS,
+                Math.min(MAX_COARSE_STEP_MILLIS, propagator.periodMinutes() * 60_000.0 / 90.0));
+
+        double lat = station.latitude() * DEG2RAD;
+        double lon = station.longitude() * DEG2RAD;
+        this.sinLat = Math.sin(lat);
+        this.cosLat = Math.cos(lat);
+        this.sinLon = Math.sin(lon);
+        this.cosLon = Math.cos(lon);
+        Frames.geodeticToEcef(station.latitude(), station.longitude(), station.altitude(), stationEcef);
+    }
+
+    public List<Pass> findPasses(double startMillis, double endMillis) {
+        List<Pass> passes = new ArrayList<>();
+        double previousTime = startMillis;
+        double previousElevation = Double.NEGATIVE_INFINITY;
+        double time = startMillis;
+        double elevation = elevation(time);
+        boolean visible = elevation >= minElevation;
+        double aos = startMillis;
+        double peakTime = time;
+        double peakElevation = elevation;
+
+        while (time < endMillis) {
+            double nextTime = Math.min(time + coarseStepMillis, endMillis);
+            double nextElevation = elevation(nextTime);
+
+            if (visible) {
+                if (nextElevation >= minElevation) {
+                    if (nextElevation > peakElevation) {
+                        peakTime = nextTime;
+                        peakElevation = nextElevation;
+                    }
+                } else {
+                    double los = crossing(time, nextTime);
+                    double tca = culmination(Math.max(aos, peakTime - coarseStepMillis), Math.min(los, peakTime + coarseStepMillis));
+                    passes.add(pass(aos, tca, los));
+                    visible = false;
+                }
+            } else if (nextElevation >= minElevation) {
+                aos = crossing(time, nextTime);
+                visible = true;
+                peakTime = nextTime;
+                peakElevation = nextElevation;
+            } else if (elevation > previousElevation && elevation >= nextElevation) {
+                double tca = culmination(previousTime, nextTime);
+                if (elevation(tca) >= minElevation) {
+                    passes.add(pass(crossing(previousTime, tca), tca, crossing(tca, nextTime)));
+                }
+            }
+
+            previousTime = time;
+            previousElevation = elevation;
+            time = nextTime;
+            elevation = nextElevation;
+        }
+
+        // Passes still in progress at the end of the window are cut off there
+        if (visible) {
+            double tca = culmination(Math.max(aos, peakTime - coarseStepMillis), endMillis);
+            passes.add(pass(aos, tca, endMillis));
+        }
+        return passes;
+    }
+
+    // Elevation in radians above the station's horizon; times the elements cannot be propagated to count as below it
+    public double elevation(double unixMillis) {
+        if (propagator.propagateTo(unixMillis, teme) != Sgp4Propagator.OK) {
+            azimuth = 0.0;
+            return -Math.PI / 2.0;
+        }
+        Frames.temeToEcef(teme, Frames.gmst(Frames.julianDate(unixMillis)), ecef);
+
+        double rx = ecef[0] - stationEcef[0];
+        double ry = ecef[1] - stationEcef[1];
+        double rz = ecef[2] - stationEcef[2];
+        double east = -sinLon * rx + cosLon * ry;
+        double north = -sinLat * cosLon * rx - sinLat * sinLon * ry + cosLat * rz;
+        double up = cosLat * cosLon * rx + cosLat * sinLon * ry + sinLat * rz;
+
+        double az = Math.atan2(east, north);
+        azimuth = az < 0.0 ? az + 2.0 * Math.PI : az;
+        return Math.atan2(up, Math.sqrt(east * east + north * north));
+    }
+
+    private Pass pass(double aos, double tca, double los) {
+        double aosAzimuth = azimuthAt(aos);
+        double losAzimuth = azimuthAt(los);
+        double maxElevation = elevation(tca);
+        return new Pass(aos, tca, los, Math.toDegrees(maxElevation), Math.toDegrees(aosAzimuth), Math.toDegrees(losAzimuth));
+    }
+
+    private double azimuthAt(double unixMillis) {
+        elevation(unixMillis);
+        return azimuth;
+    }
+
+    // Bisection on elevation - mask, given that the sign differs between a and b
+    private double crossing(double a, double b) {
+        boolean visibleAtA = elevation(a) >= minElevation;
+        while (b - a > CROSSING_TOLERANCE_MILLIS) {
+            double mid = 0.5 * (a + b);
+            if ((elevation(mid) >= minElevation) == visibleAtA) {
+                a = mid;
+            } else {
+                b = mid;
+            }
+        }
+        return 0.5 * (a + b);
+    }
+
+    // Golden-section search for the elevation maximum inside [a, b]
+    private double culmination(double a, double b) {
+        double c = b - INVERSE_GOLDEN_RATIO * (b - a);
+        double d = a + INVERSE_GOLDEN_RATIO * (b - a);
+        double ec = elevation(c);
+        double ed = elevation(d);
+        while (b - a > CULMINATION_TOLERANCE_MILLIS) {
+            if (ec > ed) {
+                b = d;
+                d = c;
+                ed = ec;
+                c = b - INVERSE_GOLDEN_RATIO * (b - a);
+                ec = elevation(c);
+            } else {
+                a = c;
+                c = d;
+                ec = ed;
+                d = a + INVERSE_GOLDEN_RATIO * (b - a);
+                ed = elevation(d);
+            }
+        }
+        return 0.5 * (a + b);
+    }
+}
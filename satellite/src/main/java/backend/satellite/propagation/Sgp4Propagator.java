@@ -0,0 +1,992 @@
+package backend.satellite.propagation;
+
+/**
+ * SGP4/SDP4 propagator following Vallado's reference implementation (AIAA 2006-6753, 2020 revision,
+ * WGS-72 constants, "improved" operation mode).
+ *
+ * <p>All element-dependent terms are computed once at construction. {@link #propagate(double, double[])}
+ * only reads those fields and writes into the caller's array, so a single instance can be shared by any
+ * number of threads and the propagation loop does not allocate. Deep-space resonance integration always
+ * restarts from epoch rather than caching integrator state between calls, which keeps results independent
+ * of call order.
+ */
+public final class Sgp4Propagator {
+
+    public static final int OK = 0;
+    public static final int ERROR_ECCENTRICITY = 1;
+    public static final int ERROR_MEAN_MOTION = 2;
+    public static final int ERROR_PERTURBED_ECCENTRICITY = 3;
+    public static final int ERROR_SEMI_LATUS_RECTUM = 4;
+    public static final int ERROR_DECAYED = 6;
+
+    // WGS-72 constants used by the element sets Space-Track publishes
+    static final double MU = 398600.8;
+    static final double RADIUS_EARTH_KM = 6378.135;
+    static final double XKE = 60.0 / Math.sqrt(RADIUS_EARTH_KM * RADIUS_EARTH_KM * RADIUS_EARTH_KM / MU);
+    static final double J2 = 0.001082616;
+    static final double J3 = -0.00000253881;
+    static final double J4 = -0.00000165597;
+    static final double J3OJ2 = J3 / J2;
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double X2O3 = 2.0 / 3.0;
+    private static final double DEG2RAD = Math.PI / 180.0;
+    private static final double XPDOTP = 1440.0 / TWO_PI;
+    private static final double TEMP4 = 1.5e-12;
+    private static final double VKMPERSEC = RADIUS_EARTH_KM * XKE / 60.0;
+
+    private final String satNumber;
+    private final double epochUnixMillis;
+
+    // Mean elements at epoch (radians, rad/min)
+    private double ecco;
+    private double argpo;
+    private double inclo;
+    private double mo;
+    private double nodeo;
+    private double noUnkozai;
+    private double semiMajorAxis;
+    private final double bstar;
+
+    // Near-earth secular and drag terms
+    private boolean deepSpace;
+    private boolean isimp;
+    private double aycof;
+    private double con41;
+    private double cc1;
+    private double cc4;
+    private double cc5;
+    private double d2;
+    private double d3;
+    private double d4;
+    private double delmo;
+    private double eta;
+    private double argpdot;
+    private double omgcof;
+    private double sinmao;
+    private double t2cof;
+    private double t3cof;
+    private double t4cof;
+    private double t5cof;
+    private double x1mth2;
+    private double x7thm1;
+    private double mdot;
+    private double nodedot;
+    private double xlcof;
+    private double xmcof;
+    private double nodecf;
+    private double gsto;
+
+    // Deep-space lunar/solar periodic terms
+    private double e3;
+    private double ee2;
+    private double peo;
+    private double pgho;
+    private double pho;
+    private double pinco;
+    private double plo;
+    private double se2;
+    private double se3;
+    private double sgh2;
+    private double sgh3;
+    private double sgh4;
+    private double sh2;
+    private double sh3;
+    private double si2;
+    private double si3;
+    private double sl2;
+    private double sl3;
+    private double sl4;
+    private double xgh2;
+    private double xgh3;
+    private double xgh4;
+    private double xh2;
+    private double xh3;
+    private double xi2;
+    private double xi3;
+    private double xl2;
+    private double xl3;
+    private double xl4;
+    private double zmol;
+    private double zmos;
+
+    // Deep-space secular and resonance terms
+    private int irez;
+    private double d2201;
+    private double d2211;
+    private double d3210;
+    private double d3222;
+    private double d4410;
+    private double d4422;
+    private double d5220;
+    private double d5232;
+    private double d5421;
+    private double d5433;
+    private double dedt;
+    private double del1;
+    private double del2;
+    private double del3;
+    private double didt;
+    private double dmdt;
+    private double dnodt;
+    private double domdt;
+    private double xfact;
+    private double xlamo;
+
+    private final int initError;
+
+    public Sgp4Propagator(TleElements elements) {
+        this.satNumber = elements.satNumber();
+        this.epochUnixMillis = elements.epochUnixMillis();
+        this.bstar = elements.bstar();
+        this.ecco = elements.eccentricity();
+        this.argpo = elements.argPerigee() * DEG2RAD;
+        this.inclo = elements.inclination() * DEG2RAD;
+        this.mo = elements.meanAnomaly() * DEG2RAD;
+        this.nodeo = elements.raan() * DEG2RAD;
+
+        double epoch = elements.epochJulianDate() - 2433281.5;
+        initialize(epoch, elements.meanMotion() / XPDOTP);
+        this.initError = propagate(0.0, new double[6]);
+    }
+
+    public static Sgp4Propagator fromTle(String tleString) {
+        return new Sgp4Propagator(TleElements.parse(tleString));
+    }
+
+    public String satNumber() {
+        return satNumber;
+    }
+
+    public double epochUnixMillis() {
+        return epochUnixMillis;
+    }
+
+    // Anomalistic period from the recovered (un-Kozai) mean motion
+    public double periodMinutes() {
+        return TWO_PI / noUnkozai;
+    }
+
+    // Mean perigee and apogee distances from the Earth's centre
+    public double perigeeRadiusKm() {
+        return semiMajorAxis * (1.0 - ecco) * RADIUS_EARTH_KM;
+    }
+
+    public double apogeeRadiusKm() {
+        return semiMajorAxis * (1.0 + ecco) * RADIUS_EARTH_KM;
+    }
+
+    public boolean isDeepSpace() {
+        return deepSpace;
+    }
+
+    // Non-zero when the elements cannot be propagated even at epoch
+    public int initError() {
+        return initError;
+    }
+
+    // Propagates to a UTC instant given in milliseconds since the Unix epoch
+    public int propagateTo(double unixMillis, double[] out) {
+        return propagate((unixMillis - epochUnixMillis) / 60_000.0, out);
+    }
+
+    private void initialize(double epoch, double noKozai) {
+        double ss = 78.0 / RADIUS_EARTH_KM + 1.0;
+        double qzms2ttemp = (120.0 - 78.0) / RADIUS_EARTH_KM;
+        double qzms2t = qzms2ttemp * qzms2ttemp * qzms2ttemp * qzms2ttemp;
+
+        // initl: recover the original mean motion and semi-major axis
+        double eccsq = ecco * ecco;
+        double omeosq = 1.0 - eccsq;
+        double rteosq = Math.sqrt(omeosq);
+        double cosio = Math.cos(inclo);
+        double cosio2 = cosio * cosio;
+
+        double ak = Math.pow(XKE / noKozai, X2O3);
+        double d1 = 0.75 * J2 * (3.0 * cosio2 - 1.0) / (rteosq * omeosq);
+        double delPrime = d1 / (ak * ak);
+        double adel = ak * (1.0 - delPrime * delPrime - delPrime * (1.0 / 3.0 + 134.0 * delPrime * delPrime / 81.0));
+        delPrime = d1 / (adel * adel);
+        noUnkozai = noKozai / (1.0 + delPrime);
+
+        double ao = Math.pow(XKE / noUnkozai, X2O3);
+        semiMajorAxis = ao;
+        double sinio = Math.sin(inclo);
+        double po = ao * omeosq;
+        double con42 = 1.0 - 5.0 * cosio2;
+        con41 = -con42 - cosio2 - cosio2;
+        double posq = po * po;
+        double rp = ao * (1.0 - ecco);
+        gsto = Frames.gmst(epoch + 2433281.5);
+
+        if (omeosq < 0.0 && noUnkozai < 0.0) {
+            return;
+        }
+
+        isimp = rp < (220.0 / RADIUS_EARTH_KM + 1.0);
+        double sfour = ss;
+        double qzms24 = qzms2t;
+        double perige = (rp - 1.0) * RADIUS_EARTH_KM;
+
+        // Lower the drag reference altitude for low perigees
+        if (perige < 156.0) {
+            sfour = perige - 78.0;
+            if (perige < 98.0) {
+                sfour = 20.0;
+            }
+            double qzms24temp = (120.0 - sfour) / RADIUS_EARTH_KM;
+            qzms24 = qzms24temp * qzms24temp * qzms24temp * qzms24temp;
+            sfour = sfour / RADIUS_EARTH_KM + 1.0;
+        }
+        double pinvsq = 1.0 / posq;
+
+        double tsi = 1.0 / (ao - sfour);
+        eta = ao * ecco * tsi;
+        double etasq = eta * eta;
+        double eeta = ecco * eta;
+        double psisq = Math.abs(1.0 - etasq);
+        double coef = qzms24 * Math.pow(tsi, 4.0);
+        double coef1 = coef / Math.pow(psisq, 3.5);
+        double cc2 = coef1 * noUnkozai * (ao * (1.0 + 1.5 * etasq + eeta * (4.0 + etasq))
+                + 0.375 * J2 * tsi / psisq * con41 * (8.0 + 3.0 * etasq * (8.0 + etasq)));
+        cc1 = bstar * cc2;
+        double cc3 = 0.0;
+        if (ecco > 1.0e-4) {
+            cc3 = -2.0 * coef * tsi * J3OJ2 * noUnkozai * sinio / ecco;
+        }
+        x1mth2 = 1.0 - cosio2;
+        cc4 = 2.0 * noUnkozai * coef1 * ao * omeosq * (eta * (2.0 + 0.5 * etasq) + ecco * (0.5 + 2.0 * etasq)
+                - J2 * tsi / (ao * psisq) * (-3.0 * con41 * (1.0 - 2.0 * eeta + etasq * (1.5 - 0.5 * eeta))
+                + 0.75 * x1mth2 * (2.0 * etasq - eeta * (1.0 + etasq)) * Math.cos(2.0 * argpo)));
+        cc5 = 2.0 * coef1 * ao * omeosq * (1.0 + 2.75 * (etasq + eeta) + eeta * etasq);
+        double cosio4 = cosio2 * cosio2;
+        double temp1 = 1.5 * J2 * pinvsq * noUnkozai;
+        double temp2 = 0.5 * temp1 * J2 * pinvsq;
+        double temp3 = -0.46875 * J4 * pinvsq * pinvsq * noUnkozai;
+        mdot = noUnkozai + 0.5 * temp1 * rteosq * con41 + 0.0625 * temp2 * rteosq * (13.0 - 78.0 * cosio2 + 137.0 * cosio4);
+        argpdot = -0.5 * temp1 * con42 + 0.0625 * temp2 * (7.0 - 114.0 * cosio2 + 395.0 * cosio4)
+                + temp3 * (3.0 - 36.0 * cosio2 + 49.0 * cosio4);
+        double xhdot1 = -temp1 * cosio;
+        nodedot = xhdot1 + (0.5 * temp2 * (4.0 - 19.0 * cosio2) + 2.0 * temp3 * (3.0 - 7.0 * cosio2)) * cosio;
+        double xpidot = argpdot + nodedot;
+        omgcof = bstar * cc3 * Math.cos(argpo);
+        xmcof = 0.0;
+        if (ecco > 1.0e-4) {
+            xmcof = -X2O3 * coef * bstar / eeta;
+        }
+        nodecf = 3.5 * omeosq * xhdot1 * cc1;
+        t2cof = 1.5 * cc1;
+        if (Math.abs(cosio + 1.0) > 1.5e-12) {
+            xlcof = -0.25 * J3OJ2 * sinio * (3.0 + 5.0 * cosio) / (1.0 + cosio);
+        } else {
+            xlcof = -0.25 * J3OJ2 * sinio * (3.0 + 5.0 * cosio) / TEMP4;
+        }
+        aycof = -0.5 * J3OJ2 * sinio;
+        double delmotemp = 1.0 + eta * Math.cos(mo);
+        delmo = delmotemp * delmotemp * delmotemp;
+        sinmao = Math.sin(mo);
+        x7thm1 = 7.0 * cosio2 - 1.0;
+
+        // Periods of 225 minutes or more use the deep-space (SDP4) lunar/solar and resonance terms
+        if (TWO_PI / noUnkozai >= 225.0) {
+            deepSpace = true;
+            isimp = true;
+            DeepSpaceCommon common = dscom(epoch, ecco, argpo, 0.0, inclo, nodeo, noUnkozai);
+            // dpper at initialization only evaluates the periodics; with peo..pho at zero nothing is applied
+            dsinit(common, eccsq, xpidot);
+        }
+
+        if (!isimp) {
+            double cc1sq = cc1 * cc1;
+            d2 = 4.0 * ao * tsi * cc1sq;
+            double temp = d2 * tsi * cc1 / 3.0;
+            d3 = (17.0 * ao + sfour) * temp;
+            d4 = 0.5 * temp * ao * tsi * (221.0 * ao + 31.0 * sfour) * cc1;
+            t3cof = d2 + 2.0 * cc1sq;
+            t4cof = 0.25 * (3.0 * d3 + cc1 * (12.0 * d2 + 10.0 * cc1sq));
+            t5cof = 0.2 * (3.0 * d4 + 12.0 * cc1 * d3 + 6.0 * d2 * d2 + 15.0 * cc1sq * (2.0 * d2 + cc1sq));
+        }
+    }
+
+    /**
+     * Propagates {@code tsince} minutes from epoch and writes the TEME position (km) and velocity (km/s)
+     * into {@code out[0..5]}. Returns {@link #OK} or one of the {@code ERROR_*} codes.
+     */
+    public int propagate(double tsince, double[] out) {
+        double t = tsince;
+
+        // Secular gravity and atmospheric drag
+        double xmdf = mo + mdot * t;
+        double argpdf = argpo + argpdot * t;
+        double nodedf = nodeo + nodedot * t;
+        double argpm = argpdf;
+        double mm = xmdf;
+        double t2 = t * t;
+        double nodem = nodedf + nodecf * t2;
+        double tempa = 1.0 - cc1 * t;
+        double tempe = bstar * cc4 * t;
+        double templ = t2cof * t2;
+
+        if (!isimp) {
+            double delomg = omgcof * t;
+            double delmtemp = 1.0 + eta * Math.cos(xmdf);
+            double delm = xmcof * (delmtemp * delmtemp * delmtemp - delmo);
+            double temp = delomg + delm;
+            mm = xmdf + temp;
+            argpm = argpdf - temp;
+            double t3 = t2 * t;
+            double t4 = t3 * t;
+            tempa = tempa - d2 * t2 - d3 * t3 - d4 * t4;
+            tempe = tempe + bstar * cc5 * (Math.sin(mm) - sinmao);
+            templ = templ + t3cof * t3 + t4 * (t4cof + t * t5cof);
+        }
+
+        double nm = noUnkozai;
+        double em = ecco;
+        double inclm = inclo;
+
+        if (deepSpace) {
+            // dspace: deep-space secular effects and resonance integration
+            double theta = (gsto + t * RPTIM) % TWO_PI;
+            em = em + dedt * t;
+            inclm = inclm + didt * t;
+            argpm = argpm + domdt * t;
+            nodem = nodem + dnodt * t;
+            mm = mm + dmdt * t;
+
+            if (irez != 0) {
+                double delt = t > 0.0 ? STEPP : STEPN;
+                double atime = 0.0;
+                double xni = noUnkozai;
+                double xli = xlamo;
+                double ft = 0.0;
+                double xndt;
+                double xldot;
+                double xnddt;
+
+                while (true) {
+                    if (irez != 2) {
+                        // Near-synchronous resonance terms
+                        xndt = del1 * Math.sin(xli - FASX2) + del2 * Math.sin(2.0 * (xli - FASX4))
+                                + del3 * Math.sin(3.0 * (xli - FASX6));
+                        xldot = xni + xfact;
+                        xnddt = del1 * Math.cos(xli - FASX2) + 2.0 * del2 * Math.cos(2.0 * (xli - FASX4))
+                                + 3.0 * del3 * Math.cos(3.0 * (xli - FASX6));
+                        xnddt = xnddt * xldot;
+                    } else {
+                        // Near-half-day resonance terms
+                        double xomi = argpo + argpdot * atime;
+                        double x2omi = xomi + xomi;
+                        double x2li = xli + xli;
+                        xndt = d2201 * Math.sin(x2omi + xli - G22) + d2211 * Math.sin(xli - G22)
+                                + d3210 * Math.sin(xomi + xli - G32) + d3222 * Math.sin(-xomi + xli - G32)
+                                + d4410 * Math.sin(x2omi + x2li - G44) + d4422 * Math.sin(x2li - G44)
+                                + d5220 * Math.sin(xomi + xli - G52) + d5232 * Math.sin(-xomi + xli - G52)
+                                + d5421 * Math.sin(xomi + x2li - G54) + d5433 * Math.sin(-xomi + x2li - G54);
+                        xldot = xni + xfact;
+                        xnddt = d2201 * Math.cos(x2omi + xli - G22) + d2211 * Math.cos(xli - G22)
+                                + d3210 * Math.cos(xomi + xli - G32) + d3222 * Math.cos(-xomi + xli - G32)
+                                + d5220 * Math.cos(xomi + xli - G52) + d5232 * Math.cos(-xomi + xli - G52)
+                                + 2.0 * (d4410 * Math.cos(x2omi + x2li - G44) + d4422 * Math.cos(x2li - G44)
+                                + d5421 * Math.cos(xomi + x2li - G54) + d5433 * Math.cos(-xomi + x2li - G54));
+                        xnddt = xnddt * xldot;
+                    }
+
+                    if (Math.abs(t - atime) >= STEPP) {
+                        xli = xli + xldot * delt + xndt * STEP2;
+                        xni = xni + xndt * delt + xnddt * STEP2;
+                        atime = atime + delt;
+                    } else {
+                        ft = t - atime;
+                        break;
+                    }
+                }
+
+                nm = xni + xndt * ft + xnddt * ft * ft * 0.5;
+                double xl = xli + xldot * ft + xndt * ft * ft * 0.5;
+                if (irez != 1) {
+                    mm = xl - 2.0 * nodem + 2.0 * theta;
+                } else {
+                    mm = xl - nodem - argpm + theta;
+                }
+            }
+        }
+
+        if (nm <= 0.0) {
+            return ERROR_MEAN_MOTION;
+        }
+
+        double am = Math.pow(XKE / nm, X2O3) * tempa * tempa;
+        nm = XKE / Math.pow(am, 1.5);
+        em = em - tempe;
+
+        if (em >= 1.0 || em < -0.001) {
+            return ERROR_ECCENTRICITY;
+        }
+        if (em < 1.0e-6) {
+            em = 1.0e-6;
+        }
+        mm = mm + noUnkozai * templ;
+        double xlm = mm + argpm + nodem;
+
+        nodem = nodem % TWO_PI;
+        argpm = argpm % TWO_PI;
+        xlm = xlm % TWO_PI;
+        mm = (xlm - argpm - nodem) % TWO_PI;
+
+        double sinim = Math.sin(inclm);
+        double cosim = Math.cos(inclm);
+
+        // Lunar-solar periodics
+        double ep = em;
+        double xincp = inclm;
+        double argpp = argpm;
+        double nodep = nodem;
+        double mp = mm;
+        double sinip = sinim;
+        double cosip = cosim;
+        double localAycof = aycof;
+        double localXlcof = xlcof;
+        double localCon41 = con41;
+        double localX1mth2 = x1mth2;
+        double localX7thm1 = x7thm1;
+
+        if (deepSpace) {
+            // dpper inlined to avoid allocating a result holder on the hot path
+            double zm = zmos + ZNS * t;
+            double zf = zm + 2.0 * ZES * Math.sin(zm);
+            double sinzf = Math.sin(zf);
+            double f2 = 0.5 * sinzf * sinzf - 0.25;
+            double f3 = -0.5 * sinzf * Math.cos(zf);
+            double ses = se2 * f2 + se3 * f3;
+            double sis = si2 * f2 + si3 * f3;
+            double sls = sl2 * f2 + sl3 * f3 + sl4 * sinzf;
+            double sghs = sgh2 * f2 + sgh3 * f3 + sgh4 * sinzf;
+            double shs = sh2 * f2 + sh3 * f3;
+            zm = zmol + ZNL * t;
+            zf = zm + 2.0 * ZEL * Math.sin(zm);
+            sinzf = Math.sin(zf);
+            f2 = 0.5 * sinzf * sinzf - 0.25;
+            f3 = -0.5 * sinzf * Math.cos(zf);
+            double sel = ee2 * f2 + e3 * f3;
+            double sil = xi2 * f2 + xi3 * f3;
+            double sll = xl2 * f2 + xl3 * f3 + xl4 * sinzf;
+            double sghl = xgh2 * f2 + xgh3 * f3 + xgh4 * sinzf;
+            double shll = xh2 * f2 + xh3 * f3;
+            double pe = ses + sel - peo;
+            double pinc = sis + sil - pinco;
+            double pl = sls + sll - plo;
+            double pgh = sghs + sghl - pgho;
+            double ph = shs + shll - pho;
+
+            xincp = xincp + pinc;
+            ep = ep + pe;
+            sinip = Math.sin(xincp);
+            cosip = Math.cos(xincp);
+
+            if (xincp >= 0.2) {
+                ph = ph / sinip;
+                pgh = pgh - cosip * ph;
+                argpp = argpp + pgh;
+                nodep = nodep + ph;
+                mp = mp + pl;
+            } else {
+                // Lyddane modification for low inclinations
+                double sinop = Math.sin(nodep);
+                double cosop = Math.cos(nodep);
+                double alfdp = sinip * sinop;
+                double betdp = sinip * cosop;
+                double dalf = ph * cosop + pinc * cosip * sinop;
+                double dbet = -ph * sinop + pinc * cosip * cosop;
+                alfdp = alfdp + dalf;
+                betdp = betdp + dbet;
+                nodep = nodep % TWO_PI;
+                double xls = mp + argpp + cosip * nodep;
+                double dls = pl + pgh - pinc * nodep * sinip;
+                xls = xls + dls;
+                double xnoh = nodep;
+                nodep = Math.atan2(alfdp, betdp);
+                if (Math.abs(xnoh - nodep) > Math.PI) {
+                    if (nodep < xnoh) {
+                        nodep = nodep + TWO_PI;
+                    } else {
+                        nodep = nodep - TWO_PI;
+                    }
+                }
+                mp = mp + pl;
+                argpp = xls - mp - cosip * nodep;
+            }
+
+            if (xincp < 0.0) {
+                xincp = -xincp;
+                nodep = nodep + Math.PI;
+                argpp = argpp - Math.PI;
+            }
+            if (ep < 0.0 || ep > 1.0) {
+                return ERROR_PERTURBED_ECCENTRICITY;
+            }
+
+            sinip = Math.sin(xincp);
+            cosip = Math.cos(xincp);
+            localAycof = -0.5 * J3OJ2 * sinip;
+            if (Math.abs(cosip + 1.0) > 1.5e-12) {
+                localXlcof = -0.25 * J3OJ2 * sinip * (3.0 + 5.0 * cosip) / (1.0 + cosip);
+            } else {
+                localXlcof = -0.25 * J3OJ2 * sinip * (3.0 + 5.0 * cosip) / TEMP4;
+            }
+        }
+
+        // Long period periodics
+        double axnl = ep * Math.cos(argpp);
+        double temp = 1.0 / (am * (1.0 - ep * ep));
+        double aynl = ep * Math.sin(argpp) + temp * localAycof;
+        double xl = mp + argpp + nodep + temp * localXlcof * axnl;
+
+        // Solve Kepler's equation
+        double u = (xl - nodep) % TWO_PI;
+        double eo1 = u;
+        double tem5 = 9999.9;
+        double sineo1 = 0.0;
+        double coseo1 = 0.0;
+        int ktr = 1;
+        while (Math.abs(tem5) >= 1.0e-12 && ktr <= 10) {
+            sineo1 = Math.sin(eo1);
+            coseo1 = Math.cos(eo1);
+            tem5 = 1.0 - coseo1 * axnl - sineo1 * aynl;
+            tem5 = (u - aynl * coseo1 + axnl * sineo1 - eo1) / tem5;
+            if (Math.abs(tem5) >= 0.95) {
+                tem5 = tem5 > 0.0 ? 0.95 : -0.95;
+            }
+            eo1 = eo1 + tem5;
+            ktr++;
+        }
+
+        // Short period preliminary quantities
+        double ecose = axnl * coseo1 + aynl * sineo1;
+        double esine = axnl * sineo1 - aynl * coseo1;
+        double el2 = axnl * axnl + aynl * aynl;
+        double pl = am * (1.0 - el2);
+        if (pl < 0.0) {
+            return ERROR_SEMI_LATUS_RECTUM;
+        }
+
+        double rl = am * (1.0 - ecose);
+        double rdotl = Math.sqrt(am) * esine / rl;
+        double rvdotl = Math.sqrt(pl) / rl;
+        double betal = Math.sqrt(1.0 - el2);
+        temp = esine / (1.0 + betal);
+        double sinu = am / rl * (sineo1 - aynl - axnl * temp);
+        double cosu = am / rl * (coseo1 - axnl + aynl * temp);
+        double su = Math.atan2(sinu, cosu);
+        double sin2u = (cosu + cosu) * sinu;
+        double cos2u = 1.0 - 2.0 * sinu * sinu;
+        temp = 1.0 / pl;
+        double temp1 = 0.5 * J2 * temp;
+        double temp2 = temp1 * temp;
+
+        if (deepSpace) {
+            double cosisq = cosip * cosip;
+            localCon41 = 3.0 * cosisq - 1.0;
+            localX1mth2 = 1.0 - cosisq;
+            localX7thm1 = 7.0 * cosisq - 1.0;
+        }
+
+        // Update for short period periodics
+        double mrt = rl * (1.0 - 1.5 * temp2 * betal * localCon41) + 0.5 * temp1 * localX1mth2 * cos2u;
+        su = su - 0.25 * temp2 * localX7thm1 * sin2u;
+        double xnode = nodep + 1.5 * temp2 * cosip * sin2u;
+        double xinc = xincp + 1.5 * temp2 * cosip * sinip * cos2u;
+        double mvt = rdotl - nm * temp1 * localX1mth2 * sin2u / XKE;
+        double rvdot = rvdotl + nm * temp1 * (localX1mth2 * cos2u + 1.5 * localCon41) / XKE;
+
+        // Orientation vectors
+        double sinsu = Math.sin(su);
+        double cossu = Math.cos(su);
+        double snod = Math.sin(xnode);
+        double cnod = Math.cos(xnode);
+        double sini = Math.sin(xinc);
+        double cosi = Math.cos(xinc);
+        double xmx = -snod * cosi;
+        double xmy = cnod * cosi;
+        double ux = xmx * sinsu + cnod * cossu;
+        double uy = xmy * sinsu + snod * cossu;
+        double uz = sini * sinsu;
+        double vx = xmx * cossu - cnod * sinsu;
+        double vy = xmy * cossu - snod * sinsu;
+        double vz = sini * cossu;
+
+        double radius = mrt * RADIUS_EARTH_KM;
+        out[0] = radius * ux;
+        out[1] = radius * uy;
+        out[2] = radius * uz;
+        out[3] = (mvt * ux + rvdot * vx) * VKMPERSEC;
+        out[4] = (mvt * uy + rvdot * vy) * VKMPERSEC;
+        out[5] = (mvt * uz + rvdot * vz) * VKMPERSEC;
+
+        return mrt < 1.0 ? ERROR_DECAYED : OK;
+    }
+
+    // Lunar-solar constants
+    private static final double ZES = 0.01675;
+    private static final double ZEL = 0.05490;
+    private static final double ZNS = 1.19459e-5;
+    private static final double ZNL = 1.5835218e-4;
+
+    // Resonance constants
+    private static final double RPTIM = 4.37526908801129966e-3;
+    private static final double FASX2 = 0.13130908;
+    private static final double FASX4 = 2.8843198;
+    private static final double FASX6 = 0.37448087;
+    private static final double G22 = 5.7686396;
+    private static final double G32 = 0.95240898;
+    private static final double G44 = 1.8014998;
+    private static final double G52 = 1.0508330;
+    private static final double G54 = 4.4108898;
+    private static final double STEPP = 720.0;
+    private static final double STEPN = -720.0;
+    private static final double STEP2 = 259200.0;
+
+    // Intermediate lunar/solar terms shared by dscom and dsinit during initialization only
+    private static final class DeepSpaceCommon {
+        double sinim;
+        double cosim;
+        double em;
+        double emsq;
+        double nm;
+        double s1, s2, s3, s4, s5;
+        double ss1, ss2, ss3, ss4, ss5;
+        double sz1, sz3, sz11, sz13, sz21, sz23, sz31, sz33;
+        double z1, z3, z11, z13, z21, z23, z31, z33;
+    }
+
+    private DeepSpaceCommon dscom(double epoch, double ep, double argpp, double tc, double inclp, double nodep, double np) {
+        final double c1ss = 2.9864797e-6;
+        final double c1l = 4.7968065e-7;
+        final double zsinis = 0.39785416;
+        final double zcosis = 0.91744867;
+        final double zcosgs = 0.1945905;
+        final double zsings = -0.98088458;
+
+        DeepSpaceCommon c = new DeepSpaceCommon();
+        c.nm = np;
+        c.em = ep;
+        double snodm = Math.sin(nodep);
+        double cnodm = Math.cos(nodep);
+        double sinomm = Math.sin(argpp);
+        double cosomm = Math.cos(argpp);
+        c.sinim = Math.sin(inclp);
+        c.cosim = Math.cos(inclp);
+        c.emsq = c.em * c.em;
+        double betasq = 1.0 - c.emsq;
+        double rtemsq = Math.sqrt(betasq);
+
+        // Initialize lunar/solar terms
+        peo = 0.0;
+        pinco = 0.0;
+        plo = 0.0;
+        pgho = 0.0;
+        pho = 0.0;
+        double day = epoch + 18261.5 + tc / 1440.0;
+        double xnodce = (4.5236020 - 9.2422029e-4 * day) % TWO_PI;
+        double stem = Math.sin(xnodce);
+        double ctem = Math.cos(xnodce);
+        double zcosil = 0.91375164 - 0.03568096 * ctem;
+        double zsinil = Math.sqrt(1.0 - zcosil * zcosil);
+        double zsinhl = 0.089683511 * stem / zsinil;
+        double zcoshl = Math.sqrt(1.0 - zsinhl * zsinhl);
+        double gam = 5.8351514 + 0.0019443680 * day;
+        double zx = 0.39785416 * stem / zsinil;
+        double zy = zcoshl * ctem + 0.91744867 * zsinhl * stem;
+        zx = Math.atan2(zx, zy);
+        zx = gam + zx - xnodce;
+        double zcosgl = Math.cos(zx);
+        double zsingl = Math.sin(zx);
+
+        // Solar terms first, then lunar
+        double zcosg = zcosgs;
+        double zsing = zsings;
+        double zcosi = zcosis;
+        double zsini = zsinis;
+        double zcosh = cnodm;
+        double zsinh = snodm;
+        double cc = c1ss;
+        double xnoi = 1.0 / c.nm;
+
+        for (int lsflg = 1; lsflg <= 2; lsflg++) {
+            double a1 = zcosg * zcosh + zsing * zcosi * zsinh;
+            double a3 = -zsing * zcosh + zcosg * zcosi * zsinh;
+            double a7 = -zcosg * zsinh + zsing * zcosi * zcosh;
+            double a8 = zsing * zsini;
+            double a9 = zsing * zsinh + zcosg * zcosi * zcosh;
+            double a10 = zcosg * zsini;
+            double a2 = c.cosim * a7 + c.sinim * a8;
+            double a4 = c.cosim * a9 + c.sinim * a10;
+            double a5 = -c.sinim * a7 + c.cosim * a8;
+            double a6 = -c.sinim * a9 + c.cosim * a10;
+
+            double x1 = a1 * cosomm + a2 * sinomm;
+            double x2 = a3 * cosomm + a4 * sinomm;
+            double x3 = -a1 * sinomm + a2 * cosomm;
+            double x4 = -a3 * sinomm + a4 * cosomm;
+            double x5 = a5 * sinomm;
+            double x6 = a6 * sinomm;
+            double x7 = a5 * cosomm;
+            double x8 = a6 * cosomm;
+
+            double z31 = 12.0 * x1 * x1 - 3.0 * x3 * x3;
+            double z32 = 24.0 * x1 * x2 - 6.0 * x3 * x4;
+            double z33 = 12.0 * x2 * x2 - 3.0 * x4 * x4;
+            double z1 = 3.0 * (a1 * a1 + a2 * a2) + z31 * c.emsq;
+            double z2 = 6.0 * (a1 * a3 + a2 * a4) + z32 * c.emsq;
+            double z3 = 3.0 * (a3 * a3 + a4 * a4) + z33 * c.emsq;
+            double z11 = -6.0 * a1 * a5 + c.emsq * (-24.0 * x1 * x7 - 6.0 * x3 * x5);
+            double z12 = -6.0 * (a1 * a6 + a3 * a5) + c.emsq * (-24.0 * (x2 * x7 + x1 * x8) - 6.0 * (x3 * x6 + x4 * x5));
+            double z13 = -6.0 * a3 * a6 + c.emsq * (-24.0 * x2 * x8 - 6.0 * x4 * x6);
+            double z21 = 6.0 * a2 * a5 + c.emsq * (24.0 * x1 * x5 - 6.0 * x3 * x7);
+            double z22 = 6.0 * (a4 * a5 + a2 * a6) + c.emsq * (24.0 * (x2 * x5 + x1 * x6) - 6.0 * (x4 * x7 + x3 * x8));
+            double z23 = 6.0 * a4 * a6 + c.emsq * (24.0 * x2 * x6 - 6.0 * x4 * x8);
+            z1 = z1 + z1 + betasq * z31;
+            z2 = z2 + z2 + betasq * z32;
+            z3 = z3 + z3 + betasq * z33;
+            double s3 = cc * xnoi;
+            double s2 = -0.5 * s3 / rtemsq;
+            double s4 = s3 * rtemsq;
+            double s1 = -15.0 * c.em * s4;
+            double s5 = x1 * x3 + x2 * x4;
+            double s6 = x2 * x3 + x1 * x4;
+            double s7 = x2 * x4 - x1 * x3;
+
+            if (lsflg == 1) {
+                c.ss1 = s1;
+                c.ss2 = s2;
+                c.ss3 = s3;
+                c.ss4 = s4;
+                c.ss5 = s5;
+                c.sz1 = z1;
+                c.sz3 = z3;
+                c.sz11 = z11;
+                c.sz13 = z13;
+                c.sz21 = z21;
+                c.sz23 = z23;
+                c.sz31 = z31;
+                c.sz33 = z33;
+
+                se2 = 2.0 * s1 * s6;
+                se3 = 2.0 * s1 * s7;
+                si2 = 2.0 * s2 * z12;
+                si3 = 2.0 * s2 * (z13 - z11);
+                sl2 = -2.0 * s3 * z2;
+                sl3 = -2.0 * s3 * (z3 - z1);
+                sl4 = -2.0 * s3 * (-21.0 - 9.0 * c.emsq) * ZES;
+                sgh2 = 2.0 * s4 * z32;
+                sgh3 = 2.0 * s4 * (z33 - z31);
+                sgh4 = -18.0 * s4 * ZES;
+                sh2 = -2.0 * s2 * z22;
+                sh3 = -2.0 * s2 * (z23 - z21);
+
+                zcosg = zcosgl;
+                zsing = zsingl;
+                zcosi = zcosil;
+                zsini = zsinil;
+                zcosh = zcoshl * cnodm + zsinhl * snodm;
+                zsinh = snodm * zcoshl - cnodm * zsinhl;
+                cc = c1l;
+            } else {
+                c.s1 = s1;
+                c.s2 = s2;
+                c.s3 = s3;
+                c.s4 = s4;
+                c.s5 = s5;
+                c.z1 = z1;
+                c.z3 = z3;
+                c.z11 = z11;
+                c.z13 = z13;
+                c.z21 = z21;
+                c.z23 = z23;
+                c.z31 = z31;
+                c.z33 = z33;
+
+                ee2 = 2.0 * s1 * s6;
+                e3 = 2.0 * s1 * s7;
+                xi2 = 2.0 * s2 * z12;
+                xi3 = 2.0 * s2 * (z13 - z11);
+                xl2 = -2.0 * s3 * z2;
+                xl3 = -2.0 * s3 * (z3 - z1);
+                xl4 = -2.0 * s3 * (-21.0 - 9.0 * c.emsq) * ZEL;
+                xgh2 = 2.0 * s4 * z32;
+                xgh3 = 2.0 * s4 * (z33 - z31);
+                xgh4 = -18.0 * s4 * ZEL;
+                xh2 = -2.0 * s2 * z22;
+                xh3 = -2.0 * s2 * (z23 - z21);
+            }
+        }
+
+        zmol = (4.7199672 + 0.22997150 * day - gam) % TWO_PI;
+        zmos = (6.2565837 + 0.017201977 * day) % TWO_PI;
+        return c;
+    }
+
+    private void dsinit(DeepSpaceCommon c, double eccsq, double xpidot) {
+        final double q22 = 1.7891679e-6;
+        final double q31 = 2.1460748e-6;
+        final double q33 = 2.2123015e-7;
+        final double root22 = 1.7891679e-6;
+        final double root44 = 7.3636953e-9;
+        final double root54 = 2.1765803e-9;
+        final double root32 = 3.7393792e-7;
+        final double root52 = 1.1428639e-7;
+
+        double nm = c.nm;
+        double em = c.em;
+        double emsq = eccsq;
+        double cosim = c.cosim;
+        double sinim = c.sinim;
+        double inclm = inclo;
+
+        // Deep-space resonance classification
+        irez = 0;
+        if (nm < 0.0052359877 && nm > 0.0034906585) {
+            irez = 1;
+        }
+        if (nm >= 8.26e-3 && nm <= 9.24e-3 && em >= 0.5) {
+            irez = 2;
+        }
+
+        // Solar terms
+        double ses = c.ss1 * ZNS * c.ss5;
+        double sis = c.ss2 * ZNS * (c.sz11 + c.sz13);
+        double sls = -ZNS * c.ss3 * (c.sz1 + c.sz3 - 14.0 - 6.0 * emsq);
+        double sghs = c.ss4 * ZNS * (c.sz31 + c.sz33 - 6.0);
+        double shs = -ZNS * c.ss2 * (c.sz21 + c.sz23);
+        if (inclm < 5.2359877e-2 || inclm > Math.PI - 5.2359877e-2) {
+            shs = 0.0;
+        }
+        if (sinim != 0.0) {
+            shs = shs / sinim;
+        }
+        double sgs = sghs - cosim * shs;
+
+        // Lunar terms
+        dedt = ses + c.s1 * ZNL * c.s5;
+        didt = sis + c.s2 * ZNL * (c.z11 + c.z13);
+        dmdt = sls - ZNL * c.s3 * (c.z1 + c.z3 - 14.0 - 6.0 * emsq);
+        double sghl = c.s4 * ZNL * (c.z31 + c.z33 - 6.0);
+        double shll = -ZNL * c.s2 * (c.z21 + c.z23);
+        if (inclm < 5.2359877e-2 || inclm > Math.PI - 5.2359877e-2) {
+            shll = 0.0;
+        }
+        domdt = sgs + sghl;
+        dnodt = shs;
+        if (sinim != 0.0) {
+            domdt = domdt - cosim / sinim * shll;
+            dnodt = dnodt + shll / sinim;
+        }
+
+        // Deep-space resonance effects
+        double theta = gsto % TWO_PI;
+        if (irez == 0) {
+            return;
+        }
+
+        double aonv = Math.pow(nm / XKE, X2O3);
+
+        // Geopotential resonance for 12 hour orbits
+        if (irez == 2) {
+            double cosisq = cosim * cosim;
+            double eoc = em * emsq;
+            double g201 = -0.306 - (em - 0.64) * 0.440;
+            double g211;
+            double g310;
+            double g322;
+            double g410;
+            double g422;
+            double g520;
+            double g521;
+            double g532;
+            double g533;
+
+            if (em <= 0.65) {
+                g211 = 3.616 - 13.2470 * em + 16.2900 * emsq;
+                g310 = -19.302 + 117.3900 * em - 228.4190 * emsq + 156.5910 * eoc;
+                g322 = -18.9068 + 109.7927 * em - 214.6334 * emsq + 146.5816 * eoc;
+                g410 = -41.122 + 242.6940 * em - 471.0940 * emsq + 313.9530 * eoc;
+                g422 = -146.407 + 841.8800 * em - 1629.014 * emsq + 1083.4350 * eoc;
+                g520 = -532.114 + 3017.977 * em - 5740.032 * emsq + 3708.2760 * eoc;
+            } else {
+                g211 = -72.099 + 331.819 * em - 508.738 * emsq + 266.724 * eoc;
+                g310 = -346.844 + 1582.851 * em - 2415.925 * emsq + 1246.113 * eoc;
+                g322 = -342.585 + 1554.908 * em - 2366.899 * emsq + 1215.972 * eoc;
+                g410 = -1052.797 + 4758.686 * em - 7193.992 * emsq + 3651.957 * eoc;
+                g422 = -3581.690 + 16178.110 * em - 24462.770 * emsq + 12422.520 * eoc;
+                if (em > 0.715) {
+                    g520 = -5149.66 + 29936.92 * em - 54087.36 * emsq + 31324.56 * eoc;
+                } else {
+                    g520 = 1464.74 - 4664.75 * em + 3763.64 * emsq;
+                }
+            }
+            if (em < 0.7) {
+                g533 = -919.22770 + 4988.6100 * em - 9064.7700 * emsq + 5542.21 * eoc;
+                g521 = -822.71072 + 4568.6173 * em - 8491.4146 * emsq + 5337.524 * eoc;
+                g532 = -853.66600 + 4690.2500 * em - 8624.7700 * emsq + 5341.4 * eoc;
+            } else {
+                g533 = -37995.780 + 161616.52 * em - 229838.20 * emsq + 109377.94 * eoc;
+                g521 = -51752.104 + 218913.95 * em - 309468.16 * emsq + 146349.42 * eoc;
+                g532 = -40023.880 + 170470.89 * em - 242699.48 * emsq + 115605.82 * eoc;
+            }
+
+            double sini2 = sinim * sinim;
+            double f220 = 0.75 * (1.0 + 2.0 * cosim + cosisq);
+            double f221 = 1.5 * sini2;
+            double f321 = 1.875 * sinim * (1.0 - 2.0 * cosim - 3.0 * cosisq);
+            double f322 = -1.875 * sinim * (1.0 + 2.0 * cosim - 3.0 * cosisq);
+            double f441 = 35.0 * sini2 * f220;
+            double f442 = 39.3750 * sini2 * sini2;
+            double f522 = 9.84375 * sinim * (sini2 * (1.0 - 2.0 * cosim - 5.0 * cosisq)
+                    + 0.33333333 * (-2.0 + 4.0 * cosim + 6.0 * cosisq));
+            double f523 = sinim * (4.92187512 * sini2 * (-2.0 - 4.0 * cosim + 10.0 * cosisq)
+                    + 6.56250012 * (1.0 + 2.0 * cosim - 3.0 * cosisq));
+            double f542 = 29.53125 * sinim * (2.0 - 8.0 * cosim + cosisq * (-12.0 + 8.0 * cosim + 10.0 * cosisq));
+            double f543 = 29.53125 * sinim * (-2.0 - 8.0 * cosim + cosisq * (12.0 + 8.0 * cosim - 10.0 * cosisq));
+            double xno2 = nm * nm;
+            double ainv2 = aonv * aonv;
+            double temp1 = 3.0 * xno2 * ainv2;
+            double temp = temp1 * root22;
+            d2201 = temp * f220 * g201;
+            d2211 = temp * f221 * g211;
+            temp1 = temp1 * aonv;
+            temp = temp1 * root32;
+            d3210 = temp * f321 * g310;
+            d3222 = temp * f322 * g322;
+            temp1 = temp1 * aonv;
+            temp = 2.0 * temp1 * root44;
+            d4410 = temp * f441 * g410;
+            d4422 = temp * f442 * g422;
+            temp1 = temp1 * aonv;
+            temp = temp1 * root52;
+            d5220 = temp * f522 * g520;
+            d5232 = temp * f523 * g532;
+            temp = 2.0 * temp1 * root54;
+            d5421 = temp * f542 * g521;
+            d5433 = temp * f543 * g533;
+            xlamo = (mo + nodeo + nodeo - theta - theta) % TWO_PI;
+            xfact = mdot + dmdt + 2.0 * (nodedot + dnodt - RPTIM) - noUnkozai;
+        }
+
+        // Synchronous resonance terms
+        if (irez == 1) {
+            double g200 = 1.0 + emsq * (-2.5 + 0.8125 * emsq);
+            double g310 = 1.0 + 2.0 * emsq;
+            double g300 = 1.0 + emsq * (-6.0 + 6.60937 * emsq);
+            double f220 = 0.75 * (1.0 + cosim) * (1.0 + cosim);
+            double f311 = 0.9375 * sinim * sinim * (1.0 + 3.0 * cosim) - 0.75 * (1.0 + cosim);
+            double f330 = 1.0 + cosim;
+            f330 = 1.875 * f330 * f330 * f330;
+            del1 = 3.0 * nm * nm * aonv * aonv;
+            del2 = 2.0 * del1 * f220 * g200 * q22;
+            del3 = 3.0 * del1 * f330 * g300 * q33 * aonv;
+            del1 = del1 * f311 * g310 * q31 * aonv;
+            xlamo = (mo + nodeo + argpo - theta) % TWO_PI;
+            xfact = mdot + xpidot - RPTIM + dmdt + domdt + dnodt - noUnkozai;
+        }
+    }
+}
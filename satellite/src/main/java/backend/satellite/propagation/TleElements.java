@@ -0,0 +1,115 @@
+package backend.satellite.propagation;
+
+import java.time.Instant;
+
+// Mean elements exactly as they appear in a two-line element set (angles in degrees, mean motion in rev/day)
+public record TleElements(
+        String satNumber,
+        int epochYear,
+        double epochDay,
+        double meanMotionDot,
+        double meanMotionDdot,
+        double bstar,
+        double inclination,
+        double raan,
+        double eccentricity,
+        double argPerigee,
+        double meanAnomaly,
+        double meanMotion,
+        int revNumber) {
+
+    private static final double UNIX_EPOCH_JD = 2440587.5;
+
+    public static TleElements parse(String tleString) {
+        String line1 = null;
+        String line2 = null;
+        for (String line : tleString.split("\r?\n")) {
+            if (line.startsWith("1 ")) {
+                line1 = line;
+            } else if (line.startsWith("2 ")) {
+                line2 = line;
+            }
+        }
+        if (line1 == null || line2 == null) {
+            throw new IllegalArgumentException("TLE must contain both element lines");
+        }
+        return parse(line1, line2);
+    }
+
+    public static TleElements parse(String line1, String line2) {
+        if (line1.length() < 61 || line2.length() < 63) {
+            throw new IllegalArgumentException("TLE element lines are too short");
+        }
+        try {
+            int twoDigitYear = Integer.parseInt(line1.substring(18, 20).trim());
+            return new TleElements(
+                    line1.substring(2, 7).trim(),
+                    twoDigitYear < 57 ? 2000 + twoDigitYear : 1900 + twoDigitYear,
+                    Double.parseDouble(line1.substring(20, 32).trim()),
+                    Double.parseDouble(line1.substring(33, 43).trim()),
+                    parseImpliedDecimal(line1.substring(44, 52)),
+                    parseImpliedDecimal(line1.substring(53, 61)),
+                    Double.parseDouble(line2.substring(8, 16).trim()),
+                    Double.parseDouble(line2.substring(17, 25).trim()),
+                    Double.parseDouble("0." + line2.substring(26, 33).trim()),
+                    Double.parseDouble(line2.substring(34, 42).trim()),
+                    Double.parseDouble(line2.substring(43, 51).trim()),
+                    Double.parseDouble(line2.substring(52, 63).trim()),
+                    line2.length() >= 68 ? parseIntOrZero(line2.substring(63, 68)) : 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed TLE element lines", e);
+        }
+    }
+
+    // Julian date of the element epoch (UTC)
+    public double epochJulianDate() {
+        return julianDate(epochYear, 1, 1, 0, 0, 0) + epochDay - 1;
+    }
+
+    public double epochUnixMillis() {
+        return (julianDate(epochYear, 1, 1, 0, 0, 0) - UNIX_EPOCH_JD + epochDay - 1) * 86_400_000.0;
+    }
+
+    public Instant epoch() {
+        return Instant.ofEpochMilli(Math.round(epochUnixMillis()));
+    }
+
+    static double julianDate(int year, int month, int day, int hour, int minute, double second) {
+        return 367.0 * year
+                - Math.floor(7 * (year + Math.floor((month + 9) / 12.0)) * 0.25)
+                + Math.floor(275 * month / 9.0)
+                + day + 1721013.5
+                + ((second / 60.0 + minute) / 60.0 + hour) / 24.0;
+    }
+
+    // Fields such as " 30183-3" mean 0.30183e-3
+    private static double parseImpliedDecimal(String field) {
+        String value = field.trim();
+        if (value.isEmpty()) {
+            return 0;
+        }
+        int exponentStart = Math.max(value.lastIndexOf('-'), value.lastIndexOf('+'));
+        String mantissa = value;
+        int exponent = 0;
+        if (exponentStart > 0) {
+            mantissa = value.substring(0, exponentStart).trim();
+            exponent = Integer.parseInt(value.substring(exponentStart).replace("+", ""));
+        }
+        double sign = 1;
+        if (mantissa.startsWith("-")) {
+            sign = -1;
+            mantissa = mantissa.substring(1);
+        } else if (mantissa.startsWith("+")) {
+            mantissa = mantissa.substring(1);
+        }
+        if (mantissa.startsWith(".")) {
+            mantissa = mantissa.substring(1);
+        }
+        return sign * Double.parseDouble("0." + mantissa) * Math.pow(10, exponent);
+    }
+
+    private static int parseIntOrZero(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+}
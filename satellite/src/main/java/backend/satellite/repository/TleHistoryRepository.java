@@ -0,0 +1,9 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.TleHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TleHistoryRepository extends JpaRepository<TleHistory, TleHistory.Key>, TleHistoryRepositoryCustom {
+}
@@ -0,0 +1,29 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.TleHistory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TleHistoryRepositoryCustom {
+
+    // Inserts element sets, skipping any already recorded for their (satellite, epoch)
+    void appendAll(List<TleHistory> entries);
+
+    // Whether the history has no rows at all; reads at most one row
+    boolean isEmpty();
+
+    // Copies the current element set of every satellite whose elements are parsed into the history
+    void appendCurrent(LocalDateTime recordedAt);
+
+    // Every recorded epoch of one satellite, ascending, read from the primary key
+    List<LocalDateTime> findEpochs(String satNumber);
+
+    // Keys of the element sets with an epoch in [from, to), ordered by satellite and epoch
+    List<TleHistory.Key> findKeysBetween(LocalDateTime from, LocalDateTime to);
+
+    void deleteKeys(List<TleHistory.Key> keys);
+
+    // Deletes at most limit element sets older than the cutoff; returns how many were deleted
+    int deleteOlderThan(LocalDateTime cutoff, int limit);
+}
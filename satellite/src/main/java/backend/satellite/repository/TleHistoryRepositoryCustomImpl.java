@@ -0,0 +1,78 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.TleHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TleHistoryRepositoryCustomImpl implements TleHistoryRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    // The no-op update turns a duplicate (satellite, epoch) into a skip, so re-imports and retries are idempotent
+    private static final String APPEND_SQL =
+            "INSERT INTO tle_history (sat_number, epoch, tle_string, recorded_at) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE sat_number = sat_number";
+    private static final String APPEND_CURRENT_SQL =
+            "INSERT INTO tle_history (sat_number, epoch, tle_string, recorded_at) "
+            + "SELECT sat_number, epoch, tle_string, ? FROM tle_data WHERE epoch IS NOT NULL "
+            + "ON DUPLICATE KEY UPDATE sat_number = tle_history.sat_number";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void appendAll(List<TleHistory> entries) {
+        jdbcTemplate.batchUpdate(APPEND_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getSatNumber());
+            ps.setTimestamp(2, Timestamp.valueOf(entry.getEpoch()));
+            ps.setString(3, entry.getTleString());
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getRecordedAt()));
+        });
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return jdbcTemplate.query("SELECT 1 FROM tle_history LIMIT 1", (rs, rowNum) -> 1).isEmpty();
+    }
+
+    @Override
+    @Transactional
+    public void appendCurrent(LocalDateTime recordedAt) {
+        jdbcTemplate.update(APPEND_CURRENT_SQL, Timestamp.valueOf(recordedAt));
+    }
+
+    @Override
+    public List<LocalDateTime> findEpochs(String satNumber) {
+        return jdbcTemplate.query("SELECT epoch FROM tle_history WHERE sat_number = ? ORDER BY epoch",
+                (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(), satNumber);
+    }
+
+    @Override
+    public List<TleHistory.Key> findKeysBetween(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT sat_number, epoch FROM tle_history WHERE epoch >= ? AND epoch < ? "
+                        + "ORDER BY sat_number, epoch",
+                (rs, rowNum) -> new TleHistory.Key(rs.getString(1), rs.getTimestamp(2).toLocalDateTime()),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @Override
+    @Transactional
+    public void deleteKeys(List<TleHistory.Key> keys) {
+        jdbcTemplate.batchUpdate("DELETE FROM tle_history WHERE sat_number = ? AND epoch = ?", keys, BATCH_SIZE,
+                (ps, key) -> {
+                    ps.setString(1, key.getSatNumber());
+                    ps.setTimestamp(2, Timestamp.valueOf(key.getEpoch()));
+                });
+    }
+
+    @Override
+    @Transactional
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM tle_history WHERE epoch < ? LIMIT ?", Timestamp.valueOf(cutoff), limit);
+    }
+}
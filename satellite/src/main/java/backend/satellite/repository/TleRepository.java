@@ -8,10 +8,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface TleRepository extends JpaRepository<TleData, Long> {
+public interface TleRepository extends JpaRepository<TleData, Long>, TleRepositoryCustom {
     TleData findBySatNumber(String satNumber);
 
+    List<TleData> findBySatNumberIn(Collection<String> satNumbers);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM TleData t WHERE t.satNumber = :satNumber")
@@ -20,4 +25,7 @@ public interface TleRepository extends JpaRepository<TleData, Long> {
 
     @Query(value = "SELECT * FROM tle_data ORDER BY fetch_count DESC LIMIT 1", nativeQuery = true)
     TleData findMostFetched();
+
+    @Query(value = "SELECT * FROM tle_data WHERE fetch_count > 0 ORDER BY fetch_count DESC LIMIT :limit", nativeQuery = true)
+    List<TleData> findMostFetched(@Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleField;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TleRepositoryCustom {
+
+    void incrementFetchCounts(Map<String, Long> deltasBySatNumber);
+
+    void upsertAll(List<TleData> tleData);
+
+    // Rows in id order through a forward-only cursor, as detached TleData with only the selected fields set.
+    // The stream holds a connection until it is closed
+    Stream<TleData> streamAll(Set<TleField> fields, Long afterId, Integer limit);
+
+    // Rows whose elements fall within the filter, in id order after the cursor; answered from the element columns
+    List<TleData> search(ElementsFilter filter, Long afterId, int limit);
+
+    // Rows stored before the element columns existed, with only id, satNumber and tleString set
+    List<TleData> findWithoutElements(Long afterId, int limit);
+
+    void updateElements(List<TleData> tleData);
+
+    // Stored element epoch per satellite, for rows that have one
+    Map<String, LocalDateTime> findEpochs();
+}
@@ -0,0 +1,236 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleField;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+public class TleRepositoryCustomImpl implements TleRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INCREMENT_FETCH_COUNT_SQL =
+            "UPDATE tle_data SET fetch_count = fetch_count + ? WHERE sat_number = ?";
+    private static final String ELEMENT_COLUMNS = String.join(", ", TleField.ELEMENTS.columns());
+    private static final String UPSERT_SQL =
+            "INSERT INTO tle_data (sat_number, tle_string, last_updated, fetch_count, " + ELEMENT_COLUMNS + ") "
+            + "VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE tle_string = VALUES(tle_string), last_updated = VALUES(last_updated), "
+            + elementUpdates("VALUES(%s)");
+    private static final String UPDATE_ELEMENTS_SQL =
+            "UPDATE tle_data SET " + elementUpdates("?") + " WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${tle.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    // Separate template so the fetch size only applies to export reads. Connector/J streams a result row by row
+    // for a fetch size of Integer.MIN_VALUE; any other value only takes effect when the whole connection uses
+    // server-side cursors, which would change every pooled connection
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        boolean mysql = datasourceUrl.startsWith("jdbc:mysql:");
+        streamingJdbcTemplate.setFetchSize(mysql ? Integer.MIN_VALUE : exportFetchSize);
+    }
+
+    @Override
+    @Transactional
+    public void incrementFetchCounts(Map<String, Long> deltasBySatNumber) {
+        List<Map.Entry<String, Long>> deltas = new ArrayList<>(deltasBySatNumber.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_FETCH_COUNT_SQL, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setString(2, delta.getKey());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(List<TleData> tleData) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, tleData, BATCH_SIZE, (ps, data) -> {
+            ps.setString(1, data.getSatNumber());
+            ps.setString(2, data.getTleString());
+            ps.setTimestamp(3, Timestamp.valueOf(data.getLastUpdated()));
+            setElements(ps, 4, data.getElements());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void updateElements(List<TleData> tleData) {
+        jdbcTemplate.batchUpdate(UPDATE_ELEMENTS_SQL, tleData, BATCH_SIZE, (ps, data) -> {
+            setElements(ps, 1, data.getElements());
+            ps.setLong(TleField.ELEMENTS.columns().length + 1, data.getId());
+        });
+    }
+
+    @Override
+    public List<TleData> search(ElementsFilter filter, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM tle_data WHERE epoch IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        addBound(sql, args, "inclination >= ?", filter.minInclination());
+        addBound(sql, args, "inclination <= ?", filter.maxInclination());
+        addBound(sql, args, "mean_motion >= ?", filter.minMeanMotion());
+        addBound(sql, args, "mean_motion <= ?", filter.maxMeanMotion());
+        addBound(sql, args, "eccentricity <= ?", filter.maxEccentricity());
+        addBound(sql, args, "perigee_km >= ?", filter.minPerigeeKm());
+        addBound(sql, args, "apogee_km <= ?", filter.maxApogeeKm());
+        addBound(sql, args, "epoch > ?", filter.epochAfter() != null ? Timestamp.valueOf(filter.epochAfter()) : null);
+        addBound(sql, args, "epoch < ?", filter.epochBefore() != null ? Timestamp.valueOf(filter.epochBefore()) : null);
+        addBound(sql, args, "id > ?", afterId);
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        Set<TleField> fields = EnumSet.allOf(TleField.class);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs, fields), args.toArray());
+    }
+
+    @Override
+    public List<TleData> findWithoutElements(Long afterId, int limit) {
+        Set<TleField> fields = EnumSet.of(TleField.ID, TleField.SAT_NUMBER, TleField.TLE_STRING);
+        return jdbcTemplate.query("SELECT id, sat_number, tle_string FROM tle_data WHERE epoch IS NULL AND id > ? "
+                + "ORDER BY id LIMIT ?", (rs, rowNum) -> mapRow(rs, fields), afterId != null ? afterId : 0L, limit);
+    }
+
+    @Override
+    public Map<String, LocalDateTime> findEpochs() {
+        Map<String, LocalDateTime> epochs = new HashMap<>();
+        jdbcTemplate.query("SELECT sat_number, epoch FROM tle_data WHERE epoch IS NOT NULL",
+                (RowCallbackHandler) rs -> epochs.put(rs.getString("sat_number"), rs.getTimestamp("epoch").toLocalDateTime()));
+        return epochs;
+    }
+
+    @Override
+    public Stream<TleData> streamAll(Set<TleField> fields, Long afterId, Integer limit) {
+        StringJoiner columns = new StringJoiner(", ");
+        fields.forEach(field -> columns.add(String.join(", ", field.columns())));
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM tle_data");
+        List<Object> args = new ArrayList<>();
+        if (afterId != null) {
+            sql.append(" WHERE id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id");
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+        return streamingJdbcTemplate.queryForStream(sql.toString(), (rs, rowNum) -> mapRow(rs, fields), args.toArray());
+    }
+
+    private static TleData mapRow(ResultSet rs, Set<TleField> fields) throws SQLException {
+        TleData data = new TleData();
+        if (fields.contains(TleField.ID)) {
+            data.setId(rs.getLong(TleField.ID.column()));
+        }
+        if (fields.contains(TleField.SAT_NUMBER)) {
+            data.setSatNumber(rs.getString(TleField.SAT_NUMBER.column()));
+        }
+        if (fields.contains(TleField.TLE_STRING)) {
+            data.setTleString(rs.getString(TleField.TLE_STRING.column()));
+        }
+        if (fields.contains(TleField.LAST_UPDATED)) {
+            Timestamp lastUpdated = rs.getTimestamp(TleField.LAST_UPDATED.column());
+            data.setLastUpdated(lastUpdated != null ? lastUpdated.toLocalDateTime() : null);
+        }
+        if (fields.contains(TleField.FETCH_COUNT)) {
+            data.setFetchCount(rs.getInt(TleField.FETCH_COUNT.column()));
+        }
+        if (fields.contains(TleField.ELEMENTS)) {
+            data.setElements(mapElements(rs));
+        }
+        return data;
+    }
+
+    // Null when the row predates the element columns
+    private static OrbitalElements mapElements(ResultSet rs) throws SQLException {
+        Timestamp epoch = rs.getTimestamp("epoch");
+        if (epoch == null) {
+            return null;
+        }
+        OrbitalElements elements = new OrbitalElements();
+        elements.setEpoch(epoch.toLocalDateTime());
+        elements.setMeanMotionDot(rs.getDouble("mean_motion_dot"));
+        elements.setMeanMotionDdot(rs.getDouble("mean_motion_ddot"));
+        elements.setBstar(rs.getDouble("bstar"));
+        elements.setInclination(rs.getDouble("inclination"));
+        elements.setRaan(rs.getDouble("raan"));
+        elements.setEccentricity(rs.getDouble("eccentricity"));
+        elements.setArgPerigee(rs.getDouble("arg_perigee"));
+        elements.setMeanAnomaly(rs.getDouble("mean_anomaly"));
+        elements.setMeanMotion(rs.getDouble("mean_motion"));
+        elements.setRevNumber(rs.getInt("rev_number"));
+        elements.setPerigeeKm(rs.getDouble("perigee_km"));
+        elements.setApogeeKm(rs.getDouble("apogee_km"));
+        return elements;
+    }
+
+    // Binds the element columns in TleField.ELEMENTS order, or nulls when the TLE text could not be parsed
+    private static void setElements(PreparedStatement ps, int index, OrbitalElements elements) throws SQLException {
+        if (elements == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+            for (int i = 1; i < TleField.ELEMENTS.columns().length; i++) {
+                ps.setNull(index + i, Types.DOUBLE);
+            }
+            return;
+        }
+        ps.setTimestamp(index, Timestamp.valueOf(elements.getEpoch()));
+        ps.setDouble(index + 1, elements.getMeanMotionDot());
+        ps.setDouble(index + 2, elements.getMeanMotionDdot());
+        ps.setDouble(index + 3, elements.getBstar());
+        ps.setDouble(index + 4, elements.getInclination());
+        ps.setDouble(index + 5, elements.getRaan());
+        ps.setDouble(index + 6, elements.getEccentricity());
+        ps.setDouble(index + 7, elements.getArgPerigee());
+        ps.setDouble(index + 8, elements.getMeanAnomaly());
+        ps.setDouble(index + 9, elements.getMeanMotion());
+        ps.setInt(index + 10, elements.getRevNumber());
+        ps.setDouble(index + 11, elements.getPerigeeKm());
+        ps.setDouble(index + 12, elements.getApogeeKm());
+    }
+
+    private static String elementUpdates(String valueFormat) {
+        StringJoiner updates = new StringJoiner(", ");
+        for (String column : TleField.ELEMENTS.columns()) {
+            updates.add(column + " = " + String.format(valueFormat, column));
+        }
+        return updates.toString();
+    }
+
+    private static void addBound(StringBuilder sql, List<Object> args, String condition, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(condition);
+            args.add(value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package backend.satellite.service;
+
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+@Service
+@ConditionalOnProperty(name = "tle.ingest.enabled", havingValue = "true")
+public class CatalogIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIngestService.class);
+    private static final String SPACETRACK_CATALOG_PATH = "/basicspacedata/query/class/gp/decay_date/null-val/epoch/%3Enow-30/orderby/norad_cat_id/format/json";
+
+    @Value("${tle.ingest.source:spacetrack}")
+    private String source;
+
+    @Value("${tle.ingest.url:}")
+    private String url;
+
+    @Value("${tle.ingest.file:}")
+    private String file;
+
+    @Value("${tle.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private SpaceTrackSession spaceTrackSession;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private TleHistoryService tleHistoryService;
+
+    // Last element epoch written per satellite. The first run after startup seeds it from the stored epoch
+    // column, so a restart does not upsert and append history for every unchanged record
+    private final Map<String, LocalDateTime> knownEpochs = new ConcurrentHashMap<>();
+    private volatile boolean epochsLoaded;
+
+    @Scheduled(fixedDelayString = "${tle.ingest.interval-ms:3600000}", initialDelayString = "${tle.ingest.initial-delay-ms:10000}")
+    public void ingestCatalog() {
+        logger.info("Starting catalog ingest from source: {}", source);
+        long startTime = System.currentTimeMillis();
+        IngestBatch batch = new IngestBatch();
+
+        try {
+            if (!epochsLoaded) {
+                knownEpochs.putAll(tleRepository.findEpochs());
+                epochsLoaded = true;
+                logger.info("Loaded stored epochs for {} satellites", knownEpochs.size());
+            }
+            switch (source) {
+                case "spacetrack" -> spaceTrackSession.execute(SPACETRACK_CATALOG_PATH, response -> read(response.getBody(), batch));
+                case "url" -> restTemplate.execute(URI.create(url), HttpMethod.GET, null,
+                        (ResponseExtractor<Void>) response -> read(response.getBody(), batch));
+                case "file" -> {
+                    try (InputStream in = openFile(Path.of(file))) {
+                        read(in, batch);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown tle.ingest.source: " + source);
+            }
+            batch.flush();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Catalog ingest failed after {} records: {}", batch.seen, e.getMessage());
+            return;
+        }
+
+        logger.info("Catalog ingest finished in {}ms: {} records, {} updated, {} unchanged, {} skipped",
+                System.currentTimeMillis() - startTime, batch.seen, batch.written, batch.unchanged, batch.skipped);
+    }
+
+    private Void read(InputStream in, IngestBatch batch) throws IOException {
+        GpJsonParser.parse(in, batch::add);
+        return null;
+    }
+
+    static InputStream openFile(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return path.toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    private class IngestBatch {
+
+        private final List<TleData> pending = new ArrayList<>(batchSize);
+        private final LocalDateTime ingestTime = LocalDateTime.now();
+        private long seen;
+        private long written;
+        private long unchanged;
+        private long skipped;
+
+        void add(GpRecord record) {
+            seen++;
+            if (!record.isComplete()) {
+                skipped++;
+                return;
+            }
+            // Compared on the parsed element epoch, the value the epoch column stores
+            OrbitalElements elements = OrbitalElements.fromTle(record.tleString());
+            if (elements != null && elements.getEpoch().equals(knownEpochs.get(record.noradCatId()))) {
+                unchanged++;
+                return;
+            }
+
+            TleData tleData = new TleData();
+            tleData.setSatNumber(record.noradCatId());
+            tleData.setTleString(record.tleString());
+            tleData.setElements(elements);
+            tleData.setLastUpdated(ingestTime);
+            pending.add(tleData);
+
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            tleRepository.upsertAll(pending);
+            tleHistoryService.append(pending);
+            for (TleData tleData : pending) {
+                if (tleData.getElements() != null) {
+                    knownEpochs.put(tleData.getSatNumber(), tleData.getElements().getEpoch());
+                }
+                tleCache.invalidate(tleData.getSatNumber());
+            }
+            written += pending.size();
+            pending.clear();
+        }
+    }
+}
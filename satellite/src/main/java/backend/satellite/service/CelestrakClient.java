@@ -0,0 +1,139 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.propagation.TleElements;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// GP element sets from Celestrak in three-line TLE format; no login or rate limiter, and no retries since
+// TleSources already races or fails over to another source. Celestrak answers one CATNR per query, so a batch
+// is a query per satellite and this source is mostly useful for single-satellite misses
+@Component
+@ConditionalOnProperty(name = "tle.sources.celestrak.enabled", havingValue = "true", matchIfMissing = true)
+public class CelestrakClient implements TleSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CelestrakClient.class);
+    private static final String GP_TLE_PATH = "/NORAD/elements/gp.php?CATNR=%s&FORMAT=TLE";
+
+    @Value("${celestrak.base-url:https://celestrak.org}")
+    private String baseUrl;
+
+    @Value("${tle.sources.celestrak.max-batch:10}")
+    private int maxBatch;
+
+    @Value("${tle.upstream.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${tle.upstream.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    @Override
+    public String name() {
+        return "celestrak";
+    }
+
+    @Override
+    public GpRecord fetchLatest(String satNumber) {
+        logger.info("Fetching TLE data from Celestrak: {}", satNumber);
+        List<GpRecord> records = parseTle(query(satNumber));
+        if (records.isEmpty()) {
+            throw new TleDataNotFoundException("No TLE data found for satellite: " + satNumber);
+        }
+        return records.get(0);
+    }
+
+    @Override
+    public List<GpRecord> fetchBatch(List<String> satNumbers) {
+        logger.info("Fetching TLE data from Celestrak for {} satellites", satNumbers.size());
+        List<GpRecord> records = new ArrayList<>(satNumbers.size());
+        for (String satNumber : satNumbers) {
+            records.addAll(parseTle(query(satNumber)));
+        }
+        return records;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatch;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.state() != CircuitBreaker.State.OPEN;
+    }
+
+    private String query(String satNumber) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new ExternalApiException("Celestrak is unavailable, skipping upstream request until the circuit closes");
+        }
+        try {
+            String body = restTemplate.getForObject(URI.create(baseUrl + String.format(GP_TLE_PATH, satNumber)), String.class);
+            circuitBreaker.onSuccess();
+            return body;
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onSuccess();
+            throw new ExternalApiException("Celestrak rejected the query for satellite " + satNumber + ": " + e.getStatusCode(), e);
+        } catch (RestClientException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled by a hedged fetch that another source won
+                circuitBreaker.release();
+            } else {
+                circuitBreaker.onFailure();
+            }
+            throw new ExternalApiException("Failed to fetch TLE data from Celestrak for satellite: " + satNumber, e);
+        }
+    }
+
+    // Name line followed by the two element lines, repeated; anything else (such as "No GP data found") is skipped
+    static List<GpRecord> parseTle(String body) {
+        List<GpRecord> records = new ArrayList<>();
+        if (body == null) {
+            return records;
+        }
+        String[] lines = body.split("\r?\n");
+        for (int i = 1; i + 1 < lines.length; i++) {
+            String line1 = lines[i].trim();
+            String line2 = lines[i + 1].trim();
+            if (!line1.startsWith("1 ") || !line2.startsWith("2 ")) {
+                continue;
+            }
+            TleElements elements;
+            try {
+                elements = TleElements.parse(line1, line2);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            // Space-Track ids carry no leading zeros, and stored rows are keyed the same way
+            String noradCatId = elements.satNumber().replaceFirst("^0+(?=.)", "");
+            String epoch = OrbitalElements.of(elements).getEpoch().toString();
+            records.add(new GpRecord(noradCatId, lines[i - 1].trim(), epoch, line1, line2));
+            i += 1;
+        }
+        return records;
+    }
+}
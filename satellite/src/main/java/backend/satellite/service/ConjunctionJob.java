@@ -0,0 +1,140 @@
+package backend.satellite.service;
+
+import backend.satellite.model.Conjunction;
+import backend.satellite.model.ConjunctionJobStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// State of one screening run. Results are appended by worker threads and read concurrently by any number of
+// result streams, each following the list from its own offset until the job finishes
+public final class ConjunctionJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final int maxResults;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong stepsCompleted = new AtomicLong();
+    private final List<Conjunction> results = new ArrayList<>();
+
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int objects;
+    private volatile int candidates;
+    private volatile long totalSteps;
+    private volatile boolean cancelRequested;
+    private volatile String error;
+    private boolean truncated;
+
+    ConjunctionJob(String id, int maxResults) {
+        this.id = id;
+        this.maxResults = maxResults;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED || state == State.CANCELLED;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void setWorkload(int objects, int candidates, long totalSteps) {
+        this.objects = objects;
+        this.candidates = candidates;
+        this.totalSteps = totalSteps;
+    }
+
+    void stepCompleted() {
+        stepsCompleted.incrementAndGet();
+    }
+
+    synchronized void add(Conjunction conjunction) {
+        if (results.size() < maxResults) {
+            results.add(conjunction);
+        } else {
+            truncated = true;
+        }
+        notifyAll();
+    }
+
+    synchronized void finish(State finalState, String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = finalState;
+        notifyAll();
+    }
+
+    public synchronized ConjunctionJobStatus status() {
+        long done = stepsCompleted.get();
+        return new ConjunctionJobStatus(
+                id,
+                state.name(),
+                createdAt,
+                startedAt,
+                finishedAt,
+                objects,
+                candidates,
+                done,
+                totalSteps,
+                totalSteps > 0 ? (double) done / totalSteps : 0.0,
+                results.size(),
+                truncated,
+                error);
+    }
+
+    // Writes every result as NDJSON, waiting for new ones until the job finishes
+    public void writeResults(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        int offset = 0;
+        List<Conjunction> batch;
+        while ((batch = awaitResults(offset)) != null) {
+            for (Conjunction conjunction : batch) {
+                out.write(objectMapper.writeValueAsBytes(conjunction));
+                out.write('\n');
+            }
+            out.flush();
+            offset += batch.size();
+        }
+    }
+
+    // New results after offset, an empty list on a quiet second, or null once the job is finished and drained
+    private synchronized List<Conjunction> awaitResults(int offset) throws IOException {
+        try {
+            if (offset >= results.size() && !isFinished()) {
+                wait(1_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for conjunction results");
+        }
+        if (offset >= results.size()) {
+            return isFinished() ? null : List.of();
+        }
+        return new ArrayList<>(results.subList(offset, results.size()));
+    }
+}
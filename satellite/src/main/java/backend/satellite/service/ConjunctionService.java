@@ -0,0 +1,225 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.JobNotFoundException;
+import backend.satellite.exception.JobRejectedException;
+import backend.satellite.exception.PropagationException;
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.Conjunction;
+import backend.satellite.model.ConjunctionScreeningRequest;
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleField;
+import backend.satellite.propagation.ConjunctionScreener;
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.repository.TleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Service
+public class ConjunctionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConjunctionService.class);
+
+    @Value("${tle.conjunctions.default-threshold-km:5}")
+    private double defaultThresholdKm;
+
+    @Value("${tle.conjunctions.max-threshold-km:50}")
+    private double maxThresholdKm;
+
+    @Value("${tle.conjunctions.default-step-seconds:30}")
+    private double defaultStepSeconds;
+
+    @Value("${tle.conjunctions.shell-padding-km:25}")
+    private double shellPaddingKm;
+
+    @Value("${tle.conjunctions.max-window-days:7}")
+    private long maxWindowDays;
+
+    @Value("${tle.conjunctions.max-active-jobs:4}")
+    private int maxActiveJobs;
+
+    @Value("${tle.conjunctions.max-results:100000}")
+    private int maxResults;
+
+    @Value("${tle.conjunctions.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private PropagationService propagationService;
+
+    @Autowired
+    @Qualifier("conjunctionExecutor")
+    private ThreadPoolTaskExecutor conjunctionExecutor;
+
+    private final Map<String, ConjunctionJob> jobs = new ConcurrentHashMap<>();
+
+    public synchronized ConjunctionJob submit(ConjunctionScreeningRequest request) {
+        Instant start = request.start() != null ? request.start() : Instant.now();
+        Instant end = request.end() != null ? request.end() : start.plus(Duration.ofDays(1));
+        double thresholdKm = request.thresholdKm() != null ? request.thresholdKm() : defaultThresholdKm;
+        double stepSeconds = request.stepSeconds() != null ? request.stepSeconds() : defaultStepSeconds;
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("end must be after start.");
+        }
+        if (Duration.between(start, end).toDays() >= maxWindowDays) {
+            throw new IllegalArgumentException("Screening window must be shorter than " + maxWindowDays + " days.");
+        }
+        if (!(thresholdKm > 0 && thresholdKm <= maxThresholdKm)) {
+            throw new IllegalArgumentException("Invalid thresholdKm: " + thresholdKm + ". Must be in (0, " + maxThresholdKm + "].");
+        }
+        if (!(stepSeconds >= 1 && stepSeconds <= 300)) {
+            throw new IllegalArgumentException("Invalid stepSeconds: " + stepSeconds + ". Must be between 1 and 300.");
+        }
+
+        long active = jobs.values().stream().filter(job -> !job.isFinished()).count();
+        if (active >= maxActiveJobs) {
+            throw new JobRejectedException("Too many screening jobs in progress. Try again later.");
+        }
+
+        ConjunctionJob job = new ConjunctionJob(UUID.randomUUID().toString(), maxResults);
+        jobs.put(job.id(), job);
+        conjunctionExecutor.execute(() -> run(job, request, start, end, thresholdKm, stepSeconds));
+        logger.info("Queued conjunction screening job {} from {} to {} at {} km", job.id(), start, end, thresholdKm);
+        return job;
+    }
+
+    public ConjunctionJob getJob(String id) {
+        ConjunctionJob job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException("Conjunction screening job not found: " + id);
+        }
+        return job;
+    }
+
+    public ConjunctionJob cancel(String id) {
+        ConjunctionJob job = getJob(id);
+        job.requestCancel();
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${tle.conjunctions.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(cutoff));
+    }
+
+    private void run(ConjunctionJob job, ConjunctionScreeningRequest request, Instant start, Instant end,
+                     double thresholdKm, double stepSeconds) {
+        if (job.isCancelRequested()) {
+            job.finish(ConjunctionJob.State.CANCELLED, null);
+            return;
+        }
+        job.start();
+        try {
+            Map<String, Sgp4Propagator> population = resolvePopulation(request);
+            List<String> satNumbers = new ArrayList<>(population.keySet());
+            Sgp4Propagator[] objects = population.values().toArray(new Sgp4Propagator[0]);
+            boolean[] primary = null;
+            if (request.primaries() != null && !request.primaries().isEmpty()) {
+                Set<String> primaries = new HashSet<>(request.primaries());
+                primary = new boolean[objects.length];
+                for (int i = 0; i < objects.length; i++) {
+                    primary[i] = primaries.contains(satNumbers.get(i));
+                }
+            }
+
+            ConjunctionScreener screener = new ConjunctionScreener(objects, primary, thresholdKm, shellPaddingKm, stepSeconds);
+            double startMillis = start.toEpochMilli();
+            double endMillis = end.toEpochMilli();
+            job.setWorkload(objects.length, screener.candidateCount(), screener.stepCount(startMillis, endMillis));
+            logger.info("Screening job {}: {} objects, {} after shell filtering", job.id(), objects.length, screener.candidateCount());
+
+            screener.screen(startMillis, endMillis, conjunctionExecutor, conjunctionExecutor.getMaxPoolSize(),
+                    new ConjunctionScreener.Listener() {
+                        @Override
+                        public void onApproach(ConjunctionScreener.Approach approach) {
+                            job.add(new Conjunction(
+                                    satNumbers.get(approach.first()),
+                                    satNumbers.get(approach.second()),
+                                    Instant.ofEpochMilli(Math.round(approach.tcaMillis())),
+                                    approach.missDistanceKm(),
+                                    approach.relativeSpeedKmS()));
+                        }
+
+                        @Override
+                        public void onStepCompleted() {
+                            job.stepCompleted();
+                        }
+                    },
+                    job::isCancelRequested);
+
+            job.finish(job.isCancelRequested() ? ConjunctionJob.State.CANCELLED : ConjunctionJob.State.COMPLETED, null);
+            logger.info("Screening job {} finished: {}", job.id(), job.status().state());
+        } catch (RuntimeException e) {
+            logger.error("Screening job {} failed: {}", job.id(), e.getMessage(), e);
+            job.finish(ConjunctionJob.State.FAILED, e.getMessage());
+        }
+    }
+
+    // Primaries first, then the requested ids or every stored TLE. Only stored rows are read, so a screen neither
+    // counts as a fetch nor goes upstream. Stored TLEs that cannot be propagated are skipped
+    private Map<String, Sgp4Propagator> resolvePopulation(ConjunctionScreeningRequest request) {
+        Map<String, Sgp4Propagator> population = new LinkedHashMap<>();
+        if (request.primaries() != null && !request.primaries().isEmpty()) {
+            addStored(request.primaries(), population);
+        }
+        if (request.ids() != null) {
+            addStored(request.ids(), population);
+            return population;
+        }
+        // Only the columns the propagator needs are read, through a cursor rather than as managed entities. The
+        // text is only parsed for rows the elements backfill has not reached yet
+        Set<TleField> fields = EnumSet.of(TleField.SAT_NUMBER, TleField.TLE_STRING, TleField.ELEMENTS);
+        try (Stream<TleData> catalog = tleRepository.streamAll(fields, null, null)) {
+            catalog.forEach(tleData -> add(tleData, population));
+        }
+        return population;
+    }
+
+    private void addStored(List<String> satNumbers, Map<String, Sgp4Propagator> population) {
+        Map<String, TleData> stored = new HashMap<>();
+        for (TleData tleData : tleRepository.findBySatNumberIn(satNumbers)) {
+            stored.put(tleData.getSatNumber(), tleData);
+        }
+        List<String> notFound = satNumbers.stream().filter(satNumber -> !stored.containsKey(satNumber)).toList();
+        if (!notFound.isEmpty()) {
+            throw new TleDataNotFoundException("No stored TLE data for satellites: " + String.join(", ", notFound));
+        }
+        for (String satNumber : satNumbers) {
+            add(stored.get(satNumber), population);
+        }
+    }
+
+    private void add(TleData tleData, Map<String, Sgp4Propagator> population) {
+        if (population.containsKey(tleData.getSatNumber())) {
+            return;
+        }
+        try {
+            population.put(tleData.getSatNumber(), propagationService.propagatorFor(tleData));
+        } catch (PropagationException e) {
+            logger.debug("Skipping satellite {} in screening: {}", tleData.getSatNumber(), e.getMessage());
+        }
+    }
+}
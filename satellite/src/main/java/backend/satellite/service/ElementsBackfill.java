@@ -0,0 +1,76 @@
+package backend.satellite.service;
+
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Parses the element columns for rows stored before they existed, or by an instance that did not write them.
+// Each run starts after the highest id an earlier run reached: rows below it that still have no elements hold
+// TLE text that did not parse, and are not re-read every hour. New rows get higher ids, and an upsert of an
+// existing row writes its elements itself. Once the table is filled each run is a single indexed lookup
+@Service
+@ConditionalOnProperty(name = "tle.elements.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class ElementsBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElementsBackfill.class);
+
+    @Value("${tle.elements.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private TleHistoryService tleHistoryService;
+
+    private volatile long scannedUpTo;
+
+    @Scheduled(fixedDelayString = "${tle.elements.backfill.interval-ms:3600000}",
+            initialDelayString = "${tle.elements.backfill.initial-delay-ms:5000}")
+    public void backfill() {
+        long filled = 0;
+        long unparseable = 0;
+        long afterId = scannedUpTo;
+        List<TleData> rows;
+        do {
+            rows = tleRepository.findWithoutElements(afterId, batchSize);
+            List<TleData> parsed = new ArrayList<>(rows.size());
+            for (TleData row : rows) {
+                row.setElements(OrbitalElements.fromTle(row.getTleString()));
+                if (row.getElements() != null) {
+                    parsed.add(row);
+                } else {
+                    unparseable++;
+                }
+            }
+            if (!parsed.isEmpty()) {
+                tleRepository.updateElements(parsed);
+                tleHistoryService.append(parsed);
+                // Cached copies were read without elements; drop them so propagation picks up the columns
+                parsed.forEach(row -> tleCache.invalidate(row.getSatNumber()));
+                filled += parsed.size();
+            }
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == batchSize);
+        scannedUpTo = afterId;
+
+        if (filled > 0 || unparseable > 0) {
+            logger.info("Orbital elements backfill filled {} rows, {} rows have unparseable TLE text", filled, unparseable);
+        }
+    }
+}
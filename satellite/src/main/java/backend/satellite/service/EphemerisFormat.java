@@ -0,0 +1,33 @@
+package backend.satellite.service;
+
+import java.util.Locale;
+
+public enum EphemerisFormat {
+
+    // One JSON object per line
+    NDJSON("application/x-ndjson"),
+
+    // Fixed 64-byte little-endian records: int32 satellite number, int32 status (0 or an SGP4 error code),
+    // int64 Unix time in ms, then x, y, z (km) and vx, vy, vz (km/s) as float64 in the TEME frame
+    BINARY("application/octet-stream");
+
+    static final int BINARY_RECORD_BYTES = 64;
+
+    private final String contentType;
+
+    EphemerisFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static EphemerisFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format: " + value + ". Must be ndjson or binary.");
+        }
+    }
+}
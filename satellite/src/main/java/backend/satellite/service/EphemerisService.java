@@ -0,0 +1,66 @@
+package backend.satellite.service;
+
+import backend.satellite.propagation.Sgp4Propagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class EphemerisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EphemerisService.class);
+
+    @Value("${tle.ephemeris.max-points:10000000}")
+    private long maxPoints;
+
+    @Value("${tle.ephemeris.chunk-size:1024}")
+    private int chunkSize;
+
+    @Autowired
+    private PropagationService propagationService;
+
+    @Autowired
+    @Qualifier("propagationPool")
+    private ForkJoinPool propagationPool;
+
+    // Validates the request and resolves every propagator before anything is written, so lookup and
+    // parameter errors still reach the client as regular error responses
+    public EphemerisStream prepare(List<String> satNumbers, Instant start, Instant end, Duration step,
+                                   EphemerisFormat format) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start.");
+        }
+        if (step.toMillis() < 1) {
+            throw new IllegalArgumentException("step must be at least 1 ms.");
+        }
+        long steps = Duration.between(start, end).toMillis() / step.toMillis() + 1;
+        long points = steps * satNumbers.stream().distinct().count();
+        if (points > maxPoints) {
+            throw new IllegalArgumentException("Requested " + points + " state vectors. Maximum is " + maxPoints + ".");
+        }
+
+        Map<String, Sgp4Propagator> propagators = propagationService.getPropagators(satNumbers);
+        logger.debug("Streaming {} state vectors for {} satellites as {}", points, propagators.size(), format);
+
+        return new EphemerisStream(
+                new ArrayList<>(propagators.keySet()),
+                new ArrayList<>(propagators.values()),
+                start.toEpochMilli(),
+                step.toMillis(),
+                (int) steps,
+                format,
+                chunkSize,
+                2 * propagationPool.getParallelism(),
+                propagationPool);
+    }
+}
@@ -0,0 +1,160 @@
+package backend.satellite.service;
+
+import backend.satellite.propagation.Sgp4Propagator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A prepared ephemeris job. Work is cut into (satellite, time chunk) units that are propagated and encoded in
+ * parallel, while the writing thread emits them strictly in order. Only a bounded window of encoded chunks is
+ * ever in flight, so heap use depends on the chunk size and parallelism rather than on the number of points.
+ */
+public final class EphemerisStream {
+
+    private final List<String> satNumbers;
+    private final List<Sgp4Propagator> propagators;
+    private final long startMillis;
+    private final long stepMillis;
+    private final int steps;
+    private final EphemerisFormat format;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+
+    EphemerisStream(List<String> satNumbers, List<Sgp4Propagator> propagators, long startMillis, long stepMillis,
+                    int steps, EphemerisFormat format, int chunkSize, int maxChunksInFlight, Executor executor) {
+        this.satNumbers = satNumbers;
+        this.propagators = propagators;
+        this.startMillis = startMillis;
+        this.stepMillis = stepMillis;
+        this.steps = steps;
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+    }
+
+    public EphemerisFormat format() {
+        return format;
+    }
+
+    public long points() {
+        return (long) steps * propagators.size();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        int chunksPerSatellite = (steps + chunkSize - 1) / chunkSize;
+        long totalChunks = (long) chunksPerSatellite * propagators.size();
+        // A satellite stops at its first propagation error; later chunks for it are computed but dropped
+        boolean[] failed = new boolean[propagators.size()];
+        Deque<CompletableFuture<Chunk>> window = new ArrayDeque<>(maxChunksInFlight);
+        long submitted = 0;
+
+        try {
+            while (submitted < totalChunks || !window.isEmpty()) {
+                while (submitted < totalChunks && window.size() < maxChunksInFlight) {
+                    int satellite = (int) (submitted / chunksPerSatellite);
+                    int from = (int) (submitted % chunksPerSatellite) * chunkSize;
+                    int to = Math.min(from + chunkSize, steps);
+                    window.addLast(CompletableFuture.supplyAsync(() -> encode(satellite, from, to), executor));
+                    submitted++;
+                }
+
+                Chunk chunk = join(window.removeFirst());
+                if (!failed[chunk.satellite()]) {
+                    out.write(chunk.bytes());
+                    failed[chunk.satellite()] = chunk.failed();
+                }
+            }
+            out.flush();
+        } finally {
+            window.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private Chunk encode(int satellite, int from, int to) {
+        return format == EphemerisFormat.BINARY
+                ? encodeBinary(satellite, from, to)
+                : encodeNdjson(satellite, from, to);
+    }
+
+    private Chunk encodeNdjson(int satellite, int from, int to) {
+        Sgp4Propagator propagator = propagators.get(satellite);
+        String satNumber = satNumbers.get(satellite);
+        double[] state = new double[6];
+        StringBuilder sb = new StringBuilder((to - from) * 192);
+        boolean failed = false;
+
+        for (int i = from; i < to; i++) {
+            long time = startMillis + i * stepMillis;
+            int error = propagator.propagateTo(time, state);
+            sb.append("{\"satNumber\":\"").append(satNumber)
+                    .append("\",\"t\":\"").append(Instant.ofEpochMilli(time)).append('"');
+            if (error != Sgp4Propagator.OK) {
+                sb.append(",\"error\":\"").append(PropagationService.describeError(error)).append("\"}\n");
+                failed = true;
+                break;
+            }
+            sb.append(",\"x\":").append(state[0])
+                    .append(",\"y\":").append(state[1])
+                    .append(",\"z\":").append(state[2])
+                    .append(",\"vx\":").append(state[3])
+                    .append(",\"vy\":").append(state[4])
+                    .append(",\"vz\":").append(state[5])
+                    .append("}\n");
+        }
+        return new Chunk(satellite, sb.toString().getBytes(StandardCharsets.UTF_8), failed);
+    }
+
+    private Chunk encodeBinary(int satellite, int from, int to) {
+        Sgp4Propagator propagator = propagators.get(satellite);
+        int satNumber = Integer.parseInt(satNumbers.get(satellite));
+        double[] state = new double[6];
+        ByteBuffer buffer = ByteBuffer.allocate((to - from) * EphemerisFormat.BINARY_RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        boolean failed = false;
+
+        for (int i = from; i < to; i++) {
+            long time = startMillis + i * stepMillis;
+            int error = propagator.propagateTo(time, state);
+            if (error != Sgp4Propagator.OK) {
+                Arrays.fill(state, Double.NaN);
+                failed = true;
+            }
+            buffer.putInt(satNumber).putInt(error).putLong(time);
+            for (double value : state) {
+                buffer.putDouble(value);
+            }
+            if (failed) {
+                break;
+            }
+        }
+        return new Chunk(satellite, Arrays.copyOf(buffer.array(), buffer.position()), failed);
+    }
+
+    private static Chunk join(CompletableFuture<Chunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Chunk(int satellite, byte[] bytes, boolean failed) {
+    }
+}
@@ -0,0 +1,110 @@
+package backend.satellite.service;
+
+import backend.satellite.repository.TleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class FetchCountAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchCountAggregator.class);
+
+    // Adders are never removed, so an increment can't land on an instance that a flush already dropped
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Request counts decayed by half every half-life, so recently busy satellites outrank ones that were popular
+    // long ago. Updated on flush and guarded by this
+    private final Map<String, Double> recentCounts = new HashMap<>();
+    private long recentUpdatedNanos = System.nanoTime();
+
+    @Value("${tle.fetch-count.recent-half-life-minutes:60}")
+    private long recentHalfLifeMinutes;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    public void increment(String satNumber) {
+        LongAdder adder = pending.get(satNumber);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(satNumber, key -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    public Map<String, Long> pendingCounts() {
+        Map<String, Long> snapshot = new HashMap<>();
+        pending.forEach((satNumber, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                snapshot.put(satNumber, count);
+            }
+        });
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${tle.fetch-count.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<String, Long> deltas = new HashMap<>();
+        pending.forEach((satNumber, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(satNumber, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            updateRecentCounts(deltas);
+            return;
+        }
+
+        // Recent counts take the deltas only once they are written; a failed flush re-queues them for the next one
+        try {
+            tleRepository.incrementFetchCounts(deltas);
+            updateRecentCounts(deltas);
+            logger.debug("Flushed fetch counts for {} satellites", deltas.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush fetch counts for {} satellites, will retry: {}", deltas.size(), e.getMessage());
+            deltas.forEach((satNumber, delta) -> pending.computeIfAbsent(satNumber, key -> new LongAdder()).add(delta));
+        }
+    }
+
+    public synchronized Map<String, Double> recentCounts() {
+        return new HashMap<>(recentCounts);
+    }
+
+    // Counts carried over from a previous run (see WarmSnapshot), decayed for the time since they were saved
+    public synchronized void restoreRecentCounts(Map<String, Double> counts, long ageNanos) {
+        double decay = decay(Math.max(0, ageNanos));
+        counts.forEach((satNumber, count) -> recentCounts.merge(satNumber, count * decay, Double::sum));
+        recentCounts.values().removeIf(count -> count < 0.01);
+    }
+
+    private double decay(long elapsedNanos) {
+        return Math.pow(0.5, elapsedNanos / (double) TimeUnit.MINUTES.toNanos(recentHalfLifeMinutes));
+    }
+
+    private void updateRecentCounts(Map<String, Long> deltas) {
+        long now = System.nanoTime();
+        double decay = decay(now - recentUpdatedNanos);
+        recentUpdatedNanos = now;
+        recentCounts.replaceAll((satNumber, count) -> count * decay);
+        recentCounts.values().removeIf(count -> count < 0.01);
+        deltas.forEach((satNumber, delta) -> recentCounts.merge(satNumber, delta.doubleValue(), Double::sum));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing pending fetch counts before shutdown");
+        flush();
+    }
+}
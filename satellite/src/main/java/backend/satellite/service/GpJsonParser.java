@@ -0,0 +1,86 @@
+package backend.satellite.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Single-pass reader for Space-Track/Celestrak GP JSON that keeps only the fields needed to build a TLE
+public final class GpJsonParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private GpJsonParser() {
+    }
+
+    public static void parse(InputStream inputStream, Consumer<GpRecord> consumer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            readRecords(parser, consumer);
+        }
+    }
+
+    public static List<GpRecord> parse(String json) throws IOException {
+        List<GpRecord> records = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            readRecords(parser, records::add);
+        }
+        return records;
+    }
+
+    private static void readRecords(JsonParser parser, Consumer<GpRecord> consumer) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            consumer.accept(readRecord(parser));
+            return;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array of GP records");
+        }
+
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            consumer.accept(readRecord(parser));
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected a GP record object but found " + token);
+        }
+    }
+
+    private static GpRecord readRecord(JsonParser parser) throws IOException {
+        String noradCatId = null;
+        String objectName = null;
+        String epoch = null;
+        String tleLine1 = null;
+        String tleLine2 = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "NORAD_CAT_ID" -> noradCatId = scalarText(parser);
+                case "OBJECT_NAME" -> objectName = scalarText(parser);
+                case "EPOCH" -> epoch = scalarText(parser);
+                case "TLE_LINE1" -> tleLine1 = scalarText(parser);
+                case "TLE_LINE2" -> tleLine2 = scalarText(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new GpRecord(noradCatId, objectName, epoch, tleLine1, tleLine2);
+    }
+
+    private static String scalarText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+}
@@ -0,0 +1,13 @@
+package backend.satellite.service;
+
+public record GpRecord(String noradCatId, String objectName, String epoch, String tleLine1, String tleLine2) {
+
+    public boolean isComplete() {
+        return noradCatId != null && objectName != null && tleLine1 != null && tleLine2 != null;
+    }
+
+    public String tleString() {
+        // Format as 3-line TLE (name + line1 + line2) with proper line endings
+        return objectName + "\r\n" + tleLine1 + "\r\n" + tleLine2 + "\r\n";
+    }
+}
@@ -0,0 +1,173 @@
+package backend.satellite.service;
+
+import backend.satellite.model.SatellitePass;
+import backend.satellite.propagation.GroundStation;
+import backend.satellite.propagation.PassPredictor;
+import backend.satellite.propagation.Sgp4Propagator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class PassPredictionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassPredictionService.class);
+
+    @Value("${tle.passes.bucket-hours:6}")
+    private long bucketHours;
+
+    @Value("${tle.passes.max-window-days:10}")
+    private long maxWindowDays;
+
+    @Value("${tle.passes.cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    @Autowired
+    private PropagationService propagationService;
+
+    @Autowired
+    @Qualifier("propagationPool")
+    private ForkJoinPool propagationPool;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Passes are computed per fixed time bucket, so polls with a sliding window reuse earlier buckets and only
+    // compute the one that just came into range. The TLE epoch in the key retires entries when elements change
+    private Cache<BucketKey, List<PassPredictor.Pass>> buckets;
+    private long bucketMillis;
+
+    @PostConstruct
+    void init() {
+        bucketMillis = Duration.ofHours(bucketHours).toMillis();
+        buckets = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(Duration.ofDays(1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "passes");
+    }
+
+    public List<SatellitePass> predictPasses(List<String> satNumbers, GroundStation station, double minElevation,
+                                             Instant start, Instant end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("end must be after start.");
+        }
+        if (Duration.between(start, end).toDays() >= maxWindowDays) {
+            throw new IllegalArgumentException("Pass window must be shorter than " + maxWindowDays + " days.");
+        }
+        if (!(minElevation >= 0.0 && minElevation < 90.0)) {
+            throw new IllegalArgumentException("Invalid minElevation: " + minElevation + ". Must be between 0 and 90.");
+        }
+
+        Map<String, Sgp4Propagator> propagators = propagationService.getPropagators(satNumbers);
+        long startMillis = start.toEpochMilli();
+        long endMillis = end.toEpochMilli();
+        logger.debug("Predicting passes for {} satellites between {} and {}", propagators.size(), start, end);
+
+        List<SatellitePass> result = new ArrayList<>();
+        if (propagators.size() == 1) {
+            propagators.forEach((satNumber, propagator) ->
+                    result.addAll(predict(satNumber, propagator, station, minElevation, startMillis, endMillis)));
+        } else {
+            List<CompletableFuture<List<SatellitePass>>> futures = new ArrayList<>(propagators.size());
+            propagators.forEach((satNumber, propagator) -> futures.add(CompletableFuture.supplyAsync(
+                    () -> predict(satNumber, propagator, station, minElevation, startMillis, endMillis), propagationPool)));
+            for (CompletableFuture<List<SatellitePass>> future : futures) {
+                result.addAll(join(future));
+            }
+        }
+        result.sort(Comparator.comparing(SatellitePass::aos));
+        return result;
+    }
+
+    private List<SatellitePass> predict(String satNumber, Sgp4Propagator propagator, GroundStation station,
+                                        double minElevation, long startMillis, long endMillis) {
+        List<SatellitePass> passes = new ArrayList<>();
+        PassPredictor.Pass pending = null;
+
+        for (long bucketStart = Math.floorDiv(startMillis, bucketMillis) * bucketMillis;
+             bucketStart < endMillis;
+             bucketStart += bucketMillis) {
+            long from = bucketStart;
+            BucketKey key = new BucketKey(satNumber, propagator.epochUnixMillis(), station, minElevation, from);
+            List<PassPredictor.Pass> bucket = buckets.get(key, k ->
+                    List.copyOf(new PassPredictor(propagator, station, minElevation).findPasses(from, from + bucketMillis)));
+
+            for (PassPredictor.Pass pass : bucket) {
+                // A pass cut off at the end of one bucket continues at the start of the next
+                if (pending != null && pending.losMillis() == from && pass.aosMillis() == from) {
+                    pending = merge(pending, pass);
+                    continue;
+                }
+                if (pending != null) {
+                    addIfOverlapping(passes, satNumber, pending, startMillis, endMillis);
+                }
+                pending = pass;
+            }
+        }
+        if (pending != null) {
+            addIfOverlapping(passes, satNumber, pending, startMillis, endMillis);
+        }
+        return passes;
+    }
+
+    private static PassPredictor.Pass merge(PassPredictor.Pass first, PassPredictor.Pass second) {
+        boolean firstHigher = first.maxElevation() >= second.maxElevation();
+        return new PassPredictor.Pass(
+                first.aosMillis(),
+                firstHigher ? first.tcaMillis() : second.tcaMillis(),
+                second.losMillis(),
+                Math.max(first.maxElevation(), second.maxElevation()),
+                first.aosAzimuth(),
+                second.losAzimuth());
+    }
+
+    private static void addIfOverlapping(List<SatellitePass> passes, String satNumber, PassPredictor.Pass pass,
+                                         long startMillis, long endMillis) {
+        if (pass.losMillis() < startMillis || pass.aosMillis() > endMillis) {
+            return;
+        }
+        passes.add(new SatellitePass(
+                satNumber,
+                Instant.ofEpochMilli(Math.round(pass.aosMillis())),
+                Instant.ofEpochMilli(Math.round(pass.tcaMillis())),
+                Instant.ofEpochMilli(Math.round(pass.losMillis())),
+                pass.maxElevation(),
+                pass.aosAzimuth(),
+                pass.losAzimuth()));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record BucketKey(String satNumber, double tleEpochMillis, GroundStation station,
+                             double minElevation, long bucketStart) {
+    }
+}
@@ -0,0 +1,449 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.JobRejectedException;
+import backend.satellite.exception.PropagationException;
+import backend.satellite.model.TleData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Live position streams over server-sent events. Ticks are aligned to the wall clock and every subscriber's
+// interval is a whole number of ticks, so all subscribers due on a tick share it: each distinct satellite is
+// propagated and serialized once per tick and the JSON is fanned out to every subscriber that asked for it.
+// Connections hold no thread while idle. Events are written by a small sender pool with non-blocking servlet
+// writes, so a client that stops reading never holds a sender thread: its write waits in the container until the
+// socket drains. A subscriber keeps at most one undelivered event: a newer tick replaces it (the client only ever
+// wants the latest positions), and a subscriber whose own socket stays full for max-conflated ticks in a row is
+// disconnected. Waiting behind other subscribers for a sender thread does not count against it
+@Service
+public class PositionStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionStreamService.class);
+
+    @Value("${tle.stream.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${tle.stream.max-interval-seconds:60}")
+    private int maxIntervalSeconds;
+
+    @Value("${tle.stream.max-ids:100}")
+    private int maxIds;
+
+    @Value("${tle.stream.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    // Streams are closed after this long; EventSource clients reconnect on their own
+    @Value("${tle.stream.max-duration-ms:3600000}")
+    private long maxDurationMs;
+
+    @Value("${tle.stream.max-conflated:5}")
+    private int maxConflated;
+
+    // How long a satellite whose TLE could not be loaded waits before the next attempt
+    @Value("${tle.stream.retry-ms:60000}")
+    private long retryMs;
+
+    @Autowired
+    private TleService tleService;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private PropagationService propagationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("propagationPool")
+    private ForkJoinPool propagationPool;
+
+    @Autowired
+    @Qualifier("streamSendExecutor")
+    private Executor sendExecutor;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Satellites with at least one subscriber
+    private final ConcurrentHashMap<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService ticker;
+    private long lastTick = -1;
+
+    private Timer tickTimer;
+    private Counter conflated;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("tle.stream.subscribers", subscribers, Set::size)
+                .description("Open live position streams")
+                .register(meterRegistry);
+        Gauge.builder("tle.stream.satellites", feeds, Map::size)
+                .description("Distinct satellites propagated per tick")
+                .register(meterRegistry);
+        tickTimer = Timer.builder("tle.stream.tick")
+                .description("Propagating, serializing and queueing one tick")
+                .register(meterRegistry);
+        conflated = Counter.builder("tle.stream.conflated")
+                .description("Events replaced by a newer tick before a slow subscriber took them")
+                .register(meterRegistry);
+    }
+
+    // Own thread, so the shared @Scheduled thread's long maintenance jobs never delay a tick
+    void start() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "tle-stream-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        long now = System.currentTimeMillis();
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                tick(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                logger.warn("Position stream tick failed: {}", e.getMessage(), e);
+            }
+        }, tickMs - now % tickMs, tickMs, TimeUnit.MILLISECONDS);
+        ticker = executor;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        List.copyOf(subscribers).forEach(subscriber -> subscriber.close(null));
+    }
+
+    // Starts async processing on the request and answers it as text/event-stream
+    public void subscribe(List<String> satNumbers, int intervalSeconds, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Set<String> ids = new LinkedHashSet<>(satNumbers);
+        if (ids.isEmpty() || ids.size() > maxIds) {
+            throw new IllegalArgumentException("Invalid number of satellites: " + ids.size()
+                    + ". Must be between 1 and " + maxIds + ".");
+        }
+        if (intervalSeconds < 1 || intervalSeconds > maxIntervalSeconds) {
+            throw new IllegalArgumentException("Invalid interval: " + intervalSeconds + ". Must be between 1 and "
+                    + maxIntervalSeconds + " seconds.");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new JobRejectedException("Too many open position streams, try again later.");
+        }
+        synchronized (this) {
+            if (ticker == null) {
+                start();
+            }
+        }
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(maxDurationMs);
+        long periodTicks = Math.max(1, intervalSeconds * 1000L / tickMs);
+        Subscriber subscriber = new Subscriber(async, response.getOutputStream(), List.copyOf(ids), periodTicks);
+        async.addListener(subscriber);
+
+        subscribers.add(subscriber);
+        for (String satNumber : ids) {
+            feeds.compute(satNumber, (key, feed) -> {
+                Feed registered = feed != null ? feed : new Feed();
+                registered.subscribers++;
+                return registered;
+            });
+            // Starts loading satellites that are not cached yet, so the first due tick can include them
+            resolve(satNumber);
+        }
+        // From here on every write is non-blocking; the container calls onWritePossible once the headers can go out
+        response.getOutputStream().setWriteListener(subscriber);
+        logger.debug("Opened position stream for {} satellites every {}s", ids.size(), intervalSeconds);
+    }
+
+    // A tick index that was already handled (a late run landing in the same tick) is skipped
+    void tick(long nowMillis) {
+        long index = nowMillis / tickMs;
+        if (index == lastTick) {
+            return;
+        }
+        lastTick = index;
+
+        List<Subscriber> due = subscribers.stream().filter(subscriber -> index % subscriber.periodTicks == 0).toList();
+        if (due.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Set<String> satNumbers = new HashSet<>();
+        due.forEach(subscriber -> satNumbers.addAll(subscriber.satNumbers));
+        Map<String, String> positions = positionsAt(satNumbers, Instant.ofEpochMilli(index * tickMs));
+
+        for (Subscriber subscriber : due) {
+            StringBuilder payload = new StringBuilder("[");
+            for (String satNumber : subscriber.satNumbers) {
+                String position = positions.get(satNumber);
+                if (position != null) {
+                    payload.append(payload.length() > 1 ? "," : "").append(position);
+                }
+            }
+            if (payload.length() > 1) {
+                subscriber.offer(payload.append(']').toString());
+            }
+        }
+        sample.stop(tickTimer);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Satellites without a loaded TLE, or whose orbit cannot be propagated to this time, are left out
+    private Map<String, String> positionsAt(Set<String> satNumbers, Instant time) {
+        Map<String, String> positions = new ConcurrentHashMap<>();
+        propagationPool.submit(() -> satNumbers.parallelStream().forEach(satNumber -> {
+            TleData tleData = resolve(satNumber);
+            if (tleData == null) {
+                return;
+            }
+            try {
+                positions.put(satNumber, objectMapper.writeValueAsString(
+                        propagationService.positionOf(satNumber, propagationService.propagatorFor(tleData), time)));
+            } catch (PropagationException | JsonProcessingException e) {
+                logger.debug("Skipping satellite {} in position streams: {}", satNumber, e.getMessage());
+            }
+        })).join();
+        return positions;
+    }
+
+    // Reads the TLE cache without blocking; a miss starts a load that a later tick picks up
+    private TleData resolve(String satNumber) {
+        TleData tleData = tleCache.getIfPresent(satNumber);
+        if (tleData != null) {
+            return tleData;
+        }
+        Feed feed = feeds.get(satNumber);
+        return feed != null ? feed.load(satNumber) : null;
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        for (String satNumber : subscriber.satNumbers) {
+            feeds.computeIfPresent(satNumber, (key, feed) -> --feed.subscribers == 0 ? null : feed);
+        }
+        return true;
+    }
+
+    private void disconnected(String reason) {
+        meterRegistry.counter("tle.stream.disconnects", "reason", reason).increment();
+    }
+
+    private final class Feed {
+
+        private int subscribers;
+        private CompletableFuture<TleData> loading;
+        private long retryAt;
+
+        synchronized TleData load(String satNumber) {
+            if (loading != null && (!loading.isDone()
+                    || (loading.isCompletedExceptionally() && System.currentTimeMillis() < retryAt))) {
+                return null;
+            }
+            loading = tleService.getTleDataAsync(satNumber, false);
+            loading.whenComplete((tleData, e) -> {
+                if (e != null) {
+                    synchronized (this) {
+                        retryAt = System.currentTimeMillis() + retryMs;
+                    }
+                    logger.debug("No TLE for streamed satellite {}: {}", satNumber, e.getMessage());
+                }
+            });
+            return loading.isDone() && !loading.isCompletedExceptionally() ? loading.join() : null;
+        }
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final List<String> satNumbers;
+        private final long periodTicks;
+
+        // The newest undelivered event; a tick replaces it rather than queueing behind it
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger behind = new AtomicInteger();
+        // Set while the client's socket cannot take more; the container calls onWritePossible once it can
+        private volatile boolean blocked;
+        private volatile boolean closed;
+
+        Subscriber(AsyncContext async, ServletOutputStream out, List<String> satNumbers, long periodTicks) {
+            this.async = async;
+            this.out = out;
+            this.satNumbers = satNumbers;
+            this.periodTicks = periodTicks;
+        }
+
+        void offer(String payload) {
+            if (closed) {
+                return;
+            }
+            if (pending.getAndSet(payload) != null) {
+                conflated.increment();
+                if (blocked && behind.incrementAndGet() > maxConflated) {
+                    close("slow");
+                    return;
+                }
+            }
+            scheduleDrain();
+        }
+
+        // A full sender queue leaves the event pending; the next tick retries
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(() -> {
+                    draining.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        // Runs on a sender thread, or on a container thread once a blocked client can take data again. Writes are
+        // only made while the stream is ready, so neither ever waits on the client
+        private synchronized void drain() {
+            if (closed) {
+                return;
+            }
+            try {
+                // Pushes out whatever a blocked write left buffered (and the headers on the first call)
+                boolean ready = out.isReady();
+                if (ready) {
+                    out.flush();
+                    ready = out.isReady();
+                }
+                String payload;
+                while (ready && (payload = pending.getAndSet(null)) != null) {
+                    out.write(("event:positions\ndata:" + payload + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    ready = out.isReady();
+                    if (ready) {
+                        out.flush();
+                        ready = out.isReady();
+                    }
+                }
+                blocked = !ready;
+                if (ready) {
+                    behind.set(0);
+                }
+            } catch (IOException | IllegalStateException e) {
+                failed();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            failed();
+        }
+
+        private void failed() {
+            if (unregister(this)) {
+                disconnected("write-failed");
+            }
+            complete();
+        }
+
+        void close(String reason) {
+            if (unregister(this) && reason != null) {
+                disconnected(reason);
+            }
+            complete();
+        }
+
+        // Writes never block, so this waits at most for one in-progress drain to copy its event into the buffer
+        private synchronized void complete() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container after an error or timeout
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed = true;
+            unregister(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close("timeout");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
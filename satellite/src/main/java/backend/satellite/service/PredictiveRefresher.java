@@ -0,0 +1,196 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Re-fetches the most popular satellites shortly before their records go stale, so requests for them keep
+// hitting the cache instead of being served a stale record while it refreshes. Popularity is the recent
+// (decayed) request count, topped up from lifetime fetch counts; due satellites are fetched most urgent first,
+// in upstream-chunk-size batches, with at most max-calls-per-hour upstream calls
+@Service
+@ConditionalOnProperty(name = "tle.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class PredictiveRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictiveRefresher.class);
+
+    @Value("${tle.ingest.enabled:false}")
+    private boolean ingestEnabled;
+
+    @Value("${tle.refresh.top-n:500}")
+    private int topN;
+
+    // Should exceed the run interval, so every hot satellite is seen at least once before it goes stale
+    @Value("${tle.refresh.lead-minutes:30}")
+    private long leadMinutes;
+
+    @Value("${tle.refresh.max-calls-per-hour:12}")
+    private int maxCallsPerHour;
+
+    @Value("${tle.batch.upstream-chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    private TleService tleService;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private FetchCountAggregator fetchCountAggregator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("upstreamExecutor")
+    private Executor upstreamExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TokenBucket budget;
+    private Timer lagTimer;
+
+    @PostConstruct
+    void init() {
+        budget = new TokenBucket(maxCallsPerHour, Duration.ofHours(1));
+        lagTimer = Timer.builder("tle.refresh.lag")
+                .description("How long after its record went stale a hot satellite was refreshed (0 when ahead)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // Requests that would have been served a stale record against those that were
+        Gauge.builder("tle.refresh.misses.avoided.ratio", meterRegistry, registry -> {
+                    double avoided = registry.counter("tle.refresh.misses.avoided").count();
+                    double missed = registry.counter("tle.stale.served").count();
+                    return avoided + missed == 0 ? 0 : avoided / (avoided + missed);
+                })
+                .register(meterRegistry);
+    }
+
+    // Only hands the run to the upstream executor: a refresh waiting on retries or the rate limiter must not hold
+    // the scheduler thread that the fetch-count flush and the maintenance jobs share. A run still in progress
+    // when the next one is due is not overlapped
+    @Scheduled(fixedDelayString = "${tle.refresh.interval-ms:300000}",
+            initialDelayString = "${tle.refresh.initial-delay-ms:60000}")
+    public void refresh() {
+        // With catalog ingest enabled every record is refreshed by the ingest job
+        if (ingestEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            upstreamExecutor.execute(() -> {
+                try {
+                    refreshDue();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            logger.warn("Predictive refresh skipped, the upstream executor is saturated");
+        }
+    }
+
+    void refreshDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TleData> due = dueSatellites(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int refreshed = 0;
+        int deferred = 0;
+        for (int start = 0; start < due.size(); start += chunkSize) {
+            List<TleData> chunk = due.subList(start, Math.min(start + chunkSize, due.size()));
+            if (budget.reserve(0) < 0) {
+                deferred = due.size() - start;
+                break;
+            }
+            Map<String, LocalDateTime> staleAt = new LinkedHashMap<>();
+            chunk.forEach(tleData -> staleAt.put(tleData.getSatNumber(), TleService.staleAt(tleData)));
+            try {
+                for (TleData tleData : tleService.refreshAhead(staleAt)) {
+                    Duration lag = Duration.between(staleAt.get(tleData.getSatNumber()), LocalDateTime.now());
+                    lagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+                    refreshed++;
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("tle.refresh.predicted", "outcome", "failure").increment(chunk.size());
+                logger.warn("Predictive refresh of {} satellites failed: {}", chunk.size(), e.getMessage());
+            }
+        }
+        meterRegistry.counter("tle.refresh.predicted", "outcome", "success").increment(refreshed);
+        meterRegistry.counter("tle.refresh.predicted", "outcome", "deferred").increment(deferred);
+        logger.info("Predictive refresh: {} of {} due satellites refreshed, {} deferred by the upstream budget",
+                refreshed, due.size(), deferred);
+    }
+
+    // Hot satellites whose record goes stale within the lead time (or already has), most urgent first
+    List<TleData> dueSatellites(LocalDateTime now) {
+        Map<String, TleData> records = new HashMap<>();
+        Set<String> hot = new LinkedHashSet<>();
+        fetchCountAggregator.recentCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(topN)
+                .forEach(entry -> hot.add(entry.getKey()));
+        // Satellites that are popular overall but quiet right now fill the remaining places
+        if (hot.size() < topN) {
+            for (TleData tleData : tleRepository.findMostFetched(topN)) {
+                if (hot.size() >= topN) {
+                    break;
+                }
+                if (hot.add(tleData.getSatNumber())) {
+                    records.put(tleData.getSatNumber(), tleData);
+                }
+            }
+        }
+
+        List<String> unread = new ArrayList<>();
+        for (String satNumber : hot) {
+            if (!records.containsKey(satNumber)) {
+                TleData cached = tleCache.getIfPresent(satNumber);
+                if (cached != null) {
+                    records.put(satNumber, cached);
+                } else {
+                    unread.add(satNumber);
+                }
+            }
+        }
+        if (!unread.isEmpty()) {
+            tleRepository.findBySatNumberIn(unread).forEach(tleData -> records.put(tleData.getSatNumber(), tleData));
+        }
+
+        LocalDateTime horizon = now.plusMinutes(leadMinutes);
+        return records.values().stream()
+                .filter(tleData -> TleService.staleAt(tleData).isBefore(horizon))
+                .sorted(Comparator.comparing(TleService::staleAt))
+                .toList();
+    }
+}
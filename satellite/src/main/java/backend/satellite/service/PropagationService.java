@@ -0,0 +1,139 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.PropagationException;
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.SatellitePosition;
+import backend.satellite.model.StateVector;
+import backend.satellite.model.TleBatchResponse;
+import backend.satellite.model.TleData;
+import backend.satellite.propagation.Frames;
+import backend.satellite.propagation.Sgp4Propagator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class PropagationService {
+
+    @Value("${tle.propagator.cache.max-size:50000}")
+    private long maxSize;
+
+    @Autowired
+    private TleService tleService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Initialized propagators keyed by satellite number. Each entry remembers the element epoch (or the TLE text
+    // for rows without elements) it was built from, so a refreshed TLE replaces the propagator on the next
+    // lookup without explicit invalidation
+    private Cache<String, CachedPropagator> propagators;
+
+    @PostConstruct
+    void init() {
+        propagators = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, propagators, "sgp4");
+    }
+
+    public SatellitePosition getPosition(String satNumber, Instant time) {
+        return positionOf(satNumber, getPropagator(satNumber), time);
+    }
+
+    public SatellitePosition positionOf(String satNumber, Sgp4Propagator propagator, Instant time) {
+        double[] teme = new double[6];
+        int error = propagator.propagateTo(time.toEpochMilli(), teme);
+        if (error != Sgp4Propagator.OK) {
+            throw new PropagationException("Cannot propagate satellite " + satNumber + " to " + time + ": "
+                    + describeError(error));
+        }
+
+        double[] ecef = new double[6];
+        double[] lla = new double[3];
+        Frames.temeToEcef(teme, Frames.gmst(Frames.julianDate(time.toEpochMilli())), ecef);
+        Frames.ecefToGeodetic(ecef, lla);
+
+        return new SatellitePosition(
+                satNumber,
+                time,
+                Instant.ofEpochMilli(Math.round(propagator.epochUnixMillis())),
+                StateVector.of(teme),
+                StateVector.of(ecef),
+                lla[0],
+                lla[1],
+                lla[2]);
+    }
+
+    public Sgp4Propagator getPropagator(String satNumber) {
+        return propagatorFor(tleService.getTleData(satNumber, false));
+    }
+
+    // Resolves every satellite through the batch TLE path, in request order with duplicates removed. Like
+    // getPropagator, the reads do not count toward fetchCount
+    public Map<String, Sgp4Propagator> getPropagators(List<String> satNumbers) {
+        TleBatchResponse batch = tleService.getTleDataBatch(satNumbers, false);
+        if (!batch.notFound().isEmpty()) {
+            throw new TleDataNotFoundException("No TLE data found for satellites: " + String.join(", ", batch.notFound()));
+        }
+        Map<String, Sgp4Propagator> result = new LinkedHashMap<>();
+        for (TleData tleData : batch.data()) {
+            result.put(tleData.getSatNumber(), propagatorFor(tleData));
+        }
+        return result;
+    }
+
+    // Built from the stored element columns when present, so the hot path never parses the TLE text; rows
+    // that predate the columns fall back to parsing
+    public Sgp4Propagator propagatorFor(TleData tleData) {
+        String satNumber = tleData.getSatNumber();
+        OrbitalElements elements = tleData.getElements();
+        Object version = elements != null ? elements.getEpoch() : tleData.getTleString();
+
+        CachedPropagator cached = propagators.getIfPresent(satNumber);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.propagator();
+        }
+
+        Sgp4Propagator propagator;
+        try {
+            propagator = elements != null
+                    ? new Sgp4Propagator(elements.toTleElements(satNumber))
+                    : Sgp4Propagator.fromTle(tleData.getTleString());
+        } catch (IllegalArgumentException e) {
+            throw new PropagationException("Stored TLE for satellite " + satNumber + " cannot be parsed", e);
+        }
+        if (propagator.initError() != Sgp4Propagator.OK) {
+            throw new PropagationException("Stored TLE for satellite " + satNumber + " cannot be propagated: "
+                    + describeError(propagator.initError()));
+        }
+        propagators.put(satNumber, new CachedPropagator(version, propagator));
+        return propagator;
+    }
+
+    static String describeError(int error) {
+        return switch (error) {
+            case Sgp4Propagator.ERROR_ECCENTRICITY -> "mean eccentricity out of range";
+            case Sgp4Propagator.ERROR_MEAN_MOTION -> "mean motion is negative";
+            case Sgp4Propagator.ERROR_PERTURBED_ECCENTRICITY -> "perturbed eccentricity out of range";
+            case Sgp4Propagator.ERROR_SEMI_LATUS_RECTUM -> "semi-latus rectum is negative";
+            case Sgp4Propagator.ERROR_DECAYED -> "orbit has decayed";
+            default -> "error code " + error;
+        };
+    }
+
+    private record CachedPropagator(Object version, Sgp4Propagator propagator) {
+    }
+}
@@ -0,0 +1,206 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// GP queries against Space-Track. Kept apart from TleService so calls go through the retry proxy, and
+// guarded by a circuit breaker so an outage fails fast instead of every miss sitting through retries
+@Component
+public class SpaceTrackClient implements TleSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpaceTrackClient.class);
+    private static final String SPACETRACK_JSON_PATH = "/basicspacedata/query/class/gp/NORAD_CAT_ID/%s/orderby/EPOCH%%20desc/limit/1/format/json";
+    private static final String SPACETRACK_BATCH_JSON_PATH = "/basicspacedata/query/class/gp/NORAD_CAT_ID/%s/format/json";
+
+    @Value("${tle.upstream.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${tle.upstream.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Autowired
+    private SpaceTrackSession spaceTrackSession;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    private CircuitBreaker circuitBreaker;
+    private Counter circuitRejections;
+    private Timer parseTimer;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+        Gauge.builder("spacetrack.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Upstream circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        circuitRejections = Counter.builder("spacetrack.circuit.rejections")
+                .description("Upstream requests rejected while the circuit was open")
+                .register(meterRegistry);
+        parseTimer = Timer.builder("spacetrack.parse")
+                .description("Streaming GP response parse time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "spacetrack";
+    }
+
+    // Latest element set for one satellite. Transport errors and 5xx responses are retried; a 4xx answer would
+    // only be repeated, so it is not retried and costs a single rate-limit permit
+    @Override
+    @Retryable(
+        retryFor = {RestClientException.class},
+        noRetryFor = {HttpClientErrorException.class},
+        maxAttemptsExpression = "${tle.upstream.retry.max-attempts:3}",
+        backoff = @Backoff(delayExpression = "${tle.upstream.retry.delay-ms:2000}", multiplier = 2,
+                maxDelayExpression = "${tle.upstream.retry.max-delay-ms:10000}"),
+        recover = "recoverLatest"
+    )
+    public GpRecord fetchLatest(String satNumber) {
+        logger.info("Fetching TLE data from Space-Track: {}", satNumber);
+        List<GpRecord> records = execute("latest", String.format(SPACETRACK_JSON_PATH, satNumber),
+                response -> readGpRecords(response.getBody()));
+        if (records.isEmpty()) {
+            throw new TleDataNotFoundException("No TLE data found for satellite: " + satNumber);
+        }
+        return records.get(0);
+    }
+
+    // Current element sets for up to one upstream chunk of satellites; ids Space-Track does not know are absent
+    @Override
+    @Retryable(
+        retryFor = {RestClientException.class},
+        noRetryFor = {HttpClientErrorException.class},
+        maxAttemptsExpression = "${tle.upstream.retry.max-attempts:3}",
+        backoff = @Backoff(delayExpression = "${tle.upstream.retry.delay-ms:2000}", multiplier = 2,
+                maxDelayExpression = "${tle.upstream.retry.max-delay-ms:10000}"),
+        recover = "recoverBatch"
+    )
+    public List<GpRecord> fetchBatch(List<String> satNumbers) {
+        logger.info("Fetching TLE data from Space-Track for {} satellites", satNumbers.size());
+        return execute("batch", String.format(SPACETRACK_BATCH_JSON_PATH, String.join(",", satNumbers)),
+                response -> readGpRecords(response.getBody()));
+    }
+
+    // Non-retryable failures (not found, parse errors, open circuit) pass through unchanged
+    @Recover
+    GpRecord recoverLatest(RuntimeException e, String satNumber) {
+        if (e instanceof HttpClientErrorException) {
+            logger.error("Space-Track rejected the request for satellite: {}. Error: {}", satNumber, e.getMessage());
+            throw new ExternalApiException("Space-Track rejected the request for satellite: " + satNumber, e);
+        }
+        if (e instanceof RestClientException) {
+            logger.error("All retry attempts exhausted for satellite: {}. Error: {}", satNumber, e.getMessage());
+            throw new ExternalApiException("Failed to fetch TLE data from Space-Track after multiple retries for satellite: " + satNumber, e);
+        }
+        throw e;
+    }
+
+    @Recover
+    List<GpRecord> recoverBatch(RuntimeException e, List<String> satNumbers) {
+        if (e instanceof HttpClientErrorException) {
+            logger.error("Space-Track rejected a batch of {} satellites. Error: {}", satNumbers.size(), e.getMessage());
+            throw new ExternalApiException("Space-Track rejected the request for " + satNumbers.size() + " satellites", e);
+        }
+        if (e instanceof RestClientException) {
+            logger.error("All retry attempts exhausted for a batch of {} satellites. Error: {}", satNumbers.size(), e.getMessage());
+            throw new ExternalApiException("Failed to fetch TLE data from Space-Track for " + satNumbers.size() + " satellites", e);
+        }
+        throw e;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.state() != CircuitBreaker.State.OPEN;
+    }
+
+    @Override
+    public boolean hasSpareCapacity() {
+        return spaceTrackSession.hasSparePermits();
+    }
+
+    // One attempt; retries show up as separate spacetrack.fetch observations
+    private <T> T execute(String query, String path, ResponseExtractor<T> extractor) {
+        if (!circuitBreaker.tryAcquire()) {
+            circuitRejections.increment();
+            throw new ExternalApiException("Space-Track is unavailable, skipping upstream request until the circuit closes");
+        }
+        try {
+            T result = Observation.createNotStarted("spacetrack.fetch", observationRegistry)
+                    .lowCardinalityKeyValue("query", query)
+                    .observe(() -> spaceTrackSession.execute(path, extractor));
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled by a hedged fetch that another source won; says nothing about upstream health
+                circuitBreaker.release();
+            } else if (isUpstreamFailure(e) || isUpstreamFailure(e.getCause())) {
+                logger.warn("Space-Track request failed: {}", e.getMessage());
+                circuitBreaker.onFailure();
+            } else if (e instanceof HttpClientErrorException) {
+                // The server answered; a rejected query says nothing about its health
+                circuitBreaker.onSuccess();
+            } else {
+                // Rate limiting or a bad payload: no verdict on upstream health
+                circuitBreaker.release();
+            }
+            throw e;
+        }
+    }
+
+    // Transport errors and 5xx responses, including those wrapped by a failed login
+    private static boolean isUpstreamFailure(Throwable e) {
+        return e instanceof RestClientException && !(e instanceof HttpClientErrorException);
+    }
+
+    private List<GpRecord> readGpRecords(InputStream body) throws IOException {
+        List<GpRecord> records = new ArrayList<>();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            GpJsonParser.parse(body, record -> {
+                if (record.isComplete()) {
+                    records.add(record);
+                }
+            });
+        } catch (JsonProcessingException e) {
+            // Malformed JSON is not a transport failure, so keep it out of the RestClientException retry path
+            logger.error("Error parsing Space-Track JSON: {}", e.getMessage());
+            throw new ExternalApiException("Failed to parse TLE data from Space-Track", e);
+        } finally {
+            // Includes reading the body off the socket, since parsing streams it
+            sample.stop(parseTimer);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,204 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Component
+public class SpaceTrackSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpaceTrackSession.class);
+    private static final String LOGIN_PATH = "/ajaxauth/login";
+
+    @Value("${spacetrack.base-url:https://www.space-track.org}")
+    private String baseUrl;
+
+    @Value("${spacetrack.username:}")
+    private String spacetrackUsername;
+
+    @Value("${spacetrack.password:}")
+    private String spacetrackPassword;
+
+    @Value("${spacetrack.session-ttl-minutes:90}")
+    private long sessionTtlMinutes;
+
+    @Value("${spacetrack.rate-limit.per-minute:30}")
+    private int requestsPerMinute;
+
+    @Value("${spacetrack.rate-limit.per-hour:300}")
+    private int requestsPerHour;
+
+    @Value("${spacetrack.rate-limit.max-wait-seconds:30}")
+    private long maxWaitSeconds;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    private final ReentrantLock loginLock = new ReentrantLock();
+    private volatile String cookie;
+    private volatile Instant cookieExpiresAt = Instant.EPOCH;
+    private TokenBucket minuteBucket;
+    private TokenBucket hourBucket;
+
+    @PostConstruct
+    void init() {
+        minuteBucket = new TokenBucket(requestsPerMinute, Duration.ofMinutes(1));
+        hourBucket = new TokenBucket(requestsPerHour, Duration.ofHours(1));
+    }
+
+    // GETs a Space-Track query path, renewing the session once if the server rejects the cookie
+    public String get(String path) {
+        return execute(path, response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // Streaming variant for large responses; the extractor reads the body before the connection is released
+    public <T> T execute(String path, ResponseExtractor<T> extractor) {
+        String activeCookie = currentCookie();
+        try {
+            return exchange(path, activeCookie, extractor);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            logger.info("Space-Track session rejected, logging in again");
+            invalidate(activeCookie);
+            return exchange(path, currentCookie(), extractor);
+        }
+    }
+
+    String currentCookie() {
+        String activeCookie = cookie;
+        if (activeCookie != null && Instant.now().isBefore(cookieExpiresAt)) {
+            return activeCookie;
+        }
+
+        loginLock.lock();
+        try {
+            // Another thread may have renewed the session while this one waited for the lock
+            if (cookie != null && Instant.now().isBefore(cookieExpiresAt)) {
+                return cookie;
+            }
+            cookie = Observation.createNotStarted("spacetrack.login", observationRegistry).observe(this::login);
+            cookieExpiresAt = Instant.now().plus(Duration.ofMinutes(sessionTtlMinutes));
+            return cookie;
+        } finally {
+            loginLock.unlock();
+        }
+    }
+
+    // True when a request could go out now without waiting for the rate limit, counting the login an expired
+    // session needs first
+    boolean hasSparePermits() {
+        int needed = cookie != null && Instant.now().isBefore(cookieExpiresAt) ? 1 : 2;
+        return minuteBucket.hasTokens(needed) && hourBucket.hasTokens(needed);
+    }
+
+    private void invalidate(String rejectedCookie) {
+        loginLock.lock();
+        try {
+            if (rejectedCookie.equals(cookie)) {
+                cookie = null;
+            }
+        } finally {
+            loginLock.unlock();
+        }
+    }
+
+    private <T> T exchange(String path, String sessionCookie, ResponseExtractor<T> extractor) {
+        acquirePermit();
+        return restTemplate.execute(URI.create(baseUrl + path), HttpMethod.GET,
+                request -> request.getHeaders().set(HttpHeaders.COOKIE, sessionCookie), extractor);
+    }
+
+    private String login() {
+        acquirePermit();
+        try {
+            logger.info("Authenticating with Space-Track");
+            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+            formData.add("identity", spacetrackUsername);
+            formData.add("password", spacetrackPassword);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
+
+            ResponseEntity<String> response = restTemplate.postForEntity(URI.create(baseUrl + LOGIN_PATH), request, String.class);
+
+            // Keep only name=value pairs; attributes such as Path or Expires are not valid in a Cookie header
+            List<String> cookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+            if (cookies != null && !cookies.isEmpty()) {
+                logger.debug("Space-Track authentication successful");
+                return cookies.stream()
+                        .map(setCookie -> setCookie.split(";", 2)[0].trim())
+                        .collect(Collectors.joining("; "));
+            }
+
+            throw new ExternalApiException("Failed to authenticate with Space-Track: No cookie received");
+        } catch (ExternalApiException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Space-Track authentication failed: {}", e.getMessage());
+            throw new ExternalApiException("Failed to authenticate with Space-Track", e);
+        }
+    }
+
+    // An interrupted caller (a hedged fetch another source already answered) takes no permit, and one interrupted
+    // while waiting for its permit hands it back
+    private void acquirePermit() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ExternalApiException("Interrupted before a Space-Track request");
+        }
+        long maxWaitNanos = TimeUnit.SECONDS.toNanos(maxWaitSeconds);
+        long minuteWait = minuteBucket.reserve(maxWaitNanos);
+        if (minuteWait < 0) {
+            throw new ExternalApiException("Space-Track request rate limit reached, try again later");
+        }
+        long hourWait = hourBucket.reserve(maxWaitNanos);
+        if (hourWait < 0) {
+            minuteBucket.refund();
+            throw new ExternalApiException("Space-Track request rate limit reached, try again later");
+        }
+
+        long waitNanos = Math.max(minuteWait, hourWait);
+        if (waitNanos > 0) {
+            logger.debug("Waiting {}ms for Space-Track rate limit", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            Observation.createNotStarted("spacetrack.rate-limit.wait", observationRegistry).observe(() -> {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    minuteBucket.refund();
+                    hourBucket.refund();
+                    throw new ExternalApiException("Interrupted while waiting for Space-Track rate limit", e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.model.TleData;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+@Component
+public class TleCache {
+
+    @Value("${tle.cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${tle.cache.min-ttl-seconds:60}")
+    private long minTtlSeconds;
+
+    @Autowired
+    @Qualifier("upstreamExecutor")
+    private Executor upstreamExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncCache<String, TleData> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new StalenessExpiry(Duration.ofSeconds(minTtlSeconds)))
+                .executor(upstreamExecutor)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tle");
+    }
+
+    // Concurrent callers for the same satellite share one in-flight load; failed loads are not cached
+    public TleData get(String satNumber, Function<String, TleData> loader) {
+        try {
+            return cache.get(satNumber, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalApiException("Failed to load TLE data for satellite: " + satNumber, e.getCause());
+        }
+    }
+
+    // Non-blocking variant: the caller's thread is released while a miss loads on the upstream executor
+    public CompletableFuture<TleData> getAsync(String satNumber, Function<String, TleData> loader) {
+        return cache.get(satNumber, loader);
+    }
+
+    // Only completed loads count; an in-flight or failed load is reported as absent
+    public TleData getIfPresent(String satNumber) {
+        CompletableFuture<TleData> future = cache.getIfPresent(satNumber);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    public void put(TleData tleData) {
+        cache.put(tleData.getSatNumber(), CompletableFuture.completedFuture(tleData));
+    }
+
+    public void invalidate(String satNumber) {
+        cache.synchronous().invalidate(satNumber);
+    }
+
+    // Entries live until the stored record crosses the CACHE_HOURS staleness window. Records that are
+    // already stale but still served (e.g. catalog ingest mode) are kept for a short minimum TTL instead
+    private static class StalenessExpiry implements Expiry<String, TleData> {
+
+        private final long minTtlNanos;
+
+        StalenessExpiry(Duration minTtl) {
+            this.minTtlNanos = minTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TleData value, long currentTime) {
+            Duration remaining = Duration.between(LocalDateTime.now(), TleService.staleAt(value));
+            return Math.max(minTtlNanos, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TleData value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TleData value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleField;
+import backend.satellite.repository.TleRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Writes the stored catalog to the response in keyset pages of plain rows, so the full table is never
+// materialized as entities and no pooled connection is held while a slow client reads
+@Service
+public class TleExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TleExportService.class);
+
+    public enum Format {
+        JSON("application/json"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format parse(String format) {
+            if (format == null || format.isBlank() || format.equalsIgnoreCase("json")) {
+                return JSON;
+            }
+            if (format.equalsIgnoreCase("ndjson")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Invalid format: " + format + ". Must be json or ndjson.");
+        }
+    }
+
+    public record Page(Long nextAfter, StreamingResponseBody body) {
+    }
+
+    @Value("${tle.all.max-page-size:5000}")
+    private int maxPageSize;
+
+    @Value("${tle.export.page-size:1000}")
+    private int exportPageSize;
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Without a limit the whole catalog after the cursor is streamed; the queries run as the body is written
+    public StreamingResponseBody exportAll(Set<TleField> fields, Long afterId, Format format) {
+        logger.debug("Streaming TLE data after id {} as {}", afterId, format);
+        Set<TleField> selected = withId(fields);
+        return out -> write(new CatalogIterator(selected, afterId), fields, format, out, null, false);
+    }
+
+    // A page is read eagerly (one extra row tells whether another page follows) so the next cursor can go in a header
+    public Page exportPage(Set<TleField> fields, Long afterId, int limit, Format format) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Invalid limit: " + limit + ". Must be between 1 and " + maxPageSize + ".");
+        }
+        List<TleData> rows = readPage(withId(fields), afterId, limit + 1);
+        Long nextAfter = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextAfter = rows.get(limit - 1).getId();
+        }
+        List<TleData> page = rows;
+        Long next = nextAfter;
+        logger.debug("Serving page of {} TLE records after id {}, next cursor {}", page.size(), afterId, next);
+        return new Page(next, out -> write(page.iterator(), fields, format, out, next, true));
+    }
+
+    // The cursor is the id, so it is always read even when not selected for output
+    private static Set<TleField> withId(Set<TleField> fields) {
+        Set<TleField> selected = EnumSet.copyOf(fields);
+        selected.add(TleField.ID);
+        return selected;
+    }
+
+    // Each page is read in full before any of it is written, which returns the connection to the pool
+    private List<TleData> readPage(Set<TleField> fields, Long afterId, int limit) {
+        try (Stream<TleData> rows = tleRepository.streamAll(fields, afterId, limit)) {
+            return rows.toList();
+        }
+    }
+
+    void write(Iterator<TleData> rows, Set<TleField> fields, Format format, OutputStream out,
+               Long nextAfter, boolean paged) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (format == Format.NDJSON) {
+                generator.setRootValueSeparator(null);
+                while (rows.hasNext()) {
+                    writeRow(generator, rows.next(), fields);
+                    generator.writeRaw('\n');
+                }
+                return;
+            }
+            if (paged) {
+                generator.writeStartObject();
+                generator.writeFieldName("data");
+            }
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                writeRow(generator, rows.next(), fields);
+            }
+            generator.writeEndArray();
+            if (paged) {
+                generator.writeObjectField("nextAfter", nextAfter);
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private void writeRow(JsonGenerator generator, TleData row, Set<TleField> fields) throws IOException {
+        generator.writeStartObject();
+        for (TleField field : fields) {
+            generator.writeFieldName(field.jsonName());
+            switch (field) {
+                case ID -> generator.writeObject(row.getId());
+                case SAT_NUMBER -> generator.writeString(row.getSatNumber());
+                case TLE_STRING -> generator.writeString(row.getTleString());
+                // Through the mapper so dates keep the same representation as the entity endpoints
+                case LAST_UPDATED -> generator.writeObject(row.getLastUpdated());
+                case FETCH_COUNT -> generator.writeNumber(row.getFetchCount());
+                case ELEMENTS -> generator.writeObject(row.getElements());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    // Reads the next page of export-page-size rows once the previous one has been written
+    private final class CatalogIterator implements Iterator<TleData> {
+
+        private final Set<TleField> fields;
+        private Long afterId;
+        private Iterator<TleData> page = Collections.emptyIterator();
+        private boolean lastPage;
+
+        CatalogIterator(Set<TleField> fields, Long afterId) {
+            this.fields = fields;
+            this.afterId = afterId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !lastPage) {
+                List<TleData> rows = readPage(fields, afterId, exportPageSize);
+                lastPage = rows.size() < exportPageSize;
+                if (!rows.isEmpty()) {
+                    afterId = rows.get(rows.size() - 1).getId();
+                }
+                page = rows.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public TleData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+}
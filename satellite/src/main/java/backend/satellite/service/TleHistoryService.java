@@ -0,0 +1,304 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.HistoricalTle;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleHistory;
+import backend.satellite.repository.TleHistoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Append-only element set history with epoch-nearest lookup. Lookups binary-search an in-memory index of
+// each satellite's epochs and then read a single row by primary key. Maintenance works on epoch ranges
+// through the epoch index: retention drops what is older than retention-days, and compaction thins history
+// older than full-resolution-days to the first element set per satellite per UTC day
+@Service
+public class TleHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TleHistoryService.class);
+
+    // 0 keeps history forever
+    @Value("${tle.history.retention-days:1825}")
+    private int retentionDays;
+
+    @Value("${tle.history.full-resolution-days:90}")
+    private int fullResolutionDays;
+
+    // Days behind the full-resolution horizon re-checked on every run, so missed runs are caught up
+    @Value("${tle.history.compaction.lookback-days:3}")
+    private int compactionLookbackDays;
+
+    @Value("${tle.history.retention.batch-size:10000}")
+    private int deleteBatchSize;
+
+    // Upper bound on epochs held by the index across all satellites (8 bytes each)
+    @Value("${tle.history.index.max-epochs:5000000}")
+    private long indexMaxEpochs;
+
+    // GP history JSON (optionally .gz) imported once at startup, e.g. a Space-Track gp_history bulk download
+    @Value("${tle.history.import.file:}")
+    private String importFile;
+
+    @Value("${tle.history.import.batch-size:1000}")
+    private int importBatchSize;
+
+    @Autowired
+    private TleHistoryRepository historyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Ascending UTC epochs in microseconds per satellite, loaded on first lookup and weighed by length
+    private Cache<String, long[]> epochIndex;
+
+    @PostConstruct
+    void init() {
+        epochIndex = Caffeine.newBuilder()
+                .maximumWeight(indexMaxEpochs)
+                .weigher((String satNumber, long[] epochs) -> Math.max(1, epochs.length))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, epochIndex, "tle-history-index");
+    }
+
+    // Records stored element sets; rows whose text could not be parsed have no epoch and are left out.
+    // A failure is logged rather than thrown so it never fails the fetch that produced the rows
+    public void append(List<TleData> stored) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TleHistory> entries = new ArrayList<>(stored.size());
+        for (TleData tleData : stored) {
+            if (tleData.getElements() != null) {
+                entries.add(entry(tleData.getSatNumber(), tleData.getElements().getEpoch(), tleData.getTleString(), now));
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            historyRepository.appendAll(entries);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to record {} element sets in the history: {}", entries.size(), e.getMessage());
+            return;
+        }
+        // Loaded satellites get the new epoch in place; the rest read it from the table on first lookup
+        for (TleHistory entry : entries) {
+            long epoch = micros(entry.getEpoch());
+            epochIndex.asMap().computeIfPresent(entry.getSatNumber(), (satNumber, epochs) -> insertSorted(epochs, epoch));
+        }
+    }
+
+    public HistoricalTle findNearest(String satNumber, Instant at) {
+        long target = micros(LocalDateTime.ofInstant(at, ZoneOffset.UTC));
+        TleHistory entry = findNearestEntry(satNumber, target);
+        if (entry == null) {
+            // Removed by maintenance since the index was loaded, so the index is re-read once
+            epochIndex.invalidate(satNumber);
+            entry = findNearestEntry(satNumber, target);
+        }
+        if (entry == null) {
+            throw new TleDataNotFoundException("No TLE history for satellite: " + satNumber);
+        }
+        return new HistoricalTle(satNumber, entry.getEpoch(), entry.getTleString(),
+                OrbitalElements.fromTle(entry.getTleString()), entry.getRecordedAt());
+    }
+
+    // Null when the indexed epoch is no longer in the table
+    private TleHistory findNearestEntry(String satNumber, long target) {
+        long[] epochs = epochIndex.get(satNumber, this::loadEpochs);
+        if (epochs.length == 0) {
+            throw new TleDataNotFoundException("No TLE history for satellite: " + satNumber);
+        }
+        int index = Arrays.binarySearch(epochs, target);
+        if (index < 0) {
+            int insertion = -index - 1;
+            if (insertion == epochs.length) {
+                index = epochs.length - 1;
+            } else if (insertion == 0) {
+                index = 0;
+            } else {
+                index = target - epochs[insertion - 1] <= epochs[insertion] - target ? insertion - 1 : insertion;
+            }
+        }
+        return historyRepository.findById(new TleHistory.Key(satNumber, fromMicros(epochs[index]))).orElse(null);
+    }
+
+    // Seeds an empty history with the current element sets, then runs the configured bulk import. Once the
+    // history has rows, append() keeps it current and the full copy of tle_data is skipped
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            if (historyRepository.isEmpty()) {
+                historyRepository.appendCurrent(LocalDateTime.now());
+                logger.info("Seeded the TLE history from stored element sets");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to seed the TLE history from stored element sets: {}", e.getMessage());
+        }
+        if (!importFile.isBlank()) {
+            importHistory(Path.of(importFile));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tle.history.maintenance-interval-ms:3600000}",
+            initialDelayString = "${tle.history.maintenance-initial-delay-ms:60000}")
+    public void maintain() {
+        long start = System.currentTimeMillis();
+        int expired = applyRetention();
+        LocalDate horizon = compactionHorizon();
+        int compacted = compact(horizon.minusDays(compactionLookbackDays), horizon);
+        if (expired > 0 || compacted > 0) {
+            logger.info("TLE history maintenance in {}ms: {} expired, {} compacted",
+                    System.currentTimeMillis() - start, expired, compacted);
+        }
+    }
+
+    void importHistory(Path path) {
+        logger.info("Importing TLE history from {}", path);
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = retentionDays > 0 ? LocalDateTime.now(ZoneOffset.UTC).minusDays(retentionDays) : null;
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<TleHistory> batch = new ArrayList<>(importBatchSize);
+        LocalDateTime[] range = new LocalDateTime[2];
+        long[] counts = new long[2];
+        try (InputStream in = CatalogIngestService.openFile(path)) {
+            GpJsonParser.parse(in, record -> {
+                OrbitalElements elements = record.isComplete() ? OrbitalElements.fromTle(record.tleString()) : null;
+                if (elements == null || (cutoff != null && elements.getEpoch().isBefore(cutoff))) {
+                    counts[1]++;
+                    return;
+                }
+                batch.add(entry(record.noradCatId(), elements.getEpoch(), record.tleString(), recordedAt));
+                range[0] = range[0] == null || elements.getEpoch().isBefore(range[0]) ? elements.getEpoch() : range[0];
+                range[1] = range[1] == null || elements.getEpoch().isAfter(range[1]) ? elements.getEpoch() : range[1];
+                if (batch.size() >= importBatchSize) {
+                    historyRepository.appendAll(batch);
+                    counts[0] += batch.size();
+                    batch.clear();
+                }
+            });
+            historyRepository.appendAll(batch);
+            counts[0] += batch.size();
+        } catch (IOException | RuntimeException e) {
+            logger.error("TLE history import failed after {} element sets: {}", counts[0], e.getMessage());
+            return;
+        } finally {
+            epochIndex.invalidateAll();
+        }
+
+        // Imported history older than the horizon is thinned the same way as live history
+        int compacted = 0;
+        if (range[0] != null) {
+            LocalDate horizon = compactionHorizon();
+            LocalDate last = range[1].toLocalDate().plusDays(1);
+            compacted = compact(range[0].toLocalDate(), last.isBefore(horizon) ? last : horizon);
+        }
+        logger.info("TLE history import finished in {}ms: {} element sets, {} skipped, {} compacted",
+                System.currentTimeMillis() - start, counts[0], counts[1], compacted);
+    }
+
+    private int applyRetention() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = historyRepository.deleteOlderThan(cutoff, deleteBatchSize);
+            total += deleted;
+        } while (deleted == deleteBatchSize);
+        if (total > 0) {
+            epochIndex.invalidateAll();
+        }
+        return total;
+    }
+
+    // Keeps the first element set per satellite per UTC day in [from, to), one day's slice at a time
+    int compact(LocalDate from, LocalDate to) {
+        int removed = 0;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            List<TleHistory.Key> keys = historyRepository.findKeysBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            List<TleHistory.Key> redundant = new ArrayList<>();
+            Set<String> affected = new HashSet<>();
+            String previous = null;
+            for (TleHistory.Key key : keys) {
+                if (key.getSatNumber().equals(previous)) {
+                    redundant.add(key);
+                    affected.add(key.getSatNumber());
+                }
+                previous = key.getSatNumber();
+            }
+            if (!redundant.isEmpty()) {
+                historyRepository.deleteKeys(redundant);
+                epochIndex.invalidateAll(affected);
+                removed += redundant.size();
+            }
+        }
+        return removed;
+    }
+
+    private LocalDate compactionHorizon() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(fullResolutionDays);
+    }
+
+    private long[] loadEpochs(String satNumber) {
+        return historyRepository.findEpochs(satNumber).stream().mapToLong(TleHistoryService::micros).toArray();
+    }
+
+    private static long[] insertSorted(long[] epochs, long epoch) {
+        int index = Arrays.binarySearch(epochs, epoch);
+        if (index >= 0) {
+            return epochs;
+        }
+        int insertion = -index - 1;
+        long[] updated = new long[epochs.length + 1];
+        System.arraycopy(epochs, 0, updated, 0, insertion);
+        updated[insertion] = epoch;
+        System.arraycopy(epochs, insertion, updated, insertion + 1, epochs.length - insertion);
+        return updated;
+    }
+
+    private static TleHistory entry(String satNumber, LocalDateTime epoch, String tleString, LocalDateTime recordedAt) {
+        TleHistory entry = new TleHistory();
+        entry.setSatNumber(satNumber);
+        entry.setEpoch(epoch);
+        entry.setTleString(tleString);
+        entry.setRecordedAt(recordedAt);
+        return entry;
+    }
+
+    private static long micros(LocalDateTime utc) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), utc);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.of(1970, 1, 1, 0, 0).plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -1,193 +1,334 @@
 package backend.satellite.service;
 
-import backend.satellite.exception.ExternalApiException;
 import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleBatchResponse;
 import backend.satellite.model.TleData;
+import backend.satellite.model.TleSearchResponse;
 import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class TleService {
 
     private static final Logger logger = LoggerFactory.getLogger(TleService.class);
-    private static final String SPACETRACK_AUTH_URL = "https://www.space-track.org/ajaxauth/login";
-    private static final String SPACETRACK_JSON_URL = "https://www.space-track.org/basicspacedata/query/class/gp/NORAD_CAT_ID/%s/orderby/EPOCH%%20desc/limit/1/format/json";
-    private static final int CACHE_HOURS = 5;
+    static final int CACHE_HOURS = 5;
 
-    @Value("${spacetrack.username:}")
-    private String spacetrackUsername;
+    @Value("${tle.ingest.enabled:false}")
+    private boolean ingestEnabled;
 
-    @Value("${spacetrack.password:}")
-    private String spacetrackPassword;
+    @Value("${tle.batch.max-ids:2000}")
+    private int batchMaxIds;
+
+    @Value("${tle.batch.upstream-chunk-size:500}")
+    private int batchUpstreamChunkSize;
+
+    @Value("${tle.search.max-limit:1000}")
+    private int searchMaxLimit;
 
     @Autowired
     private TleRepository tleRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private TleSources tleSources;
+
+    @Autowired
+    @Qualifier("upstreamExecutor")
+    private Executor upstreamExecutor;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private TleHistoryService tleHistoryService;
+
+    @Autowired
+    private FetchCountAggregator fetchCountAggregator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Satellites refreshed ahead of expiry, with the time their previous record would have gone stale. The first
+    // request after that time would have missed the cache, so it counts as a miss avoided
+    private final Map<String, LocalDateTime> refreshedAhead = new ConcurrentHashMap<>();
 
-    @Transactional
     public TleData getTleData(String satNumber) {
-        logger.debug("Fetching TLE data for satellite: {}", satNumber);
-        
-        TleData tleData = tleRepository.findBySatNumber(satNumber);
+        return getTleData(satNumber, true);
+    }
 
-        if (tleData == null || isDataStale(tleData)) {
-            logger.info("TLE data not found or stale for satellite: {}. Fetching from Space-Track.", satNumber);
-            
-            int existingFetchCount = (tleData != null) ? tleData.getFetchCount() : 0;
-            
-            if (tleData != null) {
-                tleRepository.deleteBySatNumber(satNumber);
-            }
+    // Reads that only feed propagation pass countFetch=false, so fetchCount keeps measuring TLE downloads and a
+    // busy position stream does not make its satellites look popular
+    public TleData getTleData(String satNumber, boolean countFetch) {
+        logger.debug("Fetching TLE data for satellite: {}", satNumber);
 
-            tleData = fetchTleDataFromSpaceTrack(satNumber);
-            tleData.setFetchCount(existingFetchCount + 1);
-            tleRepository.save(tleData);
-        } else {
-            logger.debug("Using cached TLE data for satellite: {}", satNumber);
-            tleData.setFetchCount(tleData.getFetchCount() + 1);
-            tleRepository.save(tleData);
+        TleData tleData = tleCache.get(satNumber, this::loadTleData);
+        if (countFetch) {
+            recordServed(satNumber);
         }
 
         return tleData;
     }
 
-    private boolean isDataStale(TleData tleData) {
-        return ChronoUnit.HOURS.between(tleData.getLastUpdated(), LocalDateTime.now()) > CACHE_HOURS;
+    // Same as getTleData, but a cache miss completes the future from the upstream executor instead of
+    // holding the calling thread for the upstream round trip
+    public CompletableFuture<TleData> getTleDataAsync(String satNumber) {
+        return getTleDataAsync(satNumber, true);
     }
 
-    @Retryable(
-        retryFor = {RestClientException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2, maxDelay = 10000)
-    )
-    private TleData fetchTleDataFromSpaceTrack(String satNumber) {
-        try {
-            // Authenticate and get session cookie
-            logger.info("Authenticating with Space-Track for satellite: {}", satNumber);
-            String cookie = authenticateSpaceTrack();
-            
-            // Fetch TLE data in JSON format to get satellite name
-            String url = String.format(SPACETRACK_JSON_URL, satNumber);
-            logger.info("Fetching TLE data from Space-Track: {}", satNumber);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Cookie", cookie);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-            String jsonResponse = response.getBody();
-
-            if (jsonResponse == null || jsonResponse.trim().isEmpty() || jsonResponse.equals("[]")) {
-                throw new TleDataNotFoundException("No TLE data found for satellite: " + satNumber);
+    public CompletableFuture<TleData> getTleDataAsync(String satNumber, boolean countFetch) {
+        logger.debug("Fetching TLE data asynchronously for satellite: {}", satNumber);
+
+        return tleCache.getAsync(satNumber, this::loadTleData).thenApply(tleData -> {
+            if (countFetch) {
+                recordServed(satNumber);
             }
+            return tleData;
+        });
+    }
 
-            // Parse JSON to extract satellite name and TLE lines
-            String tleString = parseSpaceTrackJson(jsonResponse);
+    // Filters stored rows on their element columns only; satellites that were never fetched are not searched upstream
+    @Transactional(readOnly = true)
+    public TleSearchResponse searchByElements(ElementsFilter filter, Long afterId, int limit) {
+        if (limit < 1 || limit > searchMaxLimit) {
+            throw new IllegalArgumentException("Invalid limit: " + limit + ". Must be between 1 and " + searchMaxLimit + ".");
+        }
+        List<TleData> rows = tleRepository.search(filter, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new TleSearchResponse(rows, null);
+        }
+        List<TleData> page = rows.subList(0, limit);
+        return new TleSearchResponse(page, page.get(limit - 1).getId());
+    }
 
-            TleData tleData = new TleData();
-            tleData.setSatNumber(satNumber);
-            tleData.setTleString(tleString);
-            tleData.setLastUpdated(LocalDateTime.now());
+    public TleBatchResponse getTleDataBatch(List<String> satNumbers) {
+        return getTleDataBatch(satNumbers, true);
+    }
 
-            logger.info("Successfully fetched TLE data for satellite: {} from Space-Track", satNumber);
-            return tleData;
-        } catch (RestClientException e) {
-            logger.warn("Attempt failed to fetch TLE data from Space-Track for satellite: {} - {}", satNumber, e.getMessage());
-            throw e; // Let @Retryable handle the retry
+    public TleBatchResponse getTleDataBatch(List<String> satNumbers, boolean countFetch) {
+        Set<String> requested = new LinkedHashSet<>(satNumbers);
+        if (requested.size() > batchMaxIds) {
+            throw new IllegalArgumentException("Too many satellite numbers: " + requested.size() + ". Maximum is " + batchMaxIds + ".");
         }
-    }
+        logger.debug("Fetching TLE data for {} satellites", requested.size());
 
-    private String parseSpaceTrackJson(String jsonResponse) {
-        try {
-            // Remove the array brackets and parse the JSON object
-            String jsonObject = jsonResponse.trim();
-            if (jsonObject.startsWith("[")) {
-                jsonObject = jsonObject.substring(1, jsonObject.length() - 1);
+        Map<String, TleData> found = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String satNumber : requested) {
+            TleData cached = tleCache.getIfPresent(satNumber);
+            if (cached != null) {
+                found.put(satNumber, cached);
+            } else {
+                uncached.add(satNumber);
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        if (!uncached.isEmpty()) {
+            Map<String, TleData> stored = new HashMap<>();
+            tleRepository.findBySatNumberIn(uncached).forEach(tleData -> stored.put(tleData.getSatNumber(), tleData));
+            for (String satNumber : uncached) {
+                TleData tleData = stored.get(satNumber);
+                if (tleData == null) {
+                    missing.add(satNumber);
+                    continue;
+                }
+                // Stale records are answered as they are and refreshed in the background, as in getTleData
+                found.put(satNumber, tleData);
+                if (ingestEnabled || !isDataStale(tleData)) {
+                    tleCache.put(tleData);
+                } else {
+                    stale.add(satNumber);
+                }
             }
-            
-            // Extract OBJECT_NAME, TLE_LINE1, and TLE_LINE2 using simple string parsing
-            String objectName = extractJsonField(jsonObject, "OBJECT_NAME");
-            String tleLine1 = extractJsonField(jsonObject, "TLE_LINE1");
-            String tleLine2 = extractJsonField(jsonObject, "TLE_LINE2");
-            
-            if (objectName == null || tleLine1 == null || tleLine2 == null) {
-                throw new ExternalApiException("Failed to parse Space-Track JSON response");
+        }
+
+        // With catalog ingest enabled the scheduler owns upstream traffic and requests never wait on it
+        if (!ingestEnabled) {
+            if (!stale.isEmpty()) {
+                meterRegistry.counter("tle.stale.served").increment(stale.size());
+                refreshInBackground(stale);
+            }
+            if (!missing.isEmpty()) {
+                logger.info("Fetching {} missing satellites upstream", missing.size());
+                for (TleData tleData : storeFetched(fetchTleDataBatchFromUpstream(missing))) {
+                    found.put(tleData.getSatNumber(), tleData);
+                    tleCache.put(tleData);
+                }
             }
-            
-            // Format as 3-line TLE (name + line1 + line2) with proper line endings
-            return objectName + "\r\n" + tleLine1 + "\r\n" + tleLine2 + "\r\n";
-        } catch (Exception e) {
-            logger.error("Error parsing Space-Track JSON: {}", e.getMessage());
-            throw new ExternalApiException("Failed to parse TLE data from Space-Track", e);
         }
+
+        List<TleData> data = new ArrayList<>(found.size());
+        List<String> notFound = new ArrayList<>();
+        for (String satNumber : requested) {
+            TleData tleData = found.get(satNumber);
+            if (tleData != null) {
+                data.add(tleData);
+                if (countFetch) {
+                    recordServed(satNumber);
+                }
+            } else {
+                notFound.add(satNumber);
+            }
+        }
+        return new TleBatchResponse(data, notFound);
     }
-    
-    private String extractJsonField(String json, String fieldName) {
+
+    private TleData loadTleData(String satNumber) {
+        TleData tleData = tleRepository.findBySatNumber(satNumber);
+
+        if (tleData != null && (ingestEnabled || !isDataStale(tleData))) {
+            logger.debug("Using stored TLE data for satellite: {}", satNumber);
+            return tleData;
+        }
+
+        if (ingestEnabled) {
+            throw new TleDataNotFoundException("No TLE data found for satellite: " + satNumber);
+        }
+
+        // Stale-while-revalidate: the last known TLE is answered at once and upstream latency or outages stay
+        // off the request path. The stale entry only lives for the cache's minimum TTL, so if this refresh
+        // fails the next request after that tries again
+        if (tleData != null) {
+            logger.info("TLE data stale for satellite: {}. Serving it while refreshing from upstream.", satNumber);
+            meterRegistry.counter("tle.stale.served").increment();
+            refreshInBackground(List.of(satNumber));
+            return tleData;
+        }
+
+        logger.info("TLE data not found for satellite: {}. Fetching from upstream.", satNumber);
+        TleData fetched = toTleData(satNumber, tleSources.fetchLatest(satNumber), LocalDateTime.now());
+        List<TleData> stored = storeFetched(List.of(fetched));
+        logger.info("Successfully fetched TLE data for satellite: {} from upstream", satNumber);
+        return stored.isEmpty() ? fetched : stored.get(0);
+    }
+
+    public static LocalDateTime staleAt(TleData tleData) {
+        return tleData.getLastUpdated().plusHours(CACHE_HOURS);
+    }
+
+    private boolean isDataStale(TleData tleData) {
+        return LocalDateTime.now().isAfter(staleAt(tleData));
+    }
+
+    // Fetches in the background and swaps the fresh records into the store and cache; at most one refresh per
+    // satellite is in flight, and a failure just leaves the stale record in place until the next attempt
+    private void refreshInBackground(List<String> satNumbers) {
+        List<String> claimed = satNumbers.stream().filter(refreshing::add).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
         try {
-            String searchKey = "\"" + fieldName + "\":\"";
-            int startIndex = json.indexOf(searchKey);
-            if (startIndex == -1) return null;
-            
-            startIndex += searchKey.length();
-            int endIndex = json.indexOf("\"", startIndex);
-            if (endIndex == -1) return null;
-            
-            return json.substring(startIndex, endIndex);
-        } catch (Exception e) {
-            return null;
+            upstreamExecutor.execute(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "success";
+                try {
+                    for (TleData tleData : storeFetched(fetchTleDataBatchFromUpstream(claimed))) {
+                        tleCache.put(tleData);
+                    }
+                } catch (RuntimeException e) {
+                    outcome = "failure";
+                    logger.warn("Background refresh of {} satellites failed, serving stale data: {}", claimed.size(), e.getMessage());
+                } finally {
+                    sample.stop(meterRegistry.timer("tle.refresh", "outcome", outcome));
+                    claimed.forEach(refreshing::remove);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            claimed.forEach(refreshing::remove);
+            logger.warn("Background refresh of {} satellites rejected: {}", claimed.size(), e.getMessage());
         }
     }
 
-    private String authenticateSpaceTrack() {
+    // Fetches the given satellites in batched upstream calls before their records go stale (PredictiveRefresher),
+    // keyed to the time each current record goes stale. Satellites already being refreshed are skipped
+    public List<TleData> refreshAhead(Map<String, LocalDateTime> staleAtBySatNumber) {
+        List<String> claimed = staleAtBySatNumber.keySet().stream().filter(refreshing::add).toList();
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
         try {
-            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-            formData.add("identity", spacetrackUsername);
-            formData.add("password", spacetrackPassword);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
-            
-            ResponseEntity<String> response = restTemplate.postForEntity(SPACETRACK_AUTH_URL, request, String.class);
-            
-            // Extract cookie from response
-            List<String> cookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
-            if (cookies != null && !cookies.isEmpty()) {
-                String cookie = cookies.get(0);
-                logger.debug("Space-Track authentication successful");
-                return cookie;
+            List<TleData> stored = storeFetched(fetchTleDataBatchFromUpstream(claimed));
+            LocalDateTime now = LocalDateTime.now();
+            // Satellites nobody asked for within a whole window no longer count either way
+            refreshedAhead.values().removeIf(staleAt -> staleAt.isBefore(now.minusHours(CACHE_HOURS)));
+            for (TleData tleData : stored) {
+                tleCache.put(tleData);
+                LocalDateTime staleAt = staleAtBySatNumber.get(tleData.getSatNumber());
+                if (staleAt != null && staleAt.isAfter(now)) {
+                    refreshedAhead.put(tleData.getSatNumber(), staleAt);
+                }
+            }
+            return stored;
+        } finally {
+            claimed.forEach(refreshing::remove);
+        }
+    }
+
+    private void recordServed(String satNumber) {
+        fetchCountAggregator.increment(satNumber);
+        if (refreshedAhead.isEmpty()) {
+            return;
+        }
+        LocalDateTime staleAt = refreshedAhead.get(satNumber);
+        if (staleAt != null && LocalDateTime.now().isAfter(staleAt) && refreshedAhead.remove(satNumber, staleAt)) {
+            meterRegistry.counter("tle.refresh.misses.avoided").increment();
+        }
+    }
+
+    // Rows are updated in place so a failed fetch never leaves a satellite without its last known TLE;
+    // the re-read picks up generated ids and existing fetch counts
+    private List<TleData> storeFetched(List<TleData> fetched) {
+        if (fetched.isEmpty()) {
+            return fetched;
+        }
+        tleRepository.upsertAll(fetched);
+        tleHistoryService.append(fetched);
+        return tleRepository.findBySatNumberIn(fetched.stream().map(TleData::getSatNumber).toList());
+    }
+
+    private List<TleData> fetchTleDataBatchFromUpstream(List<String> satNumbers) {
+        List<TleData> fetched = new ArrayList<>(satNumbers.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < satNumbers.size(); start += batchUpstreamChunkSize) {
+            List<String> chunk = satNumbers.subList(start, Math.min(start + batchUpstreamChunkSize, satNumbers.size()));
+            for (GpRecord record : tleSources.fetchBatch(chunk)) {
+                fetched.add(toTleData(record.noradCatId(), record, now));
             }
-            
-            throw new ExternalApiException("Failed to authenticate with Space-Track: No cookie received");
-        } catch (Exception e) {
-            logger.error("Space-Track authentication failed: {}", e.getMessage());
-            throw new ExternalApiException("Failed to authenticate with Space-Track", e);
         }
+        return fetched;
     }
 
-    @org.springframework.retry.annotation.Recover
-    public TleData recoverFromSpaceTrackFailure(RestClientException e, String satNumber) {
-        logger.error("All retry attempts exhausted for satellite: {}. Error: {}", satNumber, e.getMessage());
-        throw new ExternalApiException("Failed to fetch TLE data from Space-Track after multiple retries for satellite: " + satNumber, e);
+    private static TleData toTleData(String satNumber, GpRecord record, LocalDateTime fetchedAt) {
+        TleData tleData = new TleData();
+        tleData.setSatNumber(satNumber);
+        tleData.setTleString(record.tleString());
+        tleData.setElements(OrbitalElements.fromTle(record.tleString()));
+        tleData.setLastUpdated(fetchedAt);
+        return tleData;
     }
 
     @Transactional(readOnly = true)
@@ -198,22 +339,40 @@ public class TleService {
         if (mostFetched == null) {
             throw new TleDataNotFoundException("No TLE data available in the database");
         }
-        
-        return mostFetched;
+
+        // Counts not yet flushed by the aggregator can promote a different satellite to the top
+        Map<String, Long> pending = fetchCountAggregator.pendingCounts();
+        long bestCount = mostFetched.getFetchCount() + pending.getOrDefault(mostFetched.getSatNumber(), 0L);
+        if (!pending.isEmpty()) {
+            for (TleData candidate : tleRepository.findBySatNumberIn(pending.keySet())) {
+                long candidateCount = candidate.getFetchCount() + pending.get(candidate.getSatNumber());
+                if (candidateCount > bestCount) {
+                    bestCount = candidateCount;
+                    mostFetched = candidate;
+                }
+            }
+        }
+        // Answered as a detached copy, so the merged count is never written to the managed entity
+        return withFetchCount(mostFetched, bestCount);
     }
 
-    @Transactional(readOnly = true)
-    public List<TleData> getAllTleData() {
-        logger.debug("Fetching all TLE data");
-        return tleRepository.findAll();
+    private static TleData withFetchCount(TleData tleData, long fetchCount) {
+        TleData copy = new TleData();
+        copy.setId(tleData.getId());
+        copy.setSatNumber(tleData.getSatNumber());
+        copy.setTleString(tleData.getTleString());
+        copy.setLastUpdated(tleData.getLastUpdated());
+        copy.setElements(tleData.getElements());
+        copy.setFetchCount((int) Math.min(fetchCount, Integer.MAX_VALUE));
+        return copy;
     }
 
     @Transactional
     public void deleteTleData(Long id) {
         logger.info("Deleting TLE data with ID: {}", id);
-        if (!tleRepository.existsById(id)) {
-            throw new TleDataNotFoundException("TLE data not found with ID: " + id);
-        }
+        TleData tleData = tleRepository.findById(id)
+                .orElseThrow(() -> new TleDataNotFoundException("TLE data not found with ID: " + id));
         tleRepository.deleteById(id);
+        tleCache.invalidate(tleData.getSatNumber());
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package backend.satellite.service;
+
+import java.util.List;
+
+// An upstream that serves current GP element sets. TleSources ranks, hedges and fails over between them
+public interface TleSource {
+
+    // Tag value for metrics and the key in tle.sources.order
+    String name();
+
+    // Latest element set for one satellite; throws TleDataNotFoundException when the source does not know it
+    GpRecord fetchLatest(String satNumber);
+
+    // Current element sets for up to one upstream chunk of satellites; ids the source does not know are absent
+    List<GpRecord> fetchBatch(List<String> satNumbers);
+
+    // Largest batch worth sending to this source; TleSources skips it for bigger ones
+    default int maxBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    // False while the source is known to be down, e.g. with its circuit open
+    boolean isAvailable();
+
+    // False while a call now would have to wait for a rate-limit permit; TleSources only hedges into a source
+    // with capacity to spare, and waits for the current call to fail before falling back to one without
+    default boolean hasSpareCapacity() {
+        return true;
+    }
+}
@@ -0,0 +1,346 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.OrbitalElements;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+// Fetches from the configured upstream sources, fastest first. Sources are ranked by the p95 latency of their
+// recent calls (failures count as the hedge ceiling), in tle.sources.order until they have min-samples calls.
+// A single-satellite fetch is hedged: when the current source has not answered within its own p95 (clamped to
+// min/max-delay) the next source is queried too, unless a call to it would have to wait for a rate-limit permit;
+// the first valid element set wins unless another one with a
+// newer epoch arrives within grace-ms. A source that fails is replaced at once. Calls still in flight once the
+// race is decided are interrupted, so a losing Space-Track call takes no further rate-limit permits, and their
+// outcome counts towards neither latency nor circuit state. Batches fail over in rank order without hedging,
+// since each is a large upstream query
+@Component
+public class TleSources {
+
+    private static final Logger logger = LoggerFactory.getLogger(TleSources.class);
+
+    @Value("${tle.sources.order:spacetrack,celestrak}")
+    private List<String> order;
+
+    @Value("${tle.sources.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${tle.sources.hedge.quantile:0.95}")
+    private double hedgeQuantile;
+
+    @Value("${tle.sources.hedge.min-delay-ms:50}")
+    private long minDelayMs;
+
+    @Value("${tle.sources.hedge.max-delay-ms:3000}")
+    private long maxDelayMs;
+
+    // Once one source has answered, how long to wait for the others still in flight so the newest epoch can win
+    @Value("${tle.sources.hedge.grace-ms:50}")
+    private long graceMs;
+
+    @Value("${tle.sources.latency-window:200}")
+    private int latencyWindow;
+
+    @Value("${tle.sources.min-samples:20}")
+    private int minSamples;
+
+    @Autowired
+    private List<TleSource> sources;
+
+    @Autowired
+    @Qualifier("sourceExecutor")
+    private Executor sourceExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, LatencyWindow> latencies = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (TleSource source : sources) {
+            latencies.put(source.name(), new LatencyWindow(latencyWindow));
+            Gauge.builder("tle.source.hedge.delay", source, s -> hedgeDelayNanos(s) / 1e9)
+                    .description("Wait before the next source is queried alongside this one")
+                    .tag("source", source.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        logger.info("Upstream TLE sources: {}", ranked().stream().map(TleSource::name).toList());
+    }
+
+    public GpRecord fetchLatest(String satNumber) {
+        List<TleSource> ranked = ranked();
+        Race race = new Race();
+        try {
+            return race(race, ranked, satNumber);
+        } finally {
+            race.cancel();
+        }
+    }
+
+    private GpRecord race(Race race, List<TleSource> ranked, String satNumber) {
+        race.start(ranked.get(0), satNumber);
+        int next = 1;
+        while (true) {
+            boolean more = next < ranked.size();
+            boolean hedge = more && hedgeEnabled && ranked.get(next).hasSpareCapacity();
+            long waitNanos = hedge ? hedgeDelayNanos(ranked.get(next - 1)) : -1;
+            boolean settled = race.await(waitNanos);
+            if (race.hasAnswer()) {
+                race.awaitAll(TimeUnit.MILLISECONDS.toNanos(graceMs));
+                return race.newest();
+            }
+            if (!more && race.allSettled()) {
+                throw race.failure();
+            }
+            if (more && settled) {
+                race.start(ranked.get(next++), satNumber);
+            } else if (more && ranked.get(next).hasSpareCapacity()) {
+                meterRegistry.counter("tle.source.hedges", "source", ranked.get(next).name()).increment();
+                race.start(ranked.get(next++), satNumber);
+            }
+        }
+    }
+
+    public List<GpRecord> fetchBatch(List<String> satNumbers) {
+        RuntimeException failure = null;
+        for (TleSource source : ranked()) {
+            if (source.maxBatchSize() < satNumbers.size()) {
+                continue;
+            }
+            try {
+                return timed(source, s -> s.fetchBatch(satNumbers), () -> false);
+            } catch (RuntimeException e) {
+                logger.warn("Batch fetch from {} failed, trying the next source: {}", source.name(), e.getMessage());
+                failure = failure != null ? failure : e;
+            }
+        }
+        throw failure != null ? failure
+                : new ExternalApiException("No upstream source serves batches of " + satNumbers.size() + " satellites");
+    }
+
+    // Available sources first, then by recent latency; sources without enough samples keep the configured order.
+    // Each key is read once before sorting, so a percentile is computed once per source and a circuit or window
+    // changing mid-sort cannot break the comparator
+    List<TleSource> ranked() {
+        List<Rank> ranks = new ArrayList<>(sources.size());
+        for (TleSource source : sources) {
+            int position = order.indexOf(source.name());
+            ranks.add(new Rank(source, !source.isAvailable(), rankingNanos(source),
+                    position < 0 ? Integer.MAX_VALUE : position));
+        }
+        ranks.sort(Comparator.comparing(Rank::unavailable)
+                .thenComparingLong(Rank::nanos)
+                .thenComparingInt(Rank::position));
+        return ranks.stream().map(Rank::source).toList();
+    }
+
+    private long rankingNanos(TleSource source) {
+        LatencyWindow window = latencies.get(source.name());
+        return window.count() >= minSamples ? window.percentile(hedgeQuantile) : Long.MAX_VALUE;
+    }
+
+    long hedgeDelayNanos(TleSource source) {
+        LatencyWindow window = latencies.get(source.name());
+        long ceiling = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        if (window.count() < minSamples) {
+            return ceiling;
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMs), Math.min(ceiling, window.percentile(hedgeQuantile)));
+    }
+
+    // Not-found answers are timed like successes; failures count as the hedge ceiling so a failing source drops back.
+    // Cancelled calls are not recorded, since their time up to the interrupt says nothing about the source
+    private <T> T timed(TleSource source, Function<TleSource, T> call, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T result = call.apply(source);
+            outcome = "success";
+            return result;
+        } catch (TleDataNotFoundException e) {
+            outcome = "not-found";
+            throw e;
+        } finally {
+            if (!cancelled.getAsBoolean()) {
+                long elapsed = System.nanoTime() - start;
+                latencies.get(source.name()).record(outcome.equals("failure")
+                        ? Math.max(elapsed, TimeUnit.MILLISECONDS.toNanos(maxDelayMs)) : elapsed);
+                Timer.builder("tle.source.fetch")
+                        .tag("source", source.name())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static LocalDateTime epochOf(GpRecord record) {
+        OrbitalElements elements = record.isComplete() ? OrbitalElements.fromTle(record.tleString()) : null;
+        return elements != null ? elements.getEpoch() : null;
+    }
+
+    // Calls for one satellite in flight across sources; guarded by its own monitor
+    private final class Race {
+
+        private final List<Answer> answers = new ArrayList<>();
+        // Threads currently inside a source call; only these are interrupted on cancel
+        private final Set<Thread> calling = new HashSet<>();
+        private int started;
+        private int settled;
+        private boolean cancelled;
+        private RuntimeException firstFailure;
+
+        void start(TleSource source, String satNumber) {
+            synchronized (this) {
+                started++;
+            }
+            Runnable call = () -> {
+                if (!enter()) {
+                    return;
+                }
+                try {
+                    GpRecord record = timed(source, s -> s.fetchLatest(satNumber), this::isCancelled);
+                    settle(source, record, null);
+                } catch (RuntimeException e) {
+                    settle(source, null, e);
+                }
+            };
+            try {
+                sourceExecutor.execute(call);
+            } catch (RejectedExecutionException e) {
+                // No spare thread: this source is queried on the caller's thread, without a hedge behind it
+                call.run();
+            }
+        }
+
+        // False once the race is decided, so a call still waiting for a thread is never made
+        private synchronized boolean enter() {
+            if (cancelled) {
+                settled++;
+                return false;
+            }
+            calling.add(Thread.currentThread());
+            return true;
+        }
+
+        private synchronized void settle(TleSource source, GpRecord record, RuntimeException failure) {
+            settled++;
+            calling.remove(Thread.currentThread());
+            // Nothing interrupts this thread any more; clear a late interrupt before it goes back to the pool
+            Thread.interrupted();
+            if (cancelled) {
+                notifyAll();
+                return;
+            }
+            LocalDateTime epoch = record != null ? epochOf(record) : null;
+            if (epoch != null) {
+                answers.add(new Answer(source, record, epoch));
+            } else {
+                if (failure == null) {
+                    failure = new ExternalApiException(source.name() + " returned an element set that cannot be parsed");
+                } else if (!(failure instanceof TleDataNotFoundException)) {
+                    logger.warn("Fetch from {} failed: {}", source.name(), failure.getMessage());
+                }
+                // A not-found answer is only reported when no source has the satellite
+                if (firstFailure == null || firstFailure instanceof TleDataNotFoundException) {
+                    firstFailure = failure;
+                }
+            }
+            notifyAll();
+        }
+
+        // Waits until an answer arrives, every started call has settled, or waitNanos passes (-1 waits without
+        // limit); false means the wait timed out
+        synchronized boolean await(long waitNanos) {
+            long deadline = System.nanoTime() + waitNanos;
+            try {
+                while (answers.isEmpty() && settled < started) {
+                    if (waitNanos < 0) {
+                        wait();
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExternalApiException("Interrupted while waiting for upstream sources", e);
+            }
+        }
+
+        synchronized boolean hasAnswer() {
+            return !answers.isEmpty();
+        }
+
+        synchronized void awaitAll(long waitNanos) {
+            long deadline = System.nanoTime() + waitNanos;
+            try {
+                long remaining;
+                while (settled < started && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized GpRecord newest() {
+            Answer newest = answers.stream().max(Comparator.comparing(Answer::epoch)).orElseThrow();
+            meterRegistry.counter("tle.source.wins", "source", newest.source().name()).increment();
+            return newest.record();
+        }
+
+        synchronized boolean allSettled() {
+            return settled == started;
+        }
+
+        synchronized RuntimeException failure() {
+            return firstFailure;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Interrupts the calls still in flight; the caller has its answer or has given up on them
+        synchronized void cancel() {
+            cancelled = true;
+            calling.forEach(Thread::interrupt);
+        }
+    }
+
+    private record Answer(TleSource source, GpRecord record, LocalDateTime epoch) {
+    }
+
+    private record Rank(TleSource source, boolean unavailable, long nanos, int position) {
+    }
+}
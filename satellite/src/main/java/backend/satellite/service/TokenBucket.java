@@ -0,0 +1,47 @@
+package backend.satellite.service;
+
+import java.time.Duration;
+
+// Reservation-style bucket: callers take a token immediately and sleep off any deficit,
+// so bursts are served in arrival order instead of being rejected
+class TokenBucket {
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int permits, Duration period) {
+        this.capacity = permits;
+        this.nanosPerToken = (double) period.toNanos() / permits;
+        this.tokens = permits;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // Returns the wait before the reserved token may be used, or -1 without reserving if that exceeds maxWaitNanos
+    synchronized long reserve(long maxWaitNanos) {
+        refill();
+        long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    // True when this many tokens could be taken now without waiting; reserves nothing
+    synchronized boolean hasTokens(int count) {
+        refill();
+        return tokens >= count;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,245 @@
+package backend.satellite.service;
+
+import backend.satellite.config.StartupMetrics;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The working set saved to a local file so a restarted instance serves its hot satellites from memory instead of
+// sending the first wave of requests to the database. Holds the most requested satellites by recent count, each
+// with its cached record and parsed elements when present. Written periodically and on shutdown, then memory-mapped
+// and loaded into the TLE cache and the fetch counters before the web server starts. Records that went stale while
+// the instance was down are skipped, so they are re-read or re-fetched as usual
+@Component
+public class WarmSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmSnapshot.class);
+    private static final int MAGIC = 0x544C4557;
+    private static final int VERSION = 1;
+
+    // Empty disables the snapshot
+    @Value("${tle.snapshot.file:}")
+    private String file;
+
+    @Value("${tle.snapshot.max-entries:20000}")
+    private int maxEntries;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private FetchCountAggregator fetchCountAggregator;
+
+    @Autowired
+    private StartupMetrics startupMetrics;
+
+    @PostConstruct
+    void init() {
+        if (file.isBlank()) {
+            return;
+        }
+        Path path = Path.of(file);
+        if (!Files.isRegularFile(path)) {
+            logger.info("Cold start: no warm snapshot at {}", path);
+            return;
+        }
+        try {
+            int loaded = load(path);
+            startupMetrics.markWarm(loaded);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable warm snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tle.snapshot.interval-ms:600000}",
+            initialDelayString = "${tle.snapshot.interval-ms:600000}")
+    public void save() {
+        if (file.isBlank()) {
+            return;
+        }
+        try {
+            int saved = write(Path.of(file));
+            logger.debug("Saved warm snapshot of {} satellites to {}", saved, file);
+        } catch (IOException e) {
+            logger.warn("Failed to save warm snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        save();
+    }
+
+    int load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("not a version " + VERSION + " warm snapshot");
+        }
+        long ageNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - buffer.getLong());
+        int count = buffer.getInt();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Double> recentCounts = new HashMap<>(count * 2);
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            String satNumber = readString(buffer);
+            recentCounts.put(satNumber, buffer.getDouble());
+            if (buffer.get() == 0) {
+                continue;
+            }
+            TleData tleData = readTleData(buffer, satNumber);
+            if (TleService.staleAt(tleData).isAfter(now)) {
+                tleCache.put(tleData);
+                loaded++;
+            }
+        }
+        fetchCountAggregator.restoreRecentCounts(recentCounts, ageNanos);
+        logger.info("Loaded warm snapshot {}: {} of {} satellites still fresh", path, loaded, count);
+        return loaded;
+    }
+
+    // Written next to the target and moved over it, so a crash mid-write never leaves a truncated snapshot
+    int write(Path path) throws IOException {
+        List<Map.Entry<String, Double>> hottest = new ArrayList<>(fetchCountAggregator.recentCounts().entrySet());
+        hottest.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()));
+        if (hottest.size() > maxEntries) {
+            hottest = hottest.subList(0, maxEntries);
+        }
+
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(hottest.size());
+            for (Map.Entry<String, Double> entry : hottest) {
+                writeString(out, entry.getKey());
+                out.writeDouble(entry.getValue());
+                TleData tleData = tleCache.getIfPresent(entry.getKey());
+                out.writeByte(tleData != null ? 1 : 0);
+                if (tleData != null) {
+                    writeTleData(out, tleData);
+                }
+            }
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return hottest.size();
+    }
+
+    private static void writeTleData(DataOutputStream out, TleData tleData) throws IOException {
+        out.writeLong(tleData.getId() != null ? tleData.getId() : -1);
+        writeString(out, tleData.getTleString());
+        writeDateTime(out, tleData.getLastUpdated());
+        out.writeInt(tleData.getFetchCount());
+        OrbitalElements elements = tleData.getElements();
+        out.writeByte(elements != null && elements.getEpoch() != null ? 1 : 0);
+        if (elements == null || elements.getEpoch() == null) {
+            return;
+        }
+        writeDateTime(out, elements.getEpoch());
+        for (Double value : new Double[]{elements.getMeanMotionDot(), elements.getMeanMotionDdot(), elements.getBstar(),
+                elements.getInclination(), elements.getRaan(), elements.getEccentricity(), elements.getArgPerigee(),
+                elements.getMeanAnomaly(), elements.getMeanMotion(), elements.getPerigeeKm(), elements.getApogeeKm()}) {
+            out.writeDouble(value != null ? value : Double.NaN);
+        }
+        out.writeInt(elements.getRevNumber() != null ? elements.getRevNumber() : -1);
+    }
+
+    private static TleData readTleData(ByteBuffer buffer, String satNumber) {
+        TleData tleData = new TleData();
+        long id = buffer.getLong();
+        tleData.setId(id >= 0 ? id : null);
+        tleData.setSatNumber(satNumber);
+        tleData.setTleString(readString(buffer));
+        tleData.setLastUpdated(readDateTime(buffer));
+        tleData.setFetchCount(buffer.getInt());
+        if (buffer.get() == 0) {
+            return tleData;
+        }
+        OrbitalElements elements = new OrbitalElements();
+        elements.setEpoch(readDateTime(buffer));
+        elements.setMeanMotionDot(readDouble(buffer));
+        elements.setMeanMotionDdot(readDouble(buffer));
+        elements.setBstar(readDouble(buffer));
+        elements.setInclination(readDouble(buffer));
+        elements.setRaan(readDouble(buffer));
+        elements.setEccentricity(readDouble(buffer));
+        elements.setArgPerigee(readDouble(buffer));
+        elements.setMeanAnomaly(readDouble(buffer));
+        elements.setMeanMotion(readDouble(buffer));
+        elements.setPerigeeKm(readDouble(buffer));
+        elements.setApogeeKm(readDouble(buffer));
+        int revNumber = buffer.getInt();
+        elements.setRevNumber(revNumber >= 0 ? revNumber : null);
+        tleData.setElements(elements);
+        return tleData;
+    }
+
+    // Length-prefixed UTF-8; -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Local date-times are stored field for field, read back in the same zone they were written in
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static Double readDouble(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+}
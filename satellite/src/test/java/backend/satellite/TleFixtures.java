@@ -0,0 +1,41 @@
+package backend.satellite;
+
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+
+import java.time.LocalDateTime;
+
+// TleData rows as the service stores them: elements are parsed from the text whenever it holds element lines
+public final class TleFixtures {
+
+    public static final String ISS_LINE1 = "1 25544U 98067A   24015.50000000  .00016717  00000-0  30183-3 0  9990";
+    public static final String ISS_LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+    public static final String ISS = "ISS (ZARYA)\n" + ISS_LINE1 + "\n" + ISS_LINE2;
+
+    private TleFixtures() {
+    }
+
+    public static TleData tleData(String satNumber, LocalDateTime lastUpdated) {
+        return tleData(null, satNumber, null, lastUpdated);
+    }
+
+    public static TleData tleData(String satNumber, String tleString, LocalDateTime lastUpdated) {
+        return tleData(null, satNumber, tleString, lastUpdated);
+    }
+
+    public static TleData tleData(Long id, String satNumber, String tleString, LocalDateTime lastUpdated) {
+        TleData tleData = new TleData();
+        tleData.setId(id);
+        tleData.setSatNumber(satNumber);
+        tleData.setTleString(tleString);
+        tleData.setLastUpdated(lastUpdated);
+        tleData.setElements(OrbitalElements.fromTle(tleString));
+        return tleData;
+    }
+
+    // Three-line element set for any satellite with the given YYDDD.DDDDDDDD epoch field
+    public static String tleString(String satNumber, String epochField) {
+        return "SAT " + satNumber + "\r\n1 " + satNumber + "U 98067A   " + epochField + "  .00016717  00000-0  30183-3 0  9993\r\n"
+                + "2 " + satNumber + "  51.6416 247.4627 0006703 130.5360 325.0288 15.49815308 12345\r\n";
+    }
+}
@@ -0,0 +1,209 @@
+package backend.satellite.controller;
+
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.TleBatchResponse;
+import backend.satellite.model.TleSearchResponse;
+import backend.satellite.service.TleExportService;
+import backend.satellite.service.TleHistoryService;
+import backend.satellite.service.TleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.tleData;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TleController.class)
+class TleControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TleService tleService;
+
+    @MockBean
+    private TleExportService tleExportService;
+
+    @MockBean
+    private TleHistoryService tleHistoryService;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Test
+    void staleRecordIsServedWithTheStaleHeader() throws Exception {
+        when(tleService.getTleDataAsync("25544")).thenReturn(CompletableFuture.completedFuture(
+                tleData(1L, "25544", ISS, LocalDateTime.now().minusHours(6))));
+
+        mockMvc.perform(asyncDispatch(getAsync("/25544")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TleCaching.STALE_HEADER, "true"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, public, s-maxage=0"))
+                .andExpect(jsonPath("$.satNumber").value("25544"));
+    }
+
+    @Test
+    void freshRecordIsNotMarkedStale() throws Exception {
+        when(tleService.getTleDataAsync("25544")).thenReturn(CompletableFuture.completedFuture(
+                tleData(1L, "25544", ISS, LocalDateTime.now().minusHours(1))));
+
+        mockMvc.perform(asyncDispatch(getAsync("/25544")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TleCaching.STALE_HEADER, "false"));
+    }
+
+    @Test
+    void pollsAreCachedUntilStaleThenRevalidatedAgainstTheETag() throws Exception {
+        LocalDateTime fetchedAt = LocalDateTime.now().minusHours(1).withNano(0);
+        when(tleService.getTleDataAsync("25544")).thenReturn(
+                CompletableFuture.completedFuture(tleData(1L, "25544", ISS, fetchedAt)),
+                CompletableFuture.completedFuture(tleData(1L, "25544", ISS, fetchedAt)),
+                CompletableFuture.completedFuture(tleData(1L, "25544", ISS, fetchedAt.plusHours(1))));
+
+        String eTag = mockMvc.perform(asyncDispatch(getAsync(get("/25544"))))
+                .andExpect(status().isOk())
+                // Four hours left of the five-hour window
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL,
+                        matchesPattern("max-age=14[34]\\d\\d, public, s-maxage=14[34]\\d\\d")))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.satNumber").value("25544"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(asyncDispatch(getAsync(get("/25544").header(HttpHeaders.IF_NONE_MATCH, eTag))))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Re-fetched: the old validator no longer matches
+        String refetched = mockMvc.perform(asyncDispatch(getAsync(get("/25544").header(HttpHeaders.IF_NONE_MATCH, eTag))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, refetched);
+    }
+
+    @Test
+    void batchAnswersFoundAndNotFoundSatellites() throws Exception {
+        when(tleService.getTleDataBatch(List.of("25544", "43013", "25544", "99999"))).thenReturn(new TleBatchResponse(
+                List.of(tleData(1L, "25544", ISS, LocalDateTime.now()), tleData(2L, "43013", null, LocalDateTime.now())),
+                List.of("99999")));
+
+        mockMvc.perform(post("/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"25544\", \"43013\", \"25544\", \"99999\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].satNumber").value("25544"))
+                .andExpect(jsonPath("$.data[1].satNumber").value("43013"))
+                .andExpect(jsonPath("$.notFound").value(contains("99999")));
+        mockMvc.perform(get("/batch").param("ids", "25544,43013,25544,99999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notFound").value(contains("99999")));
+    }
+
+    @Test
+    void emptyOrInvalidBatchIsRejected() throws Exception {
+        mockMvc.perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/batch").param("ids", "25544,ISS"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(tleService);
+    }
+
+    @Test
+    void tooLargeBatchIsRejected() throws Exception {
+        when(tleService.getTleDataBatch(anyList()))
+                .thenThrow(new IllegalArgumentException("Too many satellite numbers: 2001. Maximum is 2000."));
+
+        mockMvc.perform(get("/batch").param("ids", "25544,43013"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Too many satellite numbers: 2001. Maximum is 2000."));
+    }
+
+    @Test
+    void searchBuildsTheFilterFromItsParameters() throws Exception {
+        ElementsFilter filter = new ElementsFilter(97.0, 99.0, 14.0, 15.5, 0.01, 400.0, 2000.0,
+                LocalDateTime.of(2024, 1, 10, 0, 0), LocalDateTime.of(2024, 1, 16, 12, 0));
+        when(tleService.searchByElements(filter, 3L, 20)).thenReturn(
+                new TleSearchResponse(List.of(tleData(7L, "40001", ISS, LocalDateTime.now())), 7L));
+
+        mockMvc.perform(get("/search")
+                        .param("minInclination", "97").param("maxInclination", "99")
+                        .param("minMeanMotion", "14").param("maxMeanMotion", "15.5")
+                        .param("maxEccentricity", "0.01").param("minPerigeeKm", "400").param("maxApogeeKm", "2000")
+                        .param("epochAfter", "2024-01-10T00:00:00Z").param("epochBefore", "2024-01-16T12:00:00Z")
+                        .param("after", "3").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].satNumber").value("40001"))
+                .andExpect(jsonPath("$.nextAfter").value(7));
+    }
+
+    @Test
+    void searchWithoutParametersUsesAnEmptyFilterAndTheDefaultLimit() throws Exception {
+        ElementsFilter none = new ElementsFilter(null, null, null, null, null, null, null, null, null);
+        when(tleService.searchByElements(none, null, 100)).thenReturn(new TleSearchResponse(List.of(), null));
+
+        mockMvc.perform(get("/search"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+        verify(tleService).searchByElements(none, null, 100);
+    }
+
+    @Test
+    void searchLimitOutOfRangeIsRejected() throws Exception {
+        when(tleService.searchByElements(any(), any(), eq(5000)))
+                .thenThrow(new IllegalArgumentException("Invalid limit: 5000. Must be between 1 and 1000."));
+
+        mockMvc.perform(get("/search").param("limit", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid limit: 5000. Must be between 1 and 1000."));
+    }
+
+    private MvcResult getAsync(String path) throws Exception {
+        return getAsync(get(path));
+    }
+
+    private MvcResult getAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // For the StartupMetrics filter
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package backend.satellite.model;
+
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrbitalElementsTests {
+
+    private static final String ISS = "ISS (ZARYA)\r\n"
+            + "1 25544U 98067A   24015.50000000  .00016717  00000-0  30183-3 0  9993\r\n"
+            + "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.49815308 12345\r\n";
+
+    @Test
+    void storedElementsPropagateLikeTheText() {
+        OrbitalElements stored = OrbitalElements.fromTle(ISS);
+        Sgp4Propagator fromText = Sgp4Propagator.fromTle(ISS);
+        Sgp4Propagator fromColumns = new Sgp4Propagator(stored.toTleElements("25544"));
+
+        assertEquals(LocalDateTime.of(2024, 1, 15, 12, 0), stored.getEpoch());
+        assertEquals(fromText.epochUnixMillis(), fromColumns.epochUnixMillis(), 1e-3);
+        double[] expected = new double[6];
+        double[] actual = new double[6];
+        for (long minutes = 0; minutes <= 1440; minutes += 360) {
+            double time = fromText.epochUnixMillis() + minutes * 60_000.0;
+            fromText.propagateTo(time, expected);
+            fromColumns.propagateTo(time, actual);
+            assertArrayEquals(expected, actual, 1e-6);
+        }
+    }
+
+    @Test
+    void derivesPerigeeAndApogeeAltitudes() {
+        OrbitalElements iss = OrbitalElements.fromTle(ISS);
+        assertEquals(413, iss.getPerigeeKm(), 10);
+        assertEquals(423, iss.getApogeeKm(), 10);
+
+        OrbitalElements geo = OrbitalElements.of(TleElements.parse(
+                "1 14128U 83058A   06176.02844893 -.00000158  00000-0  10000-3 0  9627",
+                "2 14128  11.4384  35.2134 0011562  26.4582 333.5652  0.98870114 46093"));
+        assertEquals(35786, (geo.getPerigeeKm() + geo.getApogeeKm()) / 2, 400);
+    }
+
+    @Test
+    void unparseableTextHasNoElements() {
+        assertNull(OrbitalElements.fromTle("no element lines"));
+        assertNull(OrbitalElements.fromTle(null));
+    }
+}
@@ -0,0 +1,163 @@
+package backend.satellite.propagation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConjunctionScreenerTests {
+
+    private static final double THRESHOLD_KM = 50.0;
+    private static final double WINDOW_MILLIS = 2 * 3_600_000.0;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void findsEveryApproachABruteForceScanFinds() {
+        Sgp4Propagator[] objects = crowdedShell(150);
+        double start = objects[0].epochUnixMillis();
+        List<ConjunctionScreener.Approach> approaches = screen(objects, null, start);
+        List<double[]> expected = bruteForce(objects, null, start);
+
+        assertFalse(expected.isEmpty());
+        for (double[] minimum : expected) {
+            assertTrue(approaches.stream().anyMatch(a -> a.first() == (int) minimum[0] && a.second() == (int) minimum[1]
+                            && Math.abs(a.tcaMillis() - minimum[2]) < 2_000.0 && a.missDistanceKm() <= minimum[3] + 1e-6),
+                    "missed approach " + (int) minimum[0] + "/" + (int) minimum[1] + " at " + minimum[2]);
+        }
+        for (ConjunctionScreener.Approach approach : approaches) {
+            assertTrue(approach.missDistanceKm() <= THRESHOLD_KM);
+            assertEquals(1, approaches.stream().filter(a -> a.first() == approach.first() && a.second() == approach.second()
+                    && Math.abs(a.tcaMillis() - approach.tcaMillis()) < 60_000.0).count(), "reported twice");
+        }
+    }
+
+    @Test
+    void oneVsAllOnlyReportsPairsWithThePrimary() {
+        Sgp4Propagator[] objects = crowdedShell(150);
+        double start = objects[0].epochUnixMillis();
+        List<ConjunctionScreener.Approach> all = screen(objects, null, start);
+        int busiest = all.get(0).first();
+        boolean[] primary = new boolean[objects.length];
+        primary[busiest] = true;
+
+        List<ConjunctionScreener.Approach> approaches = screen(objects, primary, start);
+
+        long expected = all.stream().filter(a -> a.first() == busiest || a.second() == busiest).count();
+        assertEquals(expected, approaches.size());
+        assertTrue(approaches.stream().allMatch(a -> a.first() == busiest));
+    }
+
+    @Test
+    void finishesWhenEveryExecutorThreadIsAScreeningJob() throws Exception {
+        // The only thread screens the job itself, so none of its helpers ever start
+        Sgp4Propagator[] objects = crowdedShell(150);
+        double start = objects[0].epochUnixMillis();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<ConjunctionScreener.Approach> approaches = executor.submit(() -> {
+                ConjunctionScreener screener = new ConjunctionScreener(objects, null, THRESHOLD_KM, 20.0, 30.0);
+                List<ConjunctionScreener.Approach> found = Collections.synchronizedList(new ArrayList<>());
+                screener.screen(start, start + WINDOW_MILLIS, executor, 4, new ConjunctionScreener.Listener() {
+                    @Override
+                    public void onApproach(ConjunctionScreener.Approach approach) {
+                        found.add(approach);
+                    }
+
+                    @Override
+                    public void onStepCompleted() {
+                    }
+                }, () -> false);
+                return found;
+            }).get(60, TimeUnit.SECONDS);
+
+            assertEquals(screen(objects, null, start).size(), approaches.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<ConjunctionScreener.Approach> screen(Sgp4Propagator[] objects, boolean[] primary, double start) {
+        ConjunctionScreener screener = new ConjunctionScreener(objects, primary, THRESHOLD_KM, 20.0, 30.0);
+        List<ConjunctionScreener.Approach> approaches = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger steps = new AtomicInteger();
+        screener.screen(start, start + WINDOW_MILLIS, pool, pool.getParallelism(), new ConjunctionScreener.Listener() {
+            @Override
+            public void onApproach(ConjunctionScreener.Approach approach) {
+                approaches.add(approach);
+            }
+
+            @Override
+            public void onStepCompleted() {
+                steps.incrementAndGet();
+            }
+        }, () -> false);
+        assertEquals(screener.stepCount(start, start + WINDOW_MILLIS), steps.get());
+        return approaches;
+    }
+
+    // Local distance minima below the threshold from 2 s sampling: {first, second, tca, distance}
+    private static List<double[]> bruteForce(Sgp4Propagator[] objects, boolean[] primary, double start) {
+        int samples = (int) (WINDOW_MILLIS / 2_000.0) + 1;
+        double[][] positions = new double[objects.length][samples * 3];
+        double[] state = new double[6];
+        for (int i = 0; i < objects.length; i++) {
+            for (int s = 0; s < samples; s++) {
+                objects[i].propagateTo(start + s * 2_000.0, state);
+                System.arraycopy(state, 0, positions[i], s * 3, 3);
+            }
+        }
+        List<double[]> minima = new ArrayList<>();
+        for (int i = 0; i < objects.length; i++) {
+            for (int j = i + 1; j < objects.length; j++) {
+                for (int s = 1; s < samples - 1; s++) {
+                    double d = distance(positions[i], positions[j], s);
+                    // Keep a margin below the threshold for the coarse sampling
+                    if (d < THRESHOLD_KM - 5.0 && d <= distance(positions[i], positions[j], s - 1)
+                            && d < distance(positions[i], positions[j], s + 1)) {
+                        minima.add(new double[]{i, j, start + s * 2_000.0, d});
+                    }
+                }
+            }
+        }
+        return minima;
+    }
+
+    private static double distance(double[] a, double[] b, int sample) {
+        double dx = a[sample * 3] - b[sample * 3];
+        double dy = a[sample * 3 + 1] - b[sample * 3 + 1];
+        double dz = a[sample * 3 + 2] - b[sample * 3 + 2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // Near-circular orbits at one altitude with spread planes, so many of them cross within two hours
+    private static Sgp4Propagator[] crowdedShell(int count) {
+        Sgp4Propagator[] objects = new Sgp4Propagator[count];
+        for (int i = 0; i < count; i++) {
+            String line1 = String.format(Locale.ROOT,
+                    "1 %05dU 24001A   24015.50000000  .00000000  00000-0  00000-0 0  9990", 90000 + i);
+            String line2 = String.format(Locale.ROOT, "2 %05d %8.4f %8.4f %07d %8.4f %8.4f %11.8f%05d",
+                    90000 + i, 45.0 + (i * 7.3) % 50.0, (i * 37.1) % 360.0, 10 + (i % 5) * 20,
+                    (i * 53.7) % 360.0, (i * 97.3) % 360.0, 15.05 + (i % 3) * 0.0001, 1);
+            objects[i] = new Sgp4Propagator(TleElements.parse(line1, line2));
+        }
+        return objects;
+    }
+}
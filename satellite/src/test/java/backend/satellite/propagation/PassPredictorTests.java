@@ -0,0 +1,77 @@
+package backend.satellite.propagation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PassPredictorTests {
+
+    private static final Sgp4Propagator ISS = new Sgp4Propagator(TleElements.parse(
+            "1 25544U 98067A   24015.52330648  .00016717  00000-0  30183-3 0  9994",
+            "2 25544  51.6416 247.4627 0004767  47.9553 312.1878 15.49594014435531"));
+    private static final Sgp4Propagator GEOSYNCHRONOUS = new Sgp4Propagator(TleElements.parse(
+            "1 28626U 05008A   06176.46683397 -.00000205  00000-0  10000-3 0  2190",
+            "2 28626   0.0019 286.9433 0000335  13.7918  55.6504  1.00270176  4891"));
+
+    private static final GroundStation STATION = new GroundStation(40.0, -75.0, 0.1);
+
+    @Test
+    void matchesOneSecondBruteForceSearch() {
+        for (double mask : new double[]{0.0, 10.0}) {
+            double start = ISS.epochUnixMillis();
+            double end = start + 3 * 86_400_000.0;
+
+            List<PassPredictor.Pass> passes = new PassPredictor(ISS, STATION, mask).findPasses(start, end);
+            List<double[]> expected = bruteForce(new PassPredictor(ISS, STATION, mask), mask, start, end);
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected.size(), passes.size(), "pass count with " + mask + " deg mask");
+            for (int i = 0; i < passes.size(); i++) {
+                PassPredictor.Pass pass = passes.get(i);
+                assertEquals(expected.get(i)[0], pass.aosMillis(), 1_000.0);
+                assertEquals(expected.get(i)[1], pass.losMillis(), 1_000.0);
+                assertEquals(expected.get(i)[2], pass.maxElevation(), 0.01);
+            }
+        }
+    }
+
+    @Test
+    void reportsAlwaysVisibleSatelliteAsOnePassSpanningTheWindow() {
+        GroundStation underGeo = new GroundStation(0.0, -50.0, 0.0);
+        double start = GEOSYNCHRONOUS.epochUnixMillis();
+        double end = start + 86_400_000.0;
+
+        List<PassPredictor.Pass> passes = new PassPredictor(GEOSYNCHRONOUS, underGeo, 5.0).findPasses(start, end);
+
+        assertEquals(1, passes.size());
+        assertEquals(start, passes.get(0).aosMillis());
+        assertEquals(end, passes.get(0).losMillis());
+    }
+
+    // Returns {aos, los, maxElevationDeg} for every interval the elevation stays at or above the mask
+    private static List<double[]> bruteForce(PassPredictor predictor, double mask, double start, double end) {
+        List<double[]> passes = new ArrayList<>();
+        double[] current = null;
+        for (double t = start; t <= end; t += 1_000.0) {
+            double elevation = Math.toDegrees(predictor.elevation(t));
+            if (elevation >= mask) {
+                if (current == null) {
+                    current = new double[]{t, t, elevation};
+                }
+                current[1] = t;
+                current[2] = Math.max(current[2], elevation);
+            } else if (current != null) {
+                passes.add(current);
+                current = null;
+            }
+        }
+        if (current != null) {
+            passes.add(current);
+        }
+        return passes;
+    }
+}
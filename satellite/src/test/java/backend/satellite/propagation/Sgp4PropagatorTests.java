@@ -0,0 +1,101 @@
+package backend.satellite.propagation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cases use TLEs from Vallado's SGP4 verification set. The 00005 states are the published reference output;
+// the deep-space states were generated with an independent SGP4 implementation
+class Sgp4PropagatorTests {
+
+    private static final double POSITION_TOLERANCE_KM = 1e-6;
+    private static final double VELOCITY_TOLERANCE_KM_S = 1e-9;
+
+    @Test
+    void matchesVerificationVectorsForNearEarthOrbit() {
+        Sgp4Propagator propagator = propagator(
+                "1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753",
+                "2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667");
+
+        assertFalse(propagator.isDeepSpace());
+        assertState(propagator, 0.0,
+                7022.46529266, -1400.08296755, 0.03995155, 1.893841015, 6.405893759, 4.534807250);
+        assertState(propagator, 360.0,
+                -7154.03120202, -3783.17682504, -3536.19412294, 4.741887409, -4.151817765, -2.093935425);
+        assertState(propagator, 720.0,
+                -7134.59340119, 6531.68641334, 3260.27186483, -4.113793027, -2.911922039, -2.557327851);
+    }
+
+    @Test
+    void matchesVerificationVectorsForHalfDayResonantOrbit() {
+        Sgp4Propagator propagator = propagator(
+                "1 08195U 75081A   06176.33215444  .00000099  00000-0  11873-3 0   813",
+                "2 08195  64.1586 279.0717 6877146 264.7651  20.2257  2.00491383225656");
+
+        assertTrue(propagator.isDeepSpace());
+        assertState(propagator, 0.0,
+                2349.89483350, -14785.93811562, 0.02119378, 2.721488096, -3.256811655, 4.498416672);
+        assertState(propagator, 1440.0,
+                2890.80638269, -15446.43952301, 948.77010179, 2.654407490, -2.909344895, 4.486437362);
+    }
+
+    @Test
+    void matchesVerificationVectorsForGeosynchronousOrbit() {
+        Sgp4Propagator propagator = propagator(
+                "1 14128U 83058A   06176.02844893 -.00000158  00000-0  10000-3 0  9627",
+                "2 14128  11.4384  35.2134 0011562  26.4582 333.5652  0.98870114 46093");
+
+        assertTrue(propagator.isDeepSpace());
+        assertState(propagator, 720.0,
+                -35597.57919549, -23407.91145392, 282.09554383, 1.641405246, -2.506773678, -0.606963478);
+        assertState(propagator, 1440.0,
+                36366.59147395, 22023.54245720, -601.47121821, -1.549681546, 2.571788981, 0.607057418);
+    }
+
+    @Test
+    void resultsDoNotDependOnCallOrder() {
+        Sgp4Propagator propagator = propagator(
+                "1 09880U 77021A   06176.56157475  .00000421  00000-0  10000-3 0  9814",
+                "2 09880  64.5968 349.3611 7069051 270.0229  16.3320  2.00813614112380");
+        double[] first = new double[6];
+        double[] second = new double[6];
+
+        propagator.propagate(2880.0, first);
+        propagator.propagate(-1440.0, second);
+        propagator.propagate(2880.0, second);
+
+        assertArrayEquals(first, second, 0.0);
+    }
+
+    @Test
+    void convertsEarthFixedPositionToGeodetic() {
+        double[] lla = new double[3];
+
+        Frames.ecefToGeodetic(new double[]{6378.137 + 400.0, 0.0, 0.0}, lla);
+        assertEquals(0.0, lla[0], 1e-9);
+        assertEquals(0.0, lla[1], 1e-9);
+        assertEquals(400.0, lla[2], 1e-6);
+
+        Frames.ecefToGeodetic(new double[]{0.0, 0.0, 6356.752314245 + 500.0}, lla);
+        assertEquals(90.0, lla[0], 1e-9);
+        assertEquals(500.0, lla[2], 1e-6);
+    }
+
+    private static Sgp4Propagator propagator(String line1, String line2) {
+        Sgp4Propagator propagator = new Sgp4Propagator(TleElements.parse(line1, line2));
+        assertEquals(Sgp4Propagator.OK, propagator.initError());
+        return propagator;
+    }
+
+    private static void assertState(Sgp4Propagator propagator, double tsince, double... expected) {
+        double[] state = new double[6];
+        assertEquals(Sgp4Propagator.OK, propagator.propagate(tsince, state));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected[i], state[i], POSITION_TOLERANCE_KM, "position[" + i + "] at " + tsince);
+            assertEquals(expected[i + 3], state[i + 3], VELOCITY_TOLERANCE_KM_S, "velocity[" + i + "] at " + tsince);
+        }
+    }
+}
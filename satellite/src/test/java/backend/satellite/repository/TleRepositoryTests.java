@@ -0,0 +1,147 @@
+package backend.satellite.repository;
+
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.tleData;
+import static backend.satellite.TleFixtures.tleString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The native upserts run against H2 in MySQL mode (the h2 profile) rather than an embedded default database
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class TleRepositoryTests {
+
+    @Autowired
+    private TleRepository tleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void upsertInsertsNewSatellitesWithTheirElements() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        tleRepository.upsertAll(List.of(tleData("25544", ISS, now), tleData("43013", "not a TLE", now)));
+        entityManager.clear();
+
+        TleData iss = tleRepository.findBySatNumber("25544");
+        assertNotNull(iss.getId());
+        assertEquals(ISS, iss.getTleString());
+        assertEquals(now, iss.getLastUpdated());
+        assertEquals(0, iss.getFetchCount());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 12, 0), iss.getElements().getEpoch());
+        assertEquals(51.6416, iss.getElements().getInclination());
+        assertNull(tleRepository.findBySatNumber("43013").getElements());
+    }
+
+    @Test
+    void upsertUpdatesAnExistingSatelliteAndKeepsItsFetchCount() {
+        LocalDateTime fetchedAt = LocalDateTime.now().minusHours(6).withNano(0);
+        tleRepository.upsertAll(List.of(tleData("25544", ISS, fetchedAt)));
+        tleRepository.incrementFetchCounts(Map.of("25544", 7L));
+        Long id = tleRepository.findBySatNumber("25544").getId();
+        entityManager.clear();
+
+        LocalDateTime refetchedAt = fetchedAt.plusHours(6);
+        String newer = tleString("25544", "24016.25000000");
+        tleRepository.upsertAll(List.of(tleData("25544", newer, refetchedAt)));
+        entityManager.clear();
+
+        TleData updated = tleRepository.findBySatNumber("25544");
+        assertEquals(id, updated.getId());
+        assertEquals(newer, updated.getTleString());
+        assertEquals(refetchedAt, updated.getLastUpdated());
+        assertEquals(7, updated.getFetchCount());
+        assertEquals(LocalDateTime.of(2024, 1, 16, 6, 0), updated.getElements().getEpoch());
+        assertEquals(1, tleRepository.count());
+    }
+
+    @Test
+    void searchFiltersOnTheElementColumnsInIdOrder() {
+        storeSearchRows();
+        ElementsFilter none = new ElementsFilter(null, null, null, null, null, null, null, null, null);
+
+        // Rows without elements are never matched
+        assertEquals(List.of("25544", "40001", "40002"), satNumbers(tleRepository.search(none, null, 10)));
+        assertEquals(List.of("40001", "40002"), satNumbers(tleRepository.search(
+                new ElementsFilter(90.0, null, null, null, null, null, null, null, null), null, 10)));
+        assertEquals(List.of("40001"), satNumbers(tleRepository.search(
+                new ElementsFilter(90.0, 100.0, null, 15.0, null, null, null, null, null), null, 10)));
+        assertEquals(List.of("25544"), satNumbers(tleRepository.search(
+                new ElementsFilter(null, 60.0, 15.5, null, 0.001, 300.0, 500.0, null, null), null, 10)));
+        assertEquals(List.of("25544", "40002"), satNumbers(tleRepository.search(
+                new ElementsFilter(null, null, null, null, null, null, null, LocalDateTime.of(2024, 1, 12, 0, 0), null),
+                null, 10)));
+        assertEquals(List.of("40001"), satNumbers(tleRepository.search(
+                new ElementsFilter(null, null, null, null, null, null, null, null, LocalDateTime.of(2024, 1, 12, 0, 0)),
+                null, 10)));
+    }
+
+    @Test
+    void searchPagesAfterAnId() {
+        storeSearchRows();
+        ElementsFilter none = new ElementsFilter(null, null, null, null, null, null, null, null, null);
+
+        List<TleData> first = tleRepository.search(none, null, 2);
+        assertEquals(List.of("25544", "40001"), satNumbers(first));
+        assertEquals(List.of("40002"), satNumbers(tleRepository.search(none, first.get(1).getId(), 2)));
+    }
+
+    @Test
+    void rowsWithoutElementsAreFoundAndFilled() {
+        storeSearchRows();
+
+        List<TleData> missing = tleRepository.findWithoutElements(null, 10);
+        assertEquals(List.of("43013"), satNumbers(missing));
+        TleData row = missing.get(0);
+        row.setElements(OrbitalElements.fromTle(ISS));
+        tleRepository.updateElements(List.of(row));
+
+        assertEquals(List.of(), tleRepository.findWithoutElements(null, 10));
+        assertEquals(List.of("25544", "40001", "40002", "43013"), satNumbers(tleRepository.search(
+                new ElementsFilter(null, null, null, null, null, null, null, null, null), null, 10)));
+    }
+
+    @Test
+    void storedEpochsMatchTheParsedElementsExactly() {
+        String fractional = tleString("40001", "24015.52330648");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        tleRepository.upsertAll(List.of(tleData("40001", fractional, now), tleData("43013", "not a TLE", now)));
+
+        assertEquals(Map.of("40001", OrbitalElements.fromTle(fractional).getEpoch()), tleRepository.findEpochs());
+    }
+
+    // ISS, two sun-synchronous satellites (97.5 degrees, epochs 10 and 16 January 2024) and a row that never parsed
+    private void storeSearchRows() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        tleRepository.upsertAll(List.of(
+                tleData("25544", ISS, now),
+                tleData("40001", sunSynchronous("40001", "24010.00000000", "14.80000000"), now),
+                tleData("40002", sunSynchronous("40002", "24016.00000000", "15.20000000"), now),
+                tleData("43013", "not a TLE", now)));
+        entityManager.clear();
+    }
+
+    private static String sunSynchronous(String satNumber, String epochField, String meanMotion) {
+        return tleString(satNumber, epochField).replace("51.6416", "97.5000").replace("15.49815308", meanMotion);
+    }
+
+    private static List<String> satNumbers(List<TleData> rows) {
+        return rows.stream().map(TleData::getSatNumber).toList();
+    }
+}
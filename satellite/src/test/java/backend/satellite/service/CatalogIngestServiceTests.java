@@ -0,0 +1,79 @@
+package backend.satellite.service;
+
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.repository.TleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.ISS_LINE1;
+import static backend.satellite.TleFixtures.ISS_LINE2;
+import static backend.satellite.TleFixtures.tleString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs are called directly; nothing is scheduled in this context
+@SpringJUnitConfig(CatalogIngestService.class)
+@TestPropertySource(properties = {"tle.ingest.enabled=true", "tle.ingest.source=file"})
+class CatalogIngestServiceTests {
+
+    @MockBean
+    private SpaceTrackSession spaceTrackSession;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleCache tleCache;
+
+    @MockBean
+    private TleHistoryService tleHistoryService;
+
+    @Autowired
+    private CatalogIngestService catalogIngestService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void firstRunAfterARestartSkipsRecordsWhoseEpochIsAlreadyStored() throws Exception {
+        String[] newer = tleString("43013", "24016.50000000").split("\r\n");
+        Path catalog = tempDir.resolve("catalog.json");
+        Files.writeString(catalog, "[" + record("25544", ISS_LINE1, ISS_LINE2) + "," + record("43013", newer[1], newer[2]) + "]");
+        ReflectionTestUtils.setField(catalogIngestService, "file", catalog.toString());
+        when(tleRepository.findEpochs()).thenReturn(Map.of("25544", OrbitalElements.fromTle(ISS).getEpoch()));
+
+        catalogIngestService.ingestCatalog();
+
+        verify(tleCache).invalidate("43013");
+        verify(tleCache, never()).invalidate("25544");
+
+        // Both epochs are known now, so the next run writes nothing
+        catalogIngestService.ingestCatalog();
+
+        verify(tleRepository, times(1)).upsertAll(anyList());
+        verify(tleHistoryService, times(1)).append(anyList());
+        verify(tleRepository, times(1)).findEpochs();
+    }
+
+    private static String record(String noradCatId, String line1, String line2) {
+        return "{\"OBJECT_NAME\":\"SAT " + noradCatId + "\",\"NORAD_CAT_ID\":\"" + noradCatId + "\","
+                + "\"EPOCH\":\"2024-01-15T12:00:00.000000\",\"TLE_LINE1\":\"" + line1 + "\",\"TLE_LINE2\":\"" + line2 + "\"}";
+    }
+}
@@ -0,0 +1,98 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Against a local stand-in for Celestrak's gp.php
+class CelestrakClientTests {
+
+    private static final String ISS = "ISS (ZARYA)             \r\n"
+            + "1 25544U 98067A   24015.50000000  .00016717  00000-0  30183-3 0  9990\r\n"
+            + "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537\r\n";
+    private static final String VANGUARD = "VANGUARD 1\n"
+            + "1 00005U 58002B   24015.17424154  .00000270  00000-0  34683-3 0  9997\n"
+            + "2 00005  34.2450 300.5538 1843213 145.7226 227.8633 10.85096751345407\n";
+
+    private HttpServer server;
+    private CelestrakClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+        server.createContext("/NORAD/elements/gp.php", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            int status = 200;
+            String body = "No GP data found";
+            if (query.contains("CATNR=25544")) {
+                body = ISS;
+            } else if (query.contains("CATNR=5&")) {
+                body = VANGUARD;
+            } else if (query.contains("CATNR=500")) {
+                status = 500;
+                body = "down";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        client = new CelestrakClient();
+        ReflectionTestUtils.setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "maxBatch", 10);
+        ReflectionTestUtils.setField(client, "failureThreshold", 1);
+        ReflectionTestUtils.setField(client, "openSeconds", 30L);
+        ReflectionTestUtils.setField(client, "restTemplate", new RestTemplate());
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsThreeLineElementSets() {
+        GpRecord record = client.fetchLatest("25544");
+        assertEquals("25544", record.noradCatId());
+        assertEquals("ISS (ZARYA)", record.objectName());
+        assertEquals("2024-01-15T12:00", record.epoch());
+        assertEquals(ISS.replace("             \r\n1", "\r\n1"), record.tleString());
+    }
+
+    @Test
+    void batchQueriesEachSatelliteAndSkipsUnknownOnes() {
+        List<GpRecord> records = client.fetchBatch(List.of("25544", "5", "99999"));
+        assertEquals(List.of("25544", "5"), records.stream().map(GpRecord::noradCatId).toList());
+    }
+
+    @Test
+    void unknownSatelliteIsNotFound() {
+        assertThrows(TleDataNotFoundException.class, () -> client.fetchLatest("99999"));
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuit() {
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("500"));
+        assertFalse(client.isAvailable());
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("25544"));
+    }
+}
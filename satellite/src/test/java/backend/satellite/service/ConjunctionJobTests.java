@@ -0,0 +1,61 @@
+package backend.satellite.service;
+
+import backend.satellite.model.Conjunction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConjunctionJobTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void resultStreamFollowsTheJobUntilItFinishes() throws Exception {
+        ConjunctionJob job = new ConjunctionJob("job", 10);
+        job.start();
+        job.add(conjunction("25544"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CompletableFuture<Void> stream = CompletableFuture.runAsync(() -> {
+            try {
+                job.writeResults(out, objectMapper);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(stream.isDone());
+
+        job.add(conjunction("20580"));
+        job.finish(ConjunctionJob.State.COMPLETED, null);
+        stream.get(5, TimeUnit.SECONDS);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"primary\":\"20580\""));
+    }
+
+    @Test
+    void dropsResultsBeyondTheLimitAndReportsTruncation() {
+        ConjunctionJob job = new ConjunctionJob("job", 1);
+        job.add(conjunction("25544"));
+        job.add(conjunction("20580"));
+
+        assertEquals(1, job.status().conjunctions());
+        assertTrue(job.status().truncated());
+    }
+
+    private static Conjunction conjunction(String primary) {
+        return new Conjunction(primary, "99999", Instant.parse("2024-01-15T12:00:00Z"), 1.5, 10.2);
+    }
+}
@@ -0,0 +1,92 @@
+package backend.satellite.service;
+
+import backend.satellite.model.ConjunctionJobStatus;
+import backend.satellite.model.ConjunctionScreeningRequest;
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.tleData;
+import static backend.satellite.TleFixtures.tleString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({ConjunctionService.class, PropagationService.class, ConjunctionServiceTests.Config.class})
+class ConjunctionServiceTests {
+
+    private static final Instant START = Instant.parse("2024-01-15T12:00:00Z");
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleService tleService;
+
+    @Autowired
+    private ConjunctionService conjunctionService;
+
+    @Test
+    void screensStoredRowsWithoutCountingThemAsFetches() throws Exception {
+        List<String> ids = List.of("25544", "20580");
+        when(tleRepository.findBySatNumberIn(ids)).thenReturn(List.of(
+                tleData("20580", tleString("20580", "24015.50000000"), LocalDateTime.now()),
+                tleData("25544", ISS, LocalDateTime.now())));
+
+        ConjunctionJobStatus status = screen(ids);
+
+        assertEquals("COMPLETED", status.state());
+        assertEquals(2, status.objects());
+        verifyNoInteractions(tleService);
+    }
+
+    @Test
+    void failsWhenARequestedSatelliteHasNoStoredTle() throws Exception {
+        List<String> ids = List.of("25544", "20580");
+        when(tleRepository.findBySatNumberIn(ids)).thenReturn(List.of(tleData("25544", ISS, LocalDateTime.now())));
+
+        ConjunctionJobStatus status = screen(ids);
+
+        assertEquals("FAILED", status.state());
+        assertTrue(status.error().contains("20580"));
+        verifyNoInteractions(tleService);
+    }
+
+    private ConjunctionJobStatus screen(List<String> ids) throws InterruptedException {
+        ConjunctionJob job = conjunctionService.submit(
+                new ConjunctionScreeningRequest(null, ids, START, START.plusSeconds(3_600), null, null));
+        for (int i = 0; i < 200 && !job.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(job.isFinished());
+        return job.status();
+    }
+
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ThreadPoolTaskExecutor conjunctionExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.setMaxPoolSize(2);
+            return executor;
+        }
+    }
+}
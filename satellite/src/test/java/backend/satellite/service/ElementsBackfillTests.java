@@ -0,0 +1,67 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs are called directly; nothing is scheduled in this context
+@SpringJUnitConfig(ElementsBackfill.class)
+@TestPropertySource(properties = "tle.elements.backfill.batch-size=2")
+class ElementsBackfillTests {
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleCache tleCache;
+
+    @MockBean
+    private TleHistoryService tleHistoryService;
+
+    @Autowired
+    private ElementsBackfill elementsBackfill;
+
+    @Test
+    void unparseableRowsAreNotReadAgainOnLaterRuns() {
+        LocalDateTime now = LocalDateTime.now();
+        TleData iss = tleData(3L, "25544", ISS, now);
+        TleData garbled = tleData(5L, "43013", "not a TLE", now);
+        when(tleRepository.findWithoutElements(0L, 2)).thenReturn(List.of(iss, garbled));
+        when(tleRepository.findWithoutElements(5L, 2)).thenReturn(List.of());
+
+        elementsBackfill.backfill();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TleData>> updated = ArgumentCaptor.forClass(List.class);
+        verify(tleRepository).updateElements(updated.capture());
+        assertEquals(List.of(iss), updated.getValue());
+        assertNotNull(iss.getElements());
+        verify(tleHistoryService).append(List.of(iss));
+        verify(tleCache).invalidate("25544");
+        verify(tleCache, never()).invalidate("43013");
+
+        // The next run starts after the garbled row
+        elementsBackfill.backfill();
+        verify(tleRepository).findWithoutElements(0L, 2);
+        verify(tleRepository, times(2)).findWithoutElements(5L, 2);
+        verify(tleRepository).updateElements(anyList());
+    }
+}
@@ -0,0 +1,89 @@
+package backend.satellite.service;
+
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EphemerisStreamTests {
+
+    private static final Sgp4Propagator NEAR_EARTH = new Sgp4Propagator(TleElements.parse(
+            "1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753",
+            "2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667"));
+    private static final Sgp4Propagator GEOSYNCHRONOUS = new Sgp4Propagator(TleElements.parse(
+            "1 14128U 83058A   06176.02844893 -.00000158  00000-0  10000-3 0  9627",
+            "2 14128  11.4384  35.2134 0011562  26.4582 333.5652  0.98870114 46093"));
+    // Very high drag, so the orbit decays within a few days of epoch
+    private static final Sgp4Propagator DECAYING = new Sgp4Propagator(TleElements.parse(
+            "1 06251U 62025E   06176.82412014  .00008885  00000-0  12808-0 0  3985",
+            "2 06251  58.0579  54.0425 0030035 139.1568 221.1854 15.56387291  6774"));
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void writesBinaryRecordsInSatelliteAndTimeOrder() throws Exception {
+        long start = (long) NEAR_EARTH.epochUnixMillis();
+        EphemerisStream stream = new EphemerisStream(List.of("5", "14128"), List.of(NEAR_EARTH, GEOSYNCHRONOUS),
+                start, 60_000, 100, EphemerisFormat.BINARY, 7, 3, pool);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stream.writeTo(out);
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(200 * EphemerisFormat.BINARY_RECORD_BYTES, buffer.remaining());
+        double[] expected = new double[6];
+        for (int record = 0; record < 200; record++) {
+            Sgp4Propagator propagator = record < 100 ? NEAR_EARTH : GEOSYNCHRONOUS;
+            long time = start + (record % 100) * 60_000L;
+            propagator.propagateTo(time, expected);
+
+            assertEquals(record < 100 ? 5 : 14128, buffer.getInt());
+            assertEquals(Sgp4Propagator.OK, buffer.getInt());
+            assertEquals(time, buffer.getLong());
+            for (double value : expected) {
+                assertEquals(value, buffer.getDouble(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void stopsASatelliteAtItsFirstPropagationError() throws Exception {
+        long start = (long) DECAYING.epochUnixMillis();
+        EphemerisStream stream = new EphemerisStream(List.of("6251", "5"), List.of(DECAYING, NEAR_EARTH),
+                start, 3_600_000, 24 * 30, EphemerisFormat.NDJSON, 16, 4, pool);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stream.writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        long errors = 0;
+        int decayingLines = 0;
+        for (String line : lines) {
+            if (line.startsWith("{\"satNumber\":\"6251\"")) {
+                decayingLines++;
+                if (line.contains("\"error\"")) {
+                    errors++;
+                    assertEquals(decayingLines, lines.length - 24 * 30, "error must be the last record for 6251");
+                }
+            }
+        }
+        assertEquals(1, errors);
+        assertTrue(decayingLines < 24 * 30);
+        assertTrue(lines[lines.length - 1].startsWith("{\"satNumber\":\"5\""));
+    }
+}
@@ -0,0 +1,86 @@
+package backend.satellite.service;
+
+import backend.satellite.repository.TleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// Flushes are called directly; nothing is scheduled in this context
+@SpringJUnitConfig(FetchCountAggregator.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FetchCountAggregatorTests {
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @Autowired
+    private FetchCountAggregator aggregator;
+
+    @Test
+    void accumulatesConcurrentIncrementsPerSatellite() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            String satNumber = i % 4 == 0 ? "43013" : "25544";
+            pool.execute(() -> aggregator.increment(satNumber));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(Map.of("25544", 750L, "43013", 250L), aggregator.pendingCounts());
+    }
+
+    @Test
+    void flushWritesDeltasOnceAndMovesThemToRecentCounts() {
+        aggregator.increment("25544");
+        aggregator.increment("25544");
+        aggregator.increment("43013");
+
+        aggregator.flush();
+        verify(tleRepository).incrementFetchCounts(Map.of("25544", 2L, "43013", 1L));
+        assertEquals(Map.of(), aggregator.pendingCounts());
+        assertEquals(2.0, aggregator.recentCounts().get("25544"), 0.01);
+        assertEquals(1.0, aggregator.recentCounts().get("43013"), 0.01);
+
+        // Nothing new to write
+        aggregator.flush();
+        verify(tleRepository).incrementFetchCounts(anyMap());
+    }
+
+    @Test
+    void failedFlushRequeuesDeltasWithoutCountingThemTwice() {
+        aggregator.increment("25544");
+        doThrow(new IllegalStateException("database down")).when(tleRepository).incrementFetchCounts(Map.of("25544", 1L));
+
+        aggregator.flush();
+        assertEquals(Map.of("25544", 1L), aggregator.pendingCounts());
+        assertEquals(Map.of(), aggregator.recentCounts());
+
+        aggregator.increment("25544");
+        aggregator.flush();
+        verify(tleRepository).incrementFetchCounts(Map.of("25544", 2L));
+        assertEquals(2.0, aggregator.recentCounts().get("25544"), 0.01);
+    }
+
+    @Test
+    void restoredCountsAreDecayedForTheirAge() {
+        aggregator.restoreRecentCounts(Map.of("25544", 8.0, "43013", 0.01), TimeUnit.MINUTES.toNanos(120));
+
+        // Two default half-lives; counts that decay below 0.01 are dropped
+        assertEquals(Map.of("25544", 2.0), aggregator.recentCounts());
+        verify(tleRepository, never()).incrementFetchCounts(anyMap());
+    }
+}
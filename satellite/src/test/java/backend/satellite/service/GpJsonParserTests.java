@@ -0,0 +1,54 @@
+package backend.satellite.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GpJsonParserTests {
+
+    private static final String LINE1 = "1 25544U 98067A   24015.52330648  .00016717  00000-0  30183-3 0  9994";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0004767  47.9553 312.1878 15.49594014435531";
+
+    @Test
+    void readsEveryRecordOfAnArray() throws Exception {
+        String json = "[" + record("25544", "ISS (ZARYA)") + "," + record("20580", "HST") + "]";
+
+        List<GpRecord> records = GpJsonParser.parse(json);
+
+        assertEquals(2, records.size());
+        assertEquals("25544", records.get(0).noradCatId());
+        assertEquals("HST", records.get(1).objectName());
+        assertEquals("ISS (ZARYA)\r\n" + LINE1 + "\r\n" + LINE2 + "\r\n", records.get(0).tleString());
+    }
+
+    @Test
+    void handlesEscapesWhitespaceAndNestedValues() throws Exception {
+        String json = "[ {\n  \"OBJECT_NAME\" : \"SAT \\\"QUOTED\\\"\",\n  \"EXTRA\" : {\"TLE_LINE1\": \"decoy\"},"
+                + "\n  \"NORAD_CAT_ID\" : 99999,\n  \"TLE_LINE1\" : \"" + LINE1 + "\",\n  \"TLE_LINE2\" : \"" + LINE2 + "\"\n} ]";
+
+        GpRecord record = GpJsonParser.parse(json).get(0);
+
+        assertEquals("SAT \"QUOTED\"", record.objectName());
+        assertEquals("99999", record.noradCatId());
+        assertEquals(LINE1, record.tleLine1());
+        assertTrue(record.isComplete());
+    }
+
+    @Test
+    void reportsIncompleteRecordsAndMalformedInput() throws Exception {
+        assertFalse(GpJsonParser.parse("[{\"NORAD_CAT_ID\":\"1\",\"DECAY_DATE\":null}]").get(0).isComplete());
+        assertTrue(GpJsonParser.parse("[]").isEmpty());
+        assertThrows(JsonProcessingException.class, () -> GpJsonParser.parse("{\"error\":"));
+    }
+
+    private static String record(String noradCatId, String objectName) {
+        return "{\"OBJECT_NAME\":\"" + objectName + "\",\"NORAD_CAT_ID\":\"" + noradCatId + "\","
+                + "\"EPOCH\":\"2024-01-15T12:33:33.679872\",\"TLE_LINE1\":\"" + LINE1 + "\",\"TLE_LINE2\":\"" + LINE2 + "\"}";
+    }
+}
@@ -0,0 +1,91 @@
+package backend.satellite.service;
+
+import backend.satellite.model.SatellitePass;
+import backend.satellite.propagation.GroundStation;
+import backend.satellite.propagation.PassPredictor;
+import backend.satellite.propagation.Sgp4Propagator;
+import backend.satellite.propagation.TleElements;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PassPredictionServiceTests {
+
+    private static final Sgp4Propagator ISS = new Sgp4Propagator(TleElements.parse(
+            "1 25544U 98067A   24015.52330648  .00016717  00000-0  30183-3 0  9994",
+            "2 25544  51.6416 247.4627 0004767  47.9553 312.1878 15.49594014435531"));
+    private static final GroundStation STATION = new GroundStation(51.5, -0.1, 0.0);
+
+    private ForkJoinPool pool;
+    private PassPredictionService service;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        service = new PassPredictionService();
+        ReflectionTestUtils.setField(service, "bucketHours", 1L);
+        ReflectionTestUtils.setField(service, "maxWindowDays", 10L);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(service, "propagationPool", pool);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "propagationService", new PropagationService() {
+            @Override
+            public Map<String, Sgp4Propagator> getPropagators(List<String> satNumbers) {
+                return Map.of("25544", ISS);
+            }
+        });
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void stitchesPassesAcrossBucketBoundaries() {
+        // Hour-long buckets split several passes; the result must match one uninterrupted search
+        Instant start = Instant.ofEpochMilli(Math.round(ISS.epochUnixMillis()) + 1_234_567);
+        Instant end = start.plusSeconds(2 * 86_400);
+        List<PassPredictor.Pass> expected = new PassPredictor(ISS, STATION, 10.0)
+                .findPasses(start.toEpochMilli() - 3_600_000.0, end.toEpochMilli() + 3_600_000.0)
+                .stream()
+                .filter(pass -> pass.losMillis() >= start.toEpochMilli() && pass.aosMillis() <= end.toEpochMilli())
+                .toList();
+
+        List<SatellitePass> passes = service.predictPasses(List.of("25544"), STATION, 10.0, start, end);
+
+        assertEquals(expected.size(), passes.size());
+        for (int i = 0; i < passes.size(); i++) {
+            assertEquals(expected.get(i).aosMillis(), passes.get(i).aos().toEpochMilli(), 20.0);
+            assertEquals(expected.get(i).losMillis(), passes.get(i).los().toEpochMilli(), 20.0);
+            assertEquals(expected.get(i).maxElevation(), passes.get(i).maxElevation(), 1e-3);
+        }
+    }
+
+    @Test
+    void slidingWindowOnlyComputesTheNewBucket() {
+        Instant start = Instant.ofEpochMilli(Math.round(ISS.epochUnixMillis()));
+        service.predictPasses(List.of("25544"), STATION, 10.0, start, start.plusSeconds(86_400));
+        long computed = computedBuckets();
+
+        service.predictPasses(List.of("25544"), STATION, 10.0, start.plusSeconds(3_600), start.plusSeconds(90_000));
+
+        assertEquals(computed + 1, computedBuckets());
+    }
+
+    private long computedBuckets() {
+        Cache<?, ?> buckets = (Cache<?, ?>) ReflectionTestUtils.getField(service, "buckets");
+        return buckets.stats().missCount();
+    }
+}
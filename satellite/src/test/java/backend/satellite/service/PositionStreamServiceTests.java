@@ -0,0 +1,232 @@
+package backend.satellite.service;
+
+import backend.satellite.model.SatellitePosition;
+import backend.satellite.model.StateVector;
+import backend.satellite.model.TleData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PositionStreamServiceTests {
+
+    // Long enough that the service's own ticker never fires during a test; ticks are driven by hand
+    private static final long TICK_MS = 3_600_000;
+
+    private final List<Runnable> sends = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ForkJoinPool propagationPool = new ForkJoinPool(2);
+    private PropagationService propagationService;
+    private PositionStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        TleCache tleCache = mock(TleCache.class);
+        when(tleCache.getIfPresent(anyString())).thenAnswer(invocation -> {
+            TleData tleData = new TleData();
+            tleData.setSatNumber(invocation.getArgument(0));
+            return tleData;
+        });
+        propagationService = mock(PropagationService.class);
+        when(propagationService.positionOf(anyString(), any(), any())).thenAnswer(invocation -> {
+            StateVector zero = new StateVector(0, 0, 0, 0, 0, 0);
+            return new SatellitePosition(invocation.getArgument(0), invocation.getArgument(2), Instant.EPOCH,
+                    zero, zero, 0, 0, 400);
+        });
+
+        streamService = new PositionStreamService();
+        ReflectionTestUtils.setField(streamService, "tickMs", TICK_MS);
+        ReflectionTestUtils.setField(streamService, "maxIntervalSeconds", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(streamService, "maxIds", 100);
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(streamService, "maxDurationMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "maxConflated", 3);
+        ReflectionTestUtils.setField(streamService, "retryMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "tleService", mock(TleService.class));
+        ReflectionTestUtils.setField(streamService, "tleCache", tleCache);
+        ReflectionTestUtils.setField(streamService, "propagationService", propagationService);
+        ReflectionTestUtils.setField(streamService, "objectMapper", new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        ReflectionTestUtils.setField(streamService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(streamService, "propagationPool", propagationPool);
+        ReflectionTestUtils.setField(streamService, "sendExecutor", (Executor) sends::add);
+        streamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+        propagationPool.shutdown();
+    }
+
+    @Test
+    void propagatesEachSatelliteOncePerTickForAllSubscribers() throws Exception {
+        int intervalSeconds = (int) (TICK_MS / 1000);
+        subscribe(List.of("25544"), intervalSeconds);
+        subscribe(List.of("25544", "25544"), intervalSeconds);
+        subscribe(List.of("25544", "43013"), 2 * intervalSeconds);
+
+        streamService.tick(1000 * TICK_MS);
+        verify(propagationService, times(1)).positionOf(eq("25544"), any(), any());
+        verify(propagationService, times(1)).positionOf(eq("43013"), any(), any());
+        assertEquals(3, sends.size());
+
+        // Only the every-tick subscribers are due on an odd tick
+        clearInvocations(propagationService);
+        streamService.tick(1001 * TICK_MS);
+        verify(propagationService, times(1)).positionOf(eq("25544"), any(), any());
+        verify(propagationService, never()).positionOf(eq("43013"), any(), any());
+        assertEquals(2.0, meterRegistry.get("tle.stream.satellites").gauge().value());
+    }
+
+    @Test
+    void eventsWaitingForASenderAreConflatedWithoutCountingAgainstTheSubscriber() throws Exception {
+        Client client = subscribe(List.of("25544"), (int) (TICK_MS / 1000));
+
+        // The sender never runs, so every tick after the first replaces the undelivered event
+        for (int tick = 0; tick < 10; tick++) {
+            streamService.tick((1000 + tick) * TICK_MS);
+        }
+        assertEquals(1, sends.size());
+        assertEquals(9.0, meterRegistry.get("tle.stream.conflated").counter().count());
+        assertEquals(1, streamService.subscriberCount());
+
+        sends.get(0).run();
+        assertEquals(1, client.out.events());
+        assertTrue(client.out.text().contains("\"time\":\"" + Instant.ofEpochMilli(1009 * TICK_MS)));
+    }
+
+    @Test
+    void clientWhoseSocketStaysFullIsDisconnectedWithoutHoldingASender() throws Exception {
+        Client stalled = subscribe(List.of("25544"), (int) (TICK_MS / 1000));
+        Client healthy = subscribe(List.of("25544"), (int) (TICK_MS / 1000));
+        stalled.out.ready = false;
+
+        // Each drain returns at once: the stalled client's event waits in the container, not on a sender thread
+        for (int tick = 0; tick < 4; tick++) {
+            streamService.tick((1000 + tick) * TICK_MS);
+            runSends();
+        }
+        assertEquals(4, healthy.out.events());
+        assertEquals(0, stalled.out.events());
+        assertEquals(2, streamService.subscriberCount());
+
+        streamService.tick(1004 * TICK_MS);
+        runSends();
+        assertEquals(1, streamService.subscriberCount());
+        assertFalse(stalled.request.isAsyncStarted());
+        assertEquals(1.0, meterRegistry.get("tle.stream.disconnects").tag("reason", "slow").counter().count());
+        assertEquals(5, healthy.out.events());
+    }
+
+    @Test
+    void blockedClientCatchesUpWithTheNewestEventOnceItCanTakeData() throws Exception {
+        Client client = subscribe(List.of("25544"), (int) (TICK_MS / 1000));
+        client.out.ready = false;
+        for (int tick = 0; tick < 3; tick++) {
+            streamService.tick((1000 + tick) * TICK_MS);
+            runSends();
+        }
+
+        client.out.ready = true;
+        client.out.listener.onWritePossible();
+        assertEquals(1, client.out.events());
+        assertTrue(client.out.text().contains("\"time\":\"" + Instant.ofEpochMilli(1002 * TICK_MS)));
+
+        // Caught up, so the count of ticks behind starts over
+        client.out.ready = false;
+        for (int tick = 3; tick < 6; tick++) {
+            streamService.tick((1000 + tick) * TICK_MS);
+            runSends();
+        }
+        assertEquals(1, streamService.subscriberCount());
+    }
+
+    private Client subscribe(List<String> satNumbers, int intervalSeconds) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        StubOutputStream out = new StubOutputStream();
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return out;
+            }
+        };
+        streamService.subscribe(satNumbers, intervalSeconds, request, response);
+        return new Client(request, out);
+    }
+
+    private void runSends() {
+        List<Runnable> queued = List.copyOf(sends);
+        sends.clear();
+        queued.forEach(Runnable::run);
+    }
+
+    private record Client(MockHttpServletRequest request, StubOutputStream out) {
+    }
+
+    // A socket that takes everything while ready; writing when not ready is an error, as in the container
+    private static final class StubOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private volatile boolean ready = true;
+        private WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            if (!ready) {
+                throw new IllegalStateException("Write while not ready");
+            }
+            written.write(b);
+        }
+
+        String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+
+        int events() {
+            return text().split("event:positions\n", -1).length - 1;
+        }
+    }
+}
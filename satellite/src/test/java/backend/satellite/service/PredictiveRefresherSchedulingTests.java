@@ -0,0 +1,89 @@
+package backend.satellite.service;
+
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Scheduling runs for real on the default single scheduler thread: the refresh and the fetch-count flush fire every
+// 50 ms. Nothing is hot, so the refresh leaves the cache and the service alone, until the test counts a request
+@SpringJUnitConfig({PredictiveRefresher.class, FetchCountAggregator.class, PredictiveRefresherSchedulingTests.Config.class})
+@TestPropertySource(properties = {
+        "tle.refresh.interval-ms=50",
+        "tle.refresh.initial-delay-ms=0",
+        "tle.fetch-count.flush-interval-ms=50"})
+class PredictiveRefresherSchedulingTests {
+
+    private static final CountDownLatch refreshStarted = new CountDownLatch(1);
+    private static final CountDownLatch releaseRefresh = new CountDownLatch(1);
+
+    @Autowired
+    private FetchCountAggregator fetchCountAggregator;
+
+    @MockBean
+    private TleService tleService;
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleCache tleCache;
+
+    @AfterEach
+    void tearDown() {
+        releaseRefresh.countDown();
+    }
+
+    @Test
+    void fetchCountsKeepFlushingWhileARefreshIsBlockedUpstream() throws Exception {
+        // 25544 is due, and its refresh waits until the test is over
+        when(tleCache.getIfPresent("25544")).thenReturn(tleData("25544", LocalDateTime.now().minusHours(6)));
+        when(tleService.refreshAhead(anyMap())).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            releaseRefresh.await();
+            return List.of();
+        });
+        fetchCountAggregator.increment("25544");
+        assertTrue(refreshStarted.await(2, TimeUnit.SECONDS));
+
+        fetchCountAggregator.increment("43013");
+        verify(tleRepository, timeout(2000)).incrementFetchCounts(Map.of("43013", 1L));
+        verify(tleService, timeout(2000).times(1)).refreshAhead(anyMap());
+    }
+
+    @EnableScheduling
+    static class Config {
+
+        @Bean(destroyMethod = "shutdownNow")
+        ExecutorService upstreamExecutor() {
+            return Executors.newFixedThreadPool(2);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
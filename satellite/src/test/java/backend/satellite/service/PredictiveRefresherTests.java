@@ -0,0 +1,107 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleData;
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({PredictiveRefresher.class, PredictiveRefresherTests.Config.class})
+@TestPropertySource(properties = {
+        "tle.refresh.top-n=3",
+        "tle.refresh.lead-minutes=30",
+        "tle.refresh.max-calls-per-hour=1",
+        "tle.batch.upstream-chunk-size=1"})
+// The upstream budget and the meters belong to one test
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PredictiveRefresherTests {
+
+    @MockBean
+    private TleService tleService;
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleCache tleCache;
+
+    @MockBean
+    private FetchCountAggregator fetchCountAggregator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PredictiveRefresher refresher;
+
+    @Test
+    void picksHotSatellitesDueWithinLeadTimeMostUrgentFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        // Stale 10 minutes from now, in two hours, and already stale
+        TleData recentDue = tleData("25544", now.minusHours(5).plusMinutes(10));
+        TleData recentFresh = tleData("43013", now.minusHours(3));
+        TleData lifetimeStale = tleData("20580", now.minusHours(6));
+        when(fetchCountAggregator.recentCounts()).thenReturn(Map.of("25544", 10.0, "43013", 5.0));
+        when(tleRepository.findMostFetched(3)).thenReturn(List.of(tleData("25544", now), lifetimeStale));
+        when(tleCache.getIfPresent("25544")).thenReturn(recentDue);
+        when(tleRepository.findBySatNumberIn(List.of("43013"))).thenReturn(List.of(recentFresh));
+
+        assertEquals(List.of("20580", "25544"),
+                refresher.dueSatellites(now).stream().map(TleData::getSatNumber).toList());
+    }
+
+    @Test
+    void defersWhatTheUpstreamBudgetDoesNotCover() {
+        LocalDateTime now = LocalDateTime.now();
+        when(fetchCountAggregator.recentCounts()).thenReturn(Map.of("25544", 10.0, "43013", 5.0));
+        when(tleRepository.findMostFetched(anyInt())).thenReturn(List.of());
+        when(tleCache.getIfPresent("25544")).thenReturn(tleData("25544", now.minusHours(5).plusMinutes(5)));
+        when(tleCache.getIfPresent("43013")).thenReturn(tleData("43013", now.minusHours(5).plusMinutes(10)));
+        when(tleService.refreshAhead(anyMap())).thenAnswer(invocation -> {
+            Map<String, LocalDateTime> staleAt = invocation.getArgument(0);
+            return staleAt.keySet().stream().map(satNumber -> tleData(satNumber, LocalDateTime.now())).toList();
+        });
+
+        refresher.refresh();
+
+        verify(tleService, times(1)).refreshAhead(any());
+        verify(tleService).refreshAhead(Map.of("25544", now.minusHours(5).plusMinutes(5).plusHours(TleService.CACHE_HOURS)));
+        assertEquals(1.0, meterRegistry.get("tle.refresh.predicted").tag("outcome", "success").counter().count());
+        assertEquals(1.0, meterRegistry.get("tle.refresh.predicted").tag("outcome", "deferred").counter().count());
+        assertEquals(1, meterRegistry.get("tle.refresh.lag").timer().count());
+    }
+
+    static class Config {
+
+        // Runs the refresh on the calling thread, so a test sees its outcome as soon as refresh() returns
+        @Bean
+        Executor upstreamExecutor() {
+            return Runnable::run;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
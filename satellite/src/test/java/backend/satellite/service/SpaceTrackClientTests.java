@@ -0,0 +1,134 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(SpaceTrackClientTests.Config.class)
+@TestPropertySource(properties = {
+        "tle.upstream.retry.delay-ms=1",
+        "tle.upstream.retry.max-delay-ms=1",
+        "tle.upstream.circuit-breaker.failure-threshold=6"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SpaceTrackClientTests {
+
+    @Configuration
+    @EnableRetry(proxyTargetClass = true)
+    @Import(SpaceTrackClient.class)
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+    }
+
+    @Autowired
+    private SpaceTrackClient client;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private SpaceTrackSession session;
+
+    @Test
+    void transportFailuresAreRetriedThroughTheProxy() {
+        when(session.execute(anyString(), any())).thenThrow(new ResourceAccessException("connect timed out"));
+
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("25544"));
+        verify(session, times(3)).execute(anyString(), any());
+    }
+
+    @Test
+    void clientErrorsAreAttemptedOnce() {
+        when(session.execute(anyString(), any())).thenThrow(HttpClientErrorException.create(
+                HttpStatus.FORBIDDEN, "Forbidden", HttpHeaders.EMPTY, new byte[0], null));
+
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("25544"));
+        assertThrows(ExternalApiException.class, () -> client.fetchBatch(List.of("25544", "43013")));
+        verify(session, times(2)).execute(anyString(), any());
+        assertTrue(client.isAvailable());
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingUpstream() {
+        when(session.execute(anyString(), any())).thenThrow(new ResourceAccessException("connect timed out"));
+
+        // Two exhausted requests of three attempts each reach the threshold of six
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("25544"));
+        assertThrows(ExternalApiException.class, () -> client.fetchBatch(List.of("25544", "43013")));
+        assertFalse(client.isAvailable());
+
+        assertThrows(ExternalApiException.class, () -> client.fetchLatest("25544"));
+        verify(session, times(6)).execute(anyString(), any());
+        assertEquals(1.0, meterRegistry.get("spacetrack.circuit.rejections").counter().count());
+        assertEquals(1.0, meterRegistry.get("spacetrack.circuit.state").gauge().value());
+    }
+
+    @Test
+    void nonRetryableFailuresPassThroughUnchanged() {
+        when(session.execute(anyString(), any())).thenReturn(List.of());
+
+        assertThrows(TleDataNotFoundException.class, () -> client.fetchLatest("99999"));
+        verify(session, times(1)).execute(anyString(), any());
+        assertTrue(client.isAvailable());
+    }
+
+    @Test
+    void halfOpenBreakerAllowsOneTrialCall() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(30), now::get);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+
+        now.set(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+}
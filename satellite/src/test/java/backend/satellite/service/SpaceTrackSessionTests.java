@@ -0,0 +1,143 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceTrackSessionTests {
+
+    private HttpServer server;
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger queries = new AtomicInteger();
+    private volatile String validCookie = "chocolatechip=session-1";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ajaxauth/login", exchange -> {
+            int login = logins.incrementAndGet();
+            validCookie = "chocolatechip=session-" + login;
+            exchange.getResponseHeaders().add("Set-Cookie", validCookie + "; path=/; secure; HttpOnly");
+            respond(exchange, 200, "\"\"");
+        });
+        server.createContext("/basicspacedata", exchange -> {
+            queries.incrementAndGet();
+            if (!validCookie.equals(exchange.getRequestHeaders().getFirst("Cookie"))) {
+                respond(exchange, 401, "");
+                return;
+            }
+            respond(exchange, 200, "[]");
+        });
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sessionIsSharedAcrossThreads() throws Exception {
+        SpaceTrackSession session = session(1000, 1000);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(callers.submit(() -> session.get("/basicspacedata/query")));
+            }
+            for (Future<String> result : results) {
+                assertEquals("[]", result.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, logins.get());
+        assertEquals(64, queries.get());
+    }
+
+    @Test
+    void rejectedSessionIsRenewedOnce() {
+        SpaceTrackSession session = session(1000, 1000);
+        session.get("/basicspacedata/query");
+
+        validCookie = "chocolatechip=expired-on-server";
+        assertEquals("[]", session.get("/basicspacedata/query"));
+
+        assertEquals(2, logins.get());
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    void requestsBeyondRateLimitWaitThenFail() {
+        SpaceTrackSession session = session(2, 1000);
+        ReflectionTestUtils.setField(session, "maxWaitSeconds", 0L);
+
+        session.get("/basicspacedata/query");
+
+        // Login and the first query used both tokens of the per-minute bucket
+        assertThrows(ExternalApiException.class, () -> session.get("/basicspacedata/query"));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void sparePermitsCountTheLoginAnExpiredSessionNeeds() {
+        SpaceTrackSession session = session(3, 1000);
+        // Login plus a query, with two tokens left
+        assertTrue(session.hasSparePermits());
+
+        session.get("/basicspacedata/query");
+        // One token left, enough for a query on the open session
+        assertTrue(session.hasSparePermits());
+
+        session.get("/basicspacedata/query");
+        assertFalse(session.hasSparePermits());
+        assertEquals(2, queries.get());
+    }
+
+    private SpaceTrackSession session(int perMinute, int perHour) {
+        SpaceTrackSession session = new SpaceTrackSession();
+        ReflectionTestUtils.setField(session, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(session, "spacetrackUsername", "user");
+        ReflectionTestUtils.setField(session, "spacetrackPassword", "secret");
+        ReflectionTestUtils.setField(session, "sessionTtlMinutes", 90L);
+        ReflectionTestUtils.setField(session, "requestsPerMinute", perMinute);
+        ReflectionTestUtils.setField(session, "requestsPerHour", perHour);
+        ReflectionTestUtils.setField(session, "maxWaitSeconds", 30L);
+        ReflectionTestUtils.setField(session, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(session, "observationRegistry", ObservationRegistry.NOOP);
+        session.init();
+        return session;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
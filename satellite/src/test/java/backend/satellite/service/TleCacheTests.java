@@ -0,0 +1,100 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TleCacheTests {
+
+    private ExecutorService executor;
+    private TleCache tleCache;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        tleCache = new TleCache();
+        ReflectionTestUtils.setField(tleCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(tleCache, "minTtlSeconds", 0L);
+        ReflectionTestUtils.setField(tleCache, "upstreamExecutor", executor);
+        ReflectionTestUtils.setField(tleCache, "meterRegistry", new SimpleMeterRegistry());
+        tleCache.init();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<TleData>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                results.add(callers.submit(() -> tleCache.get("25544", satNumber -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return tleData(satNumber, LocalDateTime.now());
+                })));
+            }
+            release.countDown();
+
+            TleData first = results.get(0).get();
+            for (Future<TleData> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            callers.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleRecordsAreReloaded() {
+        AtomicInteger loads = new AtomicInteger();
+        LocalDateTime expired = LocalDateTime.now().minusHours(TleService.CACHE_HOURS + 1);
+
+        tleCache.get("25544", satNumber -> {
+            loads.incrementAndGet();
+            return tleData(satNumber, expired);
+        });
+        tleCache.get("25544", satNumber -> {
+            loads.incrementAndGet();
+            return tleData(satNumber, LocalDateTime.now());
+        });
+        tleCache.get("25544", satNumber -> {
+            loads.incrementAndGet();
+            return tleData(satNumber, LocalDateTime.now());
+        });
+
+        assertEquals(2, loads.get());
+        executor.shutdownNow();
+    }
+
+    private static TleData tleData(String satNumber, LocalDateTime lastUpdated) {
+        TleData tleData = new TleData();
+        tleData.setSatNumber(satNumber);
+        tleData.setLastUpdated(lastUpdated);
+        return tleData;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
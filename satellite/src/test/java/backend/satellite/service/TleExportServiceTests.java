@@ -0,0 +1,122 @@
+package backend.satellite.service;
+
+import backend.satellite.model.TleField;
+import backend.satellite.repository.TleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({TleExportService.class, TleExportServiceTests.Config.class})
+@TestPropertySource(properties = {"tle.all.max-page-size=100", "tle.export.page-size=2"})
+class TleExportServiceTests {
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TleExportService exportService;
+
+    @Test
+    void ndjsonWritesOnlySelectedFields() throws Exception {
+        Set<TleField> fields = TleField.parse("satNumber,tleString");
+        when(tleRepository.streamAll(any(), eq(null), eq(2)))
+                .thenReturn(Stream.of(tleData(1L, "25544", "line", null), tleData(2L, "43013", "line", null)));
+        when(tleRepository.streamAll(any(), eq(2L), eq(2))).thenReturn(Stream.of());
+
+        String[] lines = render(exportService.exportAll(fields, null, TleExportService.Format.NDJSON)).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("25544", first.get("satNumber").asText());
+        assertEquals("line", first.get("tleString").asText());
+        assertEquals(2, first.size());
+    }
+
+    @Test
+    void fullExportReadsOnePageAtATimeAfterTheLastIdWritten() throws Exception {
+        Set<TleField> fields = EnumSet.of(TleField.SAT_NUMBER);
+        Set<TleField> withId = EnumSet.of(TleField.ID, TleField.SAT_NUMBER);
+        when(tleRepository.streamAll(withId, 10L, 2))
+                .thenReturn(Stream.of(tleData(11L, "1", "line", null), tleData(12L, "2", "line", null)));
+        when(tleRepository.streamAll(withId, 12L, 2)).thenReturn(Stream.of(tleData(15L, "3", "line", null)));
+
+        JsonNode body = objectMapper.readTree(render(exportService.exportAll(fields, 10L, TleExportService.Format.JSON)));
+
+        assertEquals(3, body.size());
+        assertEquals("3", body.get(2).get("satNumber").asText());
+        assertFalse(body.get(0).has("id"));
+        // The short second page is the last one
+        verify(tleRepository, times(2)).streamAll(any(), any(), any());
+    }
+
+    @Test
+    void pageReportsNextCursorOnlyWhenMoreRowsRemain() throws Exception {
+        Set<TleField> fields = EnumSet.of(TleField.SAT_NUMBER);
+        when(tleRepository.streamAll(any(), eq(10L), eq(3)))
+                .thenReturn(Stream.of(tleData(11L, "1", "line", null), tleData(12L, "2", "line", null),
+                        tleData(13L, "3", "line", null)));
+        when(tleRepository.streamAll(any(), eq(12L), eq(3)))
+                .thenReturn(Stream.of(tleData(13L, "3", "line", null)));
+
+        TleExportService.Page page = exportService.exportPage(fields, 10L, 2, TleExportService.Format.JSON);
+        JsonNode body = objectMapper.readTree(render(page.body()));
+        assertEquals(12L, page.nextAfter());
+        assertEquals(12L, body.get("nextAfter").asLong());
+        assertEquals(List.of("1", "2"), List.of(body.get("data").get(0).get("satNumber").asText(),
+                body.get("data").get(1).get("satNumber").asText()));
+        assertFalse(body.get("data").get(0).has("id"));
+
+        TleExportService.Page last = exportService.exportPage(fields, 12L, 2, TleExportService.Format.JSON);
+        assertNull(last.nextAfter());
+        assertTrue(objectMapper.readTree(render(last.body())).get("nextAfter").isNull());
+    }
+
+    @Test
+    void rejectsOutOfRangeLimitsAndUnknownFields() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportPage(EnumSet.allOf(TleField.class), null, 101, TleExportService.Format.JSON));
+        assertThrows(IllegalArgumentException.class, () -> TleField.parse("satNumber,name"));
+    }
+
+    private static String render(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.TleDataNotFoundException;
+import backend.satellite.model.TleHistory;
+import backend.satellite.repository.TleHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static backend.satellite.TleFixtures.tleData;
+import static backend.satellite.TleFixtures.tleString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({TleHistoryService.class, TleHistoryServiceTests.Config.class})
+@TestPropertySource(properties = "tle.history.index.max-epochs=1000")
+// The epoch index belongs to one test
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TleHistoryServiceTests {
+
+    @MockBean
+    private TleHistoryRepository historyRepository;
+
+    @Autowired
+    private TleHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        when(historyRepository.findById(any())).thenAnswer(invocation -> Optional.of(entry(invocation.getArgument(0))));
+    }
+
+    @Test
+    void findsNearestEpochAndKeepsLoadedIndexCurrent() {
+        when(historyRepository.findEpochs("25544")).thenReturn(List.of(
+                LocalDateTime.of(2024, 1, 14, 6, 0),
+                LocalDateTime.of(2024, 1, 15, 12, 0),
+                LocalDateTime.of(2024, 1, 16, 18, 0)));
+
+        assertEquals(LocalDateTime.of(2024, 1, 15, 12, 0),
+                historyService.findNearest("25544", Instant.parse("2024-01-15T14:59:00Z")).epoch());
+        assertEquals(LocalDateTime.of(2024, 1, 14, 6, 0),
+                historyService.findNearest("25544", Instant.parse("2020-01-01T00:00:00Z")).epoch());
+        assertEquals(LocalDateTime.of(2024, 1, 16, 18, 0),
+                historyService.findNearest("25544", Instant.parse("2030-01-01T00:00:00Z")).epoch());
+
+        historyService.append(List.of(tleData("25544", tleString("25544", "24015.75000000"), null)));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 18, 0),
+                historyService.findNearest("25544", Instant.parse("2024-01-15T16:00:00Z")).epoch());
+        verify(historyRepository, times(1)).findEpochs("25544");
+    }
+
+    @Test
+    void indexIsReloadedWhenMaintenanceRemovedTheNearestElementSet() {
+        LocalDateTime removed = LocalDateTime.of(2024, 1, 15, 12, 0);
+        when(historyRepository.findEpochs("25544")).thenReturn(
+                List.of(LocalDateTime.of(2024, 1, 14, 6, 0), removed),
+                List.of(LocalDateTime.of(2024, 1, 14, 6, 0)));
+        when(historyRepository.findById(new TleHistory.Key("25544", removed))).thenReturn(Optional.empty());
+
+        assertEquals(LocalDateTime.of(2024, 1, 14, 6, 0),
+                historyService.findNearest("25544", Instant.parse("2024-01-15T12:00:00Z")).epoch());
+        verify(historyRepository, times(2)).findEpochs("25544");
+    }
+
+    @Test
+    void seedsOnlyAnEmptyHistory() {
+        when(historyRepository.isEmpty()).thenReturn(true, false);
+
+        historyService.seed();
+        historyService.seed();
+        verify(historyRepository, times(1)).appendCurrent(any());
+    }
+
+    @Test
+    void unknownSatelliteHasNoHistory() {
+        when(historyRepository.findEpochs("99999")).thenReturn(List.of());
+        assertThrows(TleDataNotFoundException.class, () -> historyService.findNearest("99999", Instant.now()));
+    }
+
+    @Test
+    void compactionKeepsFirstElementSetPerSatellitePerDay() {
+        LocalDate day = LocalDate.of(2023, 6, 1);
+        when(historyRepository.findKeysBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                new TleHistory.Key("25544", day.atTime(1, 0)),
+                new TleHistory.Key("25544", day.atTime(9, 0)),
+                new TleHistory.Key("25544", day.atTime(17, 0)),
+                new TleHistory.Key("43013", day.atTime(4, 0))));
+
+        assertEquals(2, historyService.compact(day, day.plusDays(1)));
+        verify(historyRepository).deleteKeys(List.of(
+                new TleHistory.Key("25544", day.atTime(9, 0)),
+                new TleHistory.Key("25544", day.atTime(17, 0))));
+    }
+
+    private static TleHistory entry(TleHistory.Key key) {
+        TleHistory entry = new TleHistory();
+        entry.setSatNumber(key.getSatNumber());
+        entry.setEpoch(key.getEpoch());
+        entry.setTleString("text");
+        return entry;
+    }
+
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package backend.satellite.service;
+
+import backend.satellite.model.ElementsFilter;
+import backend.satellite.model.TleBatchResponse;
+import backend.satellite.model.TleData;
+import backend.satellite.model.TleSearchResponse;
+import backend.satellite.repository.TleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.ISS_LINE1;
+import static backend.satellite.TleFixtures.ISS_LINE2;
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// Stale entries expire from the cache at once, so every request below reads the stale row again
+@SpringJUnitConfig({TleService.class, TleCache.class, TleServiceTests.Config.class})
+@TestPropertySource(properties = {"tle.cache.min-ttl-seconds=0", "tle.batch.max-ids=3"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TleServiceTests {
+
+    @MockBean
+    private TleRepository tleRepository;
+
+    @MockBean
+    private TleSources tleSources;
+
+    @MockBean
+    private TleHistoryService tleHistoryService;
+
+    @MockBean
+    private FetchCountAggregator fetchCountAggregator;
+
+    @Autowired
+    private TleService tleService;
+
+    @Autowired
+    private TleCache tleCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void staleRecordIsServedWhileOneBackgroundRefreshRuns() throws Exception {
+        TleData stale = tleData(1L, "25544", ISS, LocalDateTime.now().minusHours(6));
+        TleData fresh = tleData(1L, "25544", ISS, LocalDateTime.now());
+        when(tleRepository.findBySatNumber("25544")).thenReturn(stale);
+        // The batch read, then the re-read after the refresh stores the fetched record
+        when(tleRepository.findBySatNumberIn(List.of("25544"))).thenReturn(List.of(stale), List.of(fresh));
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(tleSources.fetchBatch(List.of("25544"))).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await();
+            return List.of(new GpRecord("25544", "ISS (ZARYA)", null, ISS_LINE1, ISS_LINE2));
+        });
+
+        assertSame(stale, tleService.getTleData("25544"));
+        assertTrue(fetchStarted.await(2, TimeUnit.SECONDS));
+        // The refresh is still running, so the second stale read does not start another one
+        assertSame(stale, tleService.getTleData("25544"));
+        assertSame(stale, tleService.getTleDataBatch(List.of("25544")).data().get(0));
+        assertEquals(3.0, meterRegistry.get("tle.stale.served").counter().count());
+
+        releaseFetch.countDown();
+        // The refresh timer stops once the fresh record is in the cache
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.find("tle.refresh").timer() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, meterRegistry.get("tle.refresh").tag("outcome", "success").timer().count());
+        verify(tleSources, times(1)).fetchBatch(anyList());
+        verify(tleRepository).upsertAll(anyList());
+        verify(tleHistoryService).append(anyList());
+        assertSame(fresh, tleCache.getIfPresent("25544"));
+    }
+
+    @Test
+    void batchAnswersHitsFromCacheAndStoreAndFetchesMissesOnce() {
+        tleCache.put(tleData(1L, "25544", ISS, LocalDateTime.now()));
+        when(tleRepository.findBySatNumberIn(List.of("43013", "99999")))
+                .thenReturn(List.of(tleData(2L, "43013", null, LocalDateTime.now())));
+        when(tleSources.fetchBatch(List.of("99999"))).thenReturn(List.of());
+
+        TleBatchResponse response = tleService.getTleDataBatch(List.of("25544", "43013", "25544", "99999"));
+
+        assertEquals(List.of("25544", "43013"), response.data().stream().map(TleData::getSatNumber).toList());
+        assertEquals(List.of("99999"), response.notFound());
+        verify(tleSources, times(1)).fetchBatch(anyList());
+        verify(fetchCountAggregator, times(1)).increment("25544");
+        verify(fetchCountAggregator, times(1)).increment("43013");
+    }
+
+    @Test
+    void batchLimitCountsDistinctSatellites() {
+        when(tleRepository.findBySatNumberIn(anyList())).thenReturn(List.of());
+        when(tleSources.fetchBatch(anyList())).thenReturn(List.of());
+
+        assertEquals(List.of("1", "2", "3"),
+                tleService.getTleDataBatch(List.of("1", "2", "2", "3", "1")).notFound());
+        assertThrows(IllegalArgumentException.class, () -> tleService.getTleDataBatch(List.of("1", "2", "3", "4")));
+    }
+
+    @Test
+    void readsForPropagationAreNotCountedAsFetches() throws Exception {
+        TleData iss = tleData(1L, "25544", ISS, LocalDateTime.now());
+        when(tleRepository.findBySatNumber("25544")).thenReturn(iss);
+        when(tleRepository.findBySatNumberIn(List.of("25544"))).thenReturn(List.of(iss));
+
+        assertSame(iss, tleService.getTleData("25544", false));
+        assertSame(iss, tleService.getTleDataAsync("25544", false).get(2, TimeUnit.SECONDS));
+        assertSame(iss, tleService.getTleDataBatch(List.of("25544"), false).data().get(0));
+        verifyNoInteractions(fetchCountAggregator);
+
+        tleService.getTleData("25544");
+        verify(fetchCountAggregator, times(1)).increment("25544");
+    }
+
+    @Test
+    void mostFetchedMergesUnflushedCountsIntoADetachedCopy() {
+        TleData stored = tleData(1L, "25544", ISS, LocalDateTime.now());
+        stored.setFetchCount(10);
+        TleData runnerUp = tleData(2L, "43013", null, LocalDateTime.now());
+        runnerUp.setFetchCount(8);
+        when(tleRepository.findMostFetched()).thenReturn(stored);
+        when(fetchCountAggregator.pendingCounts()).thenReturn(Map.of("25544", 1L, "43013", 5L));
+        when(tleRepository.findBySatNumberIn(Map.of("25544", 1L, "43013", 5L).keySet()))
+                .thenReturn(List.of(stored, runnerUp));
+
+        TleData mostFetched = tleService.getMostFetchedTleData();
+
+        assertEquals("43013", mostFetched.getSatNumber());
+        assertEquals(2L, mostFetched.getId());
+        assertEquals(13, mostFetched.getFetchCount());
+        assertEquals(8, runnerUp.getFetchCount());
+        assertEquals(10, stored.getFetchCount());
+    }
+
+    @Test
+    void searchReturnsACursorOnlyWhenMoreRowsMatch() {
+        ElementsFilter filter = new ElementsFilter(90.0, null, null, null, null, null, null, null, null);
+        TleData first = tleData(3L, "40001", ISS, LocalDateTime.now());
+        TleData second = tleData(7L, "40002", ISS, LocalDateTime.now());
+        when(tleRepository.search(filter, null, 2)).thenReturn(List.of(first, second));
+        when(tleRepository.search(filter, 3L, 3)).thenReturn(List.of(second));
+
+        TleSearchResponse page = tleService.searchByElements(filter, null, 1);
+        assertEquals(List.of(first), page.data());
+        assertEquals(3L, page.nextAfter());
+
+        TleSearchResponse last = tleService.searchByElements(filter, 3L, 2);
+        assertEquals(List.of(second), last.data());
+        assertNull(last.nextAfter());
+    }
+
+    @Test
+    void searchLimitIsBounded() {
+        ElementsFilter filter = new ElementsFilter(null, null, null, null, null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> tleService.searchByElements(filter, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> tleService.searchByElements(filter, null, 1001));
+        verifyNoInteractions(tleRepository);
+    }
+
+    static class Config {
+
+        @Bean(destroyMethod = "shutdownNow")
+        ExecutorService upstreamExecutor() {
+            return Executors.newFixedThreadPool(2);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
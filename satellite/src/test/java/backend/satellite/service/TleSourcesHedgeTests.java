@@ -0,0 +1,156 @@
+package backend.satellite.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Space-Track is ranked first and answers a 503 after 300 ms, which it would retry; Celestrak is queried as the
+// hedge after 50 ms and answers at once
+@SpringJUnitConfig({TleSources.class, SpaceTrackClient.class, SpaceTrackSession.class, TleSourcesHedgeTests.Config.class})
+@TestPropertySource(properties = {
+        "tle.sources.order=spacetrack,celestrak",
+        "tle.sources.hedge.max-delay-ms=50",
+        "tle.sources.hedge.grace-ms=0",
+        "tle.upstream.retry.delay-ms=1",
+        "tle.upstream.retry.max-delay-ms=1"})
+class TleSourcesHedgeTests {
+
+    private static final String LINE1 = "1 25544U 98067A   24015.50000000  .00016717  00000-0  30183-3 0  9990";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TleSources tleSources;
+
+    @Autowired
+    private SpaceTrackSession spaceTrackSession;
+
+    @Autowired
+    private SpaceTrackClient spaceTrackClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void losingSpaceTrackCallTakesOneRateLimitPermit() {
+        HttpHeaders cookie = new HttpHeaders();
+        cookie.add(HttpHeaders.SET_COOKIE, "chocolatechip=session-1; path=/");
+        when(restTemplate.postForEntity(any(URI.class), any(), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("\"\"", cookie, HttpStatus.OK));
+        // Blocking socket reads ignore interrupts, so the stub only sees the interrupt once its answer is in
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any())).thenAnswer(invocation -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            boolean interrupted = false;
+            while (System.nanoTime() < deadline) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(deadline - System.nanoTime());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+        // Log in up front so only the GP query reserves a permit from here on
+        spaceTrackSession.currentCookie();
+        TokenBucket minuteBucket = spyOn("minuteBucket");
+        TokenBucket hourBucket = spyOn("hourBucket");
+
+        assertEquals(LINE1, tleSources.fetchLatest("25544").tleLine1());
+
+        // Well past the 503 and the 1 ms retry backoff
+        verify(restTemplate, after(1000)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+        verify(minuteBucket).reserve(anyLong());
+        verify(hourBucket).reserve(anyLong());
+        verify(minuteBucket, never()).refund();
+        assertTrue(spaceTrackClient.isAvailable());
+        assertNull(meterRegistry.find("tle.source.fetch").tag("source", "spacetrack").timer());
+        assertEquals(1.0, meterRegistry.get("tle.source.wins").tag("source", "celestrak").counter().count());
+    }
+
+    private TokenBucket spyOn(String field) {
+        TokenBucket bucket = spy((TokenBucket) ReflectionTestUtils.getField(spaceTrackSession, field));
+        ReflectionTestUtils.setField(spaceTrackSession, field, bucket);
+        return bucket;
+    }
+
+    @EnableRetry(proxyTargetClass = true)
+    static class Config {
+
+        @Bean(destroyMethod = "shutdownNow")
+        ExecutorService sourceExecutor() {
+            return Executors.newCachedThreadPool();
+        }
+
+        @Bean
+        TleSource celestrak() {
+            return new TleSource() {
+                @Override
+                public String name() {
+                    return "celestrak";
+                }
+
+                @Override
+                public GpRecord fetchLatest(String satNumber) {
+                    return new GpRecord(satNumber, "ISS (ZARYA)", null, LINE1, LINE2);
+                }
+
+                @Override
+                public List<GpRecord> fetchBatch(List<String> satNumbers) {
+                    return List.of(fetchLatest(satNumbers.get(0)));
+                }
+
+                @Override
+                public boolean isAvailable() {
+                    return true;
+                }
+            };
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package backend.satellite.service;
+
+import backend.satellite.exception.ExternalApiException;
+import backend.satellite.exception.TleDataNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TleSourcesTests {
+
+    private static final String OLD_LINE1 = "1 25544U 98067A   24015.50000000  .00016717  00000-0  30183-3 0  9990";
+    private static final String NEW_LINE1 = "1 25544U 98067A   24016.50000000  .00016717  00000-0  30183-3 0  9991";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndFasterSourceWins() {
+        TleSources sources = sources(1,
+                new StubSource("a", 2000, () -> record(OLD_LINE1)),
+                new StubSource("b", 10, () -> record(OLD_LINE1)));
+
+        long start = System.nanoTime();
+        sources.fetchLatest("25544");
+        assertTrue(System.nanoTime() - start < 1_500_000_000L);
+        assertEquals(1.0, meterRegistry.get("tle.source.hedges").tag("source", "b").counter().count());
+        assertEquals(1.0, meterRegistry.get("tle.source.wins").tag("source", "b").counter().count());
+    }
+
+    @Test
+    void newerEpochWinsWhenBothAnswerWithinGrace() {
+        TleSources sources = sources(1,
+                new StubSource("a", 300, () -> record(OLD_LINE1)),
+                new StubSource("b", 300, () -> record(NEW_LINE1)));
+        ReflectionTestUtils.setField(sources, "graceMs", 1000L);
+
+        assertEquals(NEW_LINE1, sources.fetchLatest("25544").tleLine1());
+    }
+
+    @Test
+    void failedSourceIsReplacedWithoutWaitingForTheHedgeDelay() {
+        TleSources sources = sources(1,
+                new StubSource("a", 0, () -> {
+                    throw new ExternalApiException("Space-Track is down");
+                }),
+                new StubSource("b", 0, () -> record(OLD_LINE1)));
+        ReflectionTestUtils.setField(sources, "maxDelayMs", 60_000L);
+
+        assertEquals(OLD_LINE1, sources.fetchLatest("25544").tleLine1());
+        assertTrue(meterRegistry.find("tle.source.hedges").counters().isEmpty());
+    }
+
+    @Test
+    void notFoundOnlyWhenNoSourceHasTheSatellite() {
+        TleSources sources = sources(1,
+                new StubSource("a", 0, () -> {
+                    throw new TleDataNotFoundException("No TLE data found for satellite: 99999");
+                }),
+                new StubSource("b", 0, () -> {
+                    throw new TleDataNotFoundException("No TLE data found for satellite: 99999");
+                }));
+
+        assertThrows(TleDataNotFoundException.class, () -> sources.fetchLatest("99999"));
+    }
+
+    @Test
+    void slowPrimaryIsNotHedgedIntoASourceWithoutSpareCapacity() {
+        AtomicInteger calls = new AtomicInteger();
+        TleSources sources = sources(1,
+                new StubSource("a", 300, () -> record(OLD_LINE1)),
+                new WithoutSpareCapacity(new StubSource("b", 0, () -> {
+                    calls.incrementAndGet();
+                    return record(NEW_LINE1);
+                })));
+
+        assertEquals(OLD_LINE1, sources.fetchLatest("25544").tleLine1());
+        assertEquals(0, calls.get());
+        assertTrue(meterRegistry.find("tle.source.hedges").counters().isEmpty());
+    }
+
+    @Test
+    void sourceWithoutSpareCapacityStillReplacesAFailedOne() {
+        TleSources sources = sources(1,
+                new StubSource("a", 0, () -> {
+                    throw new ExternalApiException("Celestrak is down");
+                }),
+                new WithoutSpareCapacity(new StubSource("b", 0, () -> record(OLD_LINE1))));
+
+        assertEquals(OLD_LINE1, sources.fetchLatest("25544").tleLine1());
+    }
+
+    @Test
+    void fasterSourceMovesToTheFrontOnceSampled() {
+        StubSource slow = new StubSource("a", 100, () -> record(OLD_LINE1));
+        StubSource fast = new StubSource("b", 0, () -> record(OLD_LINE1));
+        TleSources sources = sources(2, slow, fast);
+        assertEquals(List.of(slow, fast), sources.ranked());
+
+        // A hedge delay below the primary's latency gives the second source its samples too
+        ReflectionTestUtils.setField(sources, "maxDelayMs", 20L);
+        ReflectionTestUtils.setField(sources, "graceMs", 0L);
+        for (int i = 0; i < 2; i++) {
+            sources.fetchLatest("25544");
+        }
+        assertEquals(List.of(fast, slow), sources.ranked());
+    }
+
+    private TleSources sources(int minSamples, TleSource... upstreams) {
+        TleSources sources = new TleSources();
+        ReflectionTestUtils.setField(sources, "order", List.of("a", "b"));
+        ReflectionTestUtils.setField(sources, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(sources, "hedgeQuantile", 0.95);
+        ReflectionTestUtils.setField(sources, "minDelayMs", 10L);
+        ReflectionTestUtils.setField(sources, "maxDelayMs", 50L);
+        ReflectionTestUtils.setField(sources, "graceMs", 0L);
+        ReflectionTestUtils.setField(sources, "latencyWindow", 10);
+        ReflectionTestUtils.setField(sources, "minSamples", minSamples);
+        ReflectionTestUtils.setField(sources, "sources", List.of(upstreams));
+        ReflectionTestUtils.setField(sources, "sourceExecutor", executor);
+        ReflectionTestUtils.setField(sources, "meterRegistry", meterRegistry);
+        sources.init();
+        return sources;
+    }
+
+    private static GpRecord record(String line1) {
+        return new GpRecord("25544", "ISS (ZARYA)", null, line1, LINE2);
+    }
+
+    private record StubSource(String name, long delayMs, Supplier<GpRecord> answer) implements TleSource {
+
+        @Override
+        public GpRecord fetchLatest(String satNumber) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return answer.get();
+        }
+
+        @Override
+        public List<GpRecord> fetchBatch(List<String> satNumbers) {
+            return List.of(fetchLatest(satNumbers.get(0)));
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    }
+
+    // A rate-limited source whose permits are all spoken for
+    private record WithoutSpareCapacity(StubSource stub) implements TleSource {
+
+        @Override
+        public String name() {
+            return stub.name();
+        }
+
+        @Override
+        public GpRecord fetchLatest(String satNumber) {
+            return stub.fetchLatest(satNumber);
+        }
+
+        @Override
+        public List<GpRecord> fetchBatch(List<String> satNumbers) {
+            return stub.fetchBatch(satNumbers);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean hasSpareCapacity() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package backend.satellite.service;
+
+import backend.satellite.config.StartupMetrics;
+import backend.satellite.model.OrbitalElements;
+import backend.satellite.model.TleData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static backend.satellite.TleFixtures.ISS;
+import static backend.satellite.TleFixtures.tleData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(WarmSnapshot.class)
+@TestPropertySource(properties = "tle.snapshot.max-entries=2")
+class WarmSnapshotTests {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) {
+        registry.add("tle.snapshot.file", () -> dir.resolve("data/warm.snapshot").toString());
+    }
+
+    @MockBean
+    private TleCache tleCache;
+
+    @MockBean
+    private FetchCountAggregator fetchCountAggregator;
+
+    @MockBean
+    private StartupMetrics startupMetrics;
+
+    @Autowired
+    private WarmSnapshot snapshot;
+
+    @Test
+    void restoresTheHottestRecordsWithElementsAndCounts() throws Exception {
+        LocalDateTime now = LocalDateTime.now().withNano(123_456_000);
+        TleData iss = tleData(7L, "25544", ISS, now);
+        iss.setFetchCount(42);
+        TleData unparsed = tleData("43013", "not a TLE", now);
+        when(fetchCountAggregator.recentCounts()).thenReturn(Map.of("25544", 10.0, "43013", 5.0, "20580", 1.0));
+        when(tleCache.getIfPresent("25544")).thenReturn(iss);
+        when(tleCache.getIfPresent("43013")).thenReturn(unparsed);
+        Path file = dir.resolve("data/warm.snapshot");
+        assertEquals(2, snapshot.write(file));
+
+        assertEquals(2, snapshot.load(file));
+        ArgumentCaptor<TleData> loaded = ArgumentCaptor.forClass(TleData.class);
+        verify(tleCache, times(2)).put(loaded.capture());
+        TleData restored = loaded.getAllValues().get(0);
+        assertEquals(7L, restored.getId());
+        assertEquals(ISS, restored.getTleString());
+        assertEquals(now, restored.getLastUpdated());
+        assertEquals(42, restored.getFetchCount());
+        OrbitalElements elements = restored.getElements();
+        assertEquals(iss.getElements().getEpoch(), elements.getEpoch());
+        assertEquals(iss.getElements().getMeanMotion(), elements.getMeanMotion());
+        assertEquals(iss.getElements().getPerigeeKm(), elements.getPerigeeKm());
+        assertEquals(iss.getElements().getRevNumber(), elements.getRevNumber());
+        assertNull(loaded.getAllValues().get(1).getElements());
+        verify(fetchCountAggregator).restoreRecentCounts(eq(Map.of("25544", 10.0, "43013", 5.0)), anyLong());
+    }
+
+    @Test
+    void skipsRecordsThatWentStale() throws Exception {
+        when(fetchCountAggregator.recentCounts()).thenReturn(Map.of("25544", 10.0, "43013", 5.0));
+        when(tleCache.getIfPresent("25544")).thenReturn(tleData("25544", ISS, LocalDateTime.now().minusHours(6)));
+        Path file = dir.resolve("stale.snapshot");
+        assertEquals(2, snapshot.write(file));
+
+        assertEquals(0, snapshot.load(file));
+        verify(tleCache, never()).put(any());
+    }
+
+    @Test
+    void unreadableSnapshotIsIgnoredAtStartup() throws Exception {
+        Path file = dir.resolve("data/warm.snapshot");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3});
+
+        snapshot.init();
+        verify(fetchCountAggregator, never()).restoreRecentCounts(anyMap(), anyLong());
+        verify(startupMetrics, never()).markWarm(anyInt());
+        assertTrue(Files.exists(file));
+    }
+}